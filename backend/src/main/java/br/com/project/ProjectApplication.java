@@ -1,5 +1,6 @@
 package br.com.project;
 
+import br.com.project.util.pesquisa.PesquisaLimites;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
@@ -12,7 +13,7 @@ import java.net.InetAddress;
 import java.util.Optional;
 
 @SpringBootApplication
-@EnableConfigurationProperties({LiquibaseProperties.class})
+@EnableConfigurationProperties({LiquibaseProperties.class, PesquisaLimites.class})
 public class ProjectApplication {
 
     private static final Logger log = LoggerFactory.getLogger(ProjectApplication.class);
@@ -0,0 +1,21 @@
+package br.com.project.config;
+
+import br.com.project.util.pesquisa.PesquisaSqlInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer pesquisaHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new PesquisaSqlInspector());
+            // As consultas da pesquisa são reutilizadas (PesquisaConsultas); sem a cópia da árvore o Hibernate reaproveita o plano
+            properties.put(AvailableSettings.CRITERIA_COPY_TREE, false);
+            properties.put(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, true);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.project.config;
+
+import br.com.project.util.pesquisa.PesquisaExportacao;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+@Configuration
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    /**
+     * As requisições assíncronas usam o tempo máximo padrão do container, exceto as que definem o seu próprio em
+     * {@link PesquisaExportacao#ATRIBUTO_TEMPO_MAXIMO}. O interceptor roda antes de a requisição entrar em modo
+     * assíncrono, o último momento em que o tempo máximo ainda pode ser alterado.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object tempoMaximo = request.getAttribute(PesquisaExportacao.ATRIBUTO_TEMPO_MAXIMO, RequestAttributes.SCOPE_REQUEST);
+                if (tempoMaximo instanceof Long millis && request instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(millis);
+                }
+            }
+        });
+    }
+}
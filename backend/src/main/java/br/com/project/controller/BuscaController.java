@@ -0,0 +1,38 @@
+package br.com.project.controller;
+
+import br.com.project.config.security.Scope;
+import br.com.project.dto.BuscaRequestDTO;
+import br.com.project.dto.BuscaResponseDTO;
+import br.com.project.errors.StanderError;
+import br.com.project.service.BuscaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@PreAuthorize(Scope.ADMIN)
+@RequestMapping("busca")
+@Schema(name = "Endpoint de busca em livros, usuários e categorias")
+public class BuscaController {
+
+    private final BuscaService service;
+
+    @PostMapping
+    @Operation(summary = "Busca um termo em livros, usuários e categorias", description = "Pesquisa as três entidades ao mesmo tempo e retorna os resultados agrupados. As pesquisas que não terminarem dentro do tempo máximo são listadas em indisponiveis, sem resultado", responses = {
+            @ApiResponse(responseCode = "200", description = "Busca realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Termo não informado ou quantidade inválida", content = {@Content(schema = @Schema(implementation = StanderError.class))})
+    })
+    public ResponseEntity<BuscaResponseDTO> buscar(@RequestBody BuscaRequestDTO request) {
+        return new ResponseEntity<>(service.buscar(request), HttpStatus.OK);
+    }
+}
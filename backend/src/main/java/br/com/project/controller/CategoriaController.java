@@ -77,13 +77,7 @@ public class CategoriaController {
             @ApiResponse(responseCode = "200", description = "Pesquisa realizada com sucesso")
     })
     public PesquisaResult<CategoriaDTO> pesquisa(@RequestBody PesquisaRequest request) {
-        PesquisaResult<Categoria> pesquisaResult = Objects.requireNonNull(pesquisa).pesquisar(request, Categoria.class);
-
-        return PesquisaResult.<CategoriaDTO>builder()
-                .pagina(pesquisaResult.getPagina())
-                .totalRegistros(pesquisaResult.getTotalRegistros())
-                .registros(pesquisaResult.getRegistros().stream().map(CategoriaDTO::fromEntity).toList())
-                .build();
+        return Objects.requireNonNull(pesquisa).pesquisar(request, Categoria.class).mapear(CategoriaDTO::fromEntity);
     }
 
     @GetMapping("verifica-exclusao")
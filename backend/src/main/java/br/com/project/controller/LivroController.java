@@ -6,7 +6,10 @@ import br.com.project.entity.Livro;
 import br.com.project.errors.StanderError;
 import br.com.project.service.GoogleBooksService;
 import br.com.project.service.LivroService;
+import br.com.project.util.ExpansaoUtil;
+import br.com.project.util.pesquisa.FormatoExportacao;
 import br.com.project.util.pesquisa.Pesquisa;
+import br.com.project.util.pesquisa.PesquisaExportacao;
 import br.com.project.util.pesquisa.PesquisaRequest;
 import br.com.project.util.pesquisa.PesquisaResult;
 import com.google.api.services.books.model.Volume;
@@ -18,12 +21,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Objects;
 
 @RestController
@@ -35,15 +42,19 @@ public class LivroController {
 
     private final LivroService service;
     private final Pesquisa<Livro> pesquisa;
+    private final PesquisaExportacao pesquisaExportacao;
     private final GoogleBooksService googleBooksService;
 
     @GetMapping
     @Operation(summary = "Busca livro por id", responses = {
             @ApiResponse(responseCode = "200", description = "Livro encontrado"),
+            @ApiResponse(responseCode = "400", description = "Valor de expand inválido", content = {@Content(schema = @Schema(implementation = StanderError.class))}),
             @ApiResponse(responseCode = "404", description = "Livro não encontrado", content = {@Content(schema = @Schema(implementation = StanderError.class))})
     })
-    public ResponseEntity<LivroDTO> getLivroById(@RequestParam Long id) {
-        LivroDTO categoriaById = service.getLivroDTOById(id);
+    public ResponseEntity<LivroDTO> getLivroById(@RequestParam Long id,
+                                                 @Parameter(description = "Associações a retornar: categoria, emprestimoAtivo. Quando não informado, todas são retornadas")
+                                                 @RequestParam(required = false) List<String> expand) {
+        LivroDTO categoriaById = service.getLivroDTOById(id, expand);
         return new ResponseEntity<>(categoriaById, HttpStatus.OK);
     }
 
@@ -82,13 +93,24 @@ public class LivroController {
             @ApiResponse(responseCode = "200", description = "Pesquisa realizada com sucesso")
     })
     public PesquisaResult<LivroDTO> pesquisa(@RequestBody PesquisaRequest request) {
-        PesquisaResult<Livro> pesquisaResult = Objects.requireNonNull(pesquisa).pesquisar(request, Livro.class);
+        return Objects.requireNonNull(pesquisa).pesquisar(request, Livro.class,
+                LivroDTO.projecao(ExpansaoUtil.resolver(request.getExpand(), LivroDTO.EXPANSOES)));
+    }
 
-        return PesquisaResult.<LivroDTO>builder()
-                .pagina(pesquisaResult.getPagina())
-                .totalRegistros(pesquisaResult.getTotalRegistros())
-                .registros(pesquisaResult.getRegistros().stream().map(LivroDTO::fromEntity).toList())
-                .build();
+    @PostMapping("pesquisa/exportar")
+    @Operation(summary = "Exporta o resultado completo da pesquisa de livros em NDJSON ou CSV", responses = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo de filtro ou ordenação inválido", content = {@Content(schema = @Schema(implementation = StanderError.class))}),
+            @ApiResponse(responseCode = "429", description = "Limite de exportações simultâneas atingido", content = {@Content(schema = @Schema(implementation = StanderError.class))})
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestBody PesquisaRequest request,
+                                                          @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato) {
+        StreamingResponseBody corpo = pesquisaExportacao.exportar(Objects.requireNonNull(pesquisa), request, Livro.class,
+                LivroDTO.projecao(ExpansaoUtil.resolver(request.getExpand(), LivroDTO.EXPANSOES)), formato);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"livros." + formato.getExtensao() + "\"")
+                .body(corpo);
     }
 
     @GetMapping("verifica-exclusao")
@@ -0,0 +1,75 @@
+package br.com.project.controller;
+
+import br.com.project.config.security.Scope;
+import br.com.project.util.pesquisa.PesquisaEstatisticas;
+import br.com.project.util.pesquisa.PesquisaIndices;
+import br.com.project.util.pesquisa.PesquisaLenta;
+import br.com.project.util.pesquisa.PesquisaLentas;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@PreAuthorize(Scope.ADMIN)
+@RequestMapping("pesquisa")
+@Schema(name = "Endpoints para diagnóstico das pesquisas")
+public class PesquisaController {
+
+    private final PesquisaLentas pesquisaLentas;
+    private final PesquisaEstatisticas pesquisaEstatisticas;
+    private final PesquisaIndices pesquisaIndices;
+
+    @GetMapping("lentas")
+    @Operation(summary = "Lista as pesquisas lentas", description = "Lista as últimas pesquisas que ultrapassaram o limiar de duração, da mais recente para a mais antiga, com a requisição e o SQL sem os valores dos filtros, os tempos de execução e o plano do EXPLAIN (ANALYZE, BUFFERS)", responses = {
+            @ApiResponse(responseCode = "200", description = "Pesquisas lentas listadas com sucesso")
+    })
+    public ResponseEntity<List<PesquisaLenta>> getPesquisasLentas() {
+        return new ResponseEntity<>(pesquisaLentas.listar(), HttpStatus.OK);
+    }
+
+    @DeleteMapping("lentas")
+    @Operation(summary = "Limpa as pesquisas lentas registradas", responses = {
+            @ApiResponse(responseCode = "204", description = "Pesquisas lentas removidas com sucesso")
+    })
+    public ResponseEntity<Void> deletePesquisasLentas() {
+        pesquisaLentas.limpar();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @GetMapping("estatisticas")
+    @Operation(summary = "Lista as estatísticas de uso das pesquisas", description = "Lista as combinações de entidade, filtros (campo e comparação) e ordenação executadas no banco, da que consumiu mais tempo para a que consumiu menos, com a quantidade de execuções e o histograma de duração", responses = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas listadas com sucesso")
+    })
+    public ResponseEntity<List<PesquisaEstatisticas.UsoPesquisa>> getEstatisticas() {
+        return new ResponseEntity<>(pesquisaEstatisticas.listar(), HttpStatus.OK);
+    }
+
+    @DeleteMapping("estatisticas")
+    @Operation(summary = "Limpa as estatísticas de uso das pesquisas", responses = {
+            @ApiResponse(responseCode = "204", description = "Estatísticas removidas com sucesso")
+    })
+    public ResponseEntity<Void> deleteEstatisticas() {
+        pesquisaEstatisticas.limpar();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @GetMapping("indices")
+    @Operation(summary = "Sugere índices para as pesquisas mais custosas", description = "Considera as combinações com mais tempo total entre as executadas ao menos pesquisa.estatisticas.minimo-execucoes vezes e sugere, com o changeSet do Liquibase, os índices B-tree, de trigramas ou de texto que ainda não existem no PostgreSQL", responses = {
+            @ApiResponse(responseCode = "200", description = "Índices sugeridos com sucesso")
+    })
+    public ResponseEntity<List<PesquisaIndices.SugestaoIndice>> getSugestoesIndices(@RequestParam(defaultValue = "20") int limite) {
+        return new ResponseEntity<>(pesquisaIndices.sugerir(limite), HttpStatus.OK);
+    }
+}
@@ -2,8 +2,10 @@ package br.com.project.controller;
 
 import br.com.project.config.security.Scope;
 import br.com.project.dto.LivroDTO;
+import br.com.project.errors.StanderError;
 import br.com.project.service.RecomendacaoService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,11 +30,36 @@ public class RecomendacaoController {
     private final RecomendacaoService service;
 
     @GetMapping
-    @Operation(summary = "Gera um lista de recomendações", description = "Gera uma lista de recomendações de livros baseado no histórico de empréstimos do usuário, caso o id do usuário seja informado, ou baseado no histórico de empréstimos de todos os usuários, caso o id do usuário não seja informado", responses = {
-            @ApiResponse(responseCode = "200", description = "Lista de recomendações gerada com sucesso")
+    @Operation(summary = "Gera um lista de recomendações", description = "Gera uma lista de recomendações de livros baseado no histórico de empréstimos do usuário, caso o id do usuário seja informado, ou baseado no histórico de empréstimos de todos os usuários, caso o id do usuário não seja informado. A lista é paginada por pagina e quantidade (no máximo 100 livros por página)", responses = {
+            @ApiResponse(responseCode = "200", description = "Lista de recomendações gerada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Página ou quantidade inválida", content = {@Content(schema = @Schema(implementation = StanderError.class))})
     })
-    public ResponseEntity<List<LivroDTO>> getRecomendacoes(@RequestParam(required = false) Long idUsuario) {
-        List<LivroDTO> livroDTOList = service.getRecomendacoes(idUsuario);
+    public ResponseEntity<List<LivroDTO>> getRecomendacoes(@RequestParam(required = false) Long idUsuario,
+                                                           @RequestParam(defaultValue = "1") int pagina,
+                                                           @RequestParam(defaultValue = "20") int quantidade) {
+        List<LivroDTO> livroDTOList = service.getRecomendacoes(idUsuario, pagina, quantidade);
         return new ResponseEntity<>(livroDTOList, HttpStatus.OK);
     }
+
+    @GetMapping("livro/{idLivro}")
+    @Operation(summary = "Lista os livros também emprestados", description = "Lista os livros emprestados pelos usuários que emprestaram o livro informado, dos mais frequentes para os menos frequentes", responses = {
+            @ApiResponse(responseCode = "200", description = "Lista de livros gerada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade inválida", content = {@Content(schema = @Schema(implementation = StanderError.class))}),
+            @ApiResponse(responseCode = "404", description = "Livro não encontrado", content = {@Content(schema = @Schema(implementation = StanderError.class))})
+    })
+    public ResponseEntity<List<LivroDTO>> getTambemEmprestados(@PathVariable Long idLivro,
+                                                               @RequestParam(defaultValue = "10") int quantidade) {
+        return new ResponseEntity<>(service.getTambemEmprestados(idLivro, quantidade), HttpStatus.OK);
+    }
+
+    @GetMapping("usuario/{idUsuario}")
+    @Operation(summary = "Gera recomendações pelo histórico do usuário", description = "Recomenda os livros mais emprestados junto com os livros do histórico do usuário, excluindo os que ele já emprestou", responses = {
+            @ApiResponse(responseCode = "200", description = "Lista de recomendações gerada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade inválida", content = {@Content(schema = @Schema(implementation = StanderError.class))}),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = {@Content(schema = @Schema(implementation = StanderError.class))})
+    })
+    public ResponseEntity<List<LivroDTO>> getRecomendacoesPorHistorico(@PathVariable Long idUsuario,
+                                                                       @RequestParam(defaultValue = "10") int quantidade) {
+        return new ResponseEntity<>(service.getRecomendacoesPorHistorico(idUsuario, quantidade), HttpStatus.OK);
+    }
 }
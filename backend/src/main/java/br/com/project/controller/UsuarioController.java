@@ -5,7 +5,9 @@ import br.com.project.dto.UsuarioDTO;
 import br.com.project.entity.Usuario;
 import br.com.project.errors.StanderError;
 import br.com.project.service.UsuarioService;
+import br.com.project.util.pesquisa.FormatoExportacao;
 import br.com.project.util.pesquisa.Pesquisa;
+import br.com.project.util.pesquisa.PesquisaExportacao;
 import br.com.project.util.pesquisa.PesquisaRequest;
 import br.com.project.util.pesquisa.PesquisaResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,11 +16,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Objects;
 
@@ -31,6 +36,7 @@ public class UsuarioController {
 
     private final UsuarioService service;
     private final Pesquisa<Usuario> pesquisa;
+    private final PesquisaExportacao pesquisaExportacao;
 
     @GetMapping
     @Operation(summary = "Busca usuario por id", responses = {
@@ -77,13 +83,22 @@ public class UsuarioController {
             @ApiResponse(responseCode = "200", description = "Pesquisa realizada com sucesso")
     })
     public PesquisaResult<UsuarioDTO> pesquisa(@RequestBody PesquisaRequest request) {
-        PesquisaResult<Usuario> pesquisaResult = Objects.requireNonNull(pesquisa).pesquisar(request, Usuario.class);
+        return Objects.requireNonNull(pesquisa).pesquisar(request, Usuario.class, UsuarioDTO.projecao());
+    }
 
-        return PesquisaResult.<UsuarioDTO>builder()
-                .pagina(pesquisaResult.getPagina())
-                .totalRegistros(pesquisaResult.getTotalRegistros())
-                .registros(pesquisaResult.getRegistros().stream().map(UsuarioDTO::fromEntity).toList())
-                .build();
+    @PostMapping("pesquisa/exportar")
+    @Operation(summary = "Exporta o resultado completo da pesquisa de usuarios em NDJSON ou CSV", responses = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo de filtro ou ordenação inválido", content = {@Content(schema = @Schema(implementation = StanderError.class))}),
+            @ApiResponse(responseCode = "429", description = "Limite de exportações simultâneas atingido", content = {@Content(schema = @Schema(implementation = StanderError.class))})
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestBody PesquisaRequest request,
+                                                          @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato) {
+        StreamingResponseBody corpo = pesquisaExportacao.exportar(Objects.requireNonNull(pesquisa), request, Usuario.class, UsuarioDTO.projecao(), formato);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"usuarios." + formato.getExtensao() + "\"")
+                .body(corpo);
     }
 
     @GetMapping("verifica-exclusao")
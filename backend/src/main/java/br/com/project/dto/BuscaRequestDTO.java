@@ -0,0 +1,9 @@
+package br.com.project.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record BuscaRequestDTO(@Schema(example = "alencar", description = "Termo procurado nos títulos, autores e ISBN dos livros, nos nomes e e-mails dos usuários e nos nomes das categorias") String termo,
+                              @Schema(example = "5", description = "Quantidade máxima de livros. Zero não pesquisa livros") Integer quantidadeLivros,
+                              @Schema(example = "5", description = "Quantidade máxima de usuários. Zero não pesquisa usuários") Integer quantidadeUsuarios,
+                              @Schema(example = "5", description = "Quantidade máxima de categorias. Zero não pesquisa categorias") Integer quantidadeCategorias) {
+}
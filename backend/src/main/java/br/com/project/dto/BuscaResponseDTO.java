@@ -0,0 +1,26 @@
+package br.com.project.dto;
+
+import br.com.project.util.pesquisa.PesquisaResult;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Busca")
+public class BuscaResponseDTO {
+
+    private PesquisaResult<LivroDTO> livros;
+
+    private PesquisaResult<UsuarioDTO> usuarios;
+
+    private PesquisaResult<CategoriaDTO> categorias;
+
+    @Schema(description = "Entidades cuja pesquisa falhou ou não terminou dentro do tempo máximo e, por isso, não têm resultado", example = "[\"usuarios\"]")
+    private List<String> indisponiveis;
+
+}
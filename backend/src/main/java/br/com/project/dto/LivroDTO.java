@@ -3,15 +3,22 @@ package br.com.project.dto;
 import br.com.project.entity.Categoria;
 import br.com.project.entity.Emprestimo;
 import br.com.project.entity.Livro;
+import br.com.project.enumeration.Status;
+import br.com.project.util.pesquisa.PesquisaProjecao;
+import br.com.project.util.pesquisa.PesquisaProjecao.Joins;
 import com.google.api.services.books.model.Volume;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -21,6 +28,10 @@ import java.util.Optional;
 @Schema(name = "Livro")
 public class LivroDTO {
 
+    public static final String EXPANDIR_CATEGORIA = "categoria";
+    public static final String EXPANDIR_EMPRESTIMO_ATIVO = "emprestimoAtivo";
+    public static final Set<String> EXPANSOES = Set.of(EXPANDIR_CATEGORIA, EXPANDIR_EMPRESTIMO_ATIVO);
+
     @Schema(accessMode = Schema.AccessMode.READ_ONLY, description = "Identificador do livro")
     private Long id;
 
@@ -54,23 +65,119 @@ public class LivroDTO {
     private EmprestimoDTO emprestimo;
 
     public static LivroDTO fromEntity(Livro livro) {
-        Optional<Emprestimo> optionalEmprestimo = Optional.empty();
-
-        if(livro.getEmprestimos() != null && !livro.getEmprestimos().isEmpty()) {
-            optionalEmprestimo = livro.getEmprestimos().stream().filter(Emprestimo::isAtivo).findFirst();
-        }
+        return fromEntity(livro, EXPANSOES);
+    }
 
-        return LivroDTO.builder()
+    public static LivroDTO fromEntity(Livro livro, Set<String> expansoes) {
+        LivroDTO.LivroDTOBuilder livroDTO = LivroDTO.builder()
                 .id(livro.getId())
                 .isbn(livro.getIsbn())
                 .autor(livro.getAutor())
                 .titulo(livro.getTitulo())
                 .dataPublicacao(livro.getDataPublicacao())
-                .idCategoria(livro.getCategoria().getId())
-                .nomeCategoria(livro.getCategoria().getNome())
-                .emprestimo(optionalEmprestimo.map(EmprestimoDTO::fromEntity).orElse(null))
-                .build();
+                .idCategoria(livro.getCategoria().getId());
+
+        if (expansoes.contains(EXPANDIR_CATEGORIA)) {
+            livroDTO.nomeCategoria(livro.getCategoria().getNome());
+        }
+
+        if (expansoes.contains(EXPANDIR_EMPRESTIMO_ATIVO) && livro.getEmprestimos() != null) {
+            livroDTO.emprestimo(livro.getEmprestimos().stream()
+                    .filter(Emprestimo::isAtivo)
+                    .findFirst()
+                    .map(EmprestimoDTO::fromEntity)
+                    .orElse(null));
+        }
+
+        return livroDTO.build();
+    }
+
+    public static PesquisaProjecao<Livro, LivroDTO> projecao() {
+        return projecao(EXPANSOES);
+    }
 
+    public static PesquisaProjecao<Livro, LivroDTO> projecao(Set<String> expansoes) {
+        boolean categoria = expansoes.contains(EXPANDIR_CATEGORIA);
+        boolean emprestimoAtivo = expansoes.contains(EXPANDIR_EMPRESTIMO_ATIVO);
+
+        return new PesquisaProjecao<>() {
+
+            @Override
+            public List<Selection<?>> selecionar(CriteriaBuilder criteriaBuilder, Root<Livro> root, Joins joins) {
+                List<Selection<?>> selecoes = new ArrayList<>(List.of(
+                        root.get("id"),
+                        root.get("isbn"),
+                        root.get("autor"),
+                        root.get("titulo"),
+                        root.get("dataPublicacao"),
+                        root.get("categoria").get("id")));
+
+                if (categoria) {
+                    selecoes.add(joins.get(root, "categoria", JoinType.LEFT).get("nome"));
+                }
+
+                if (emprestimoAtivo) {
+                    Join<?, ?> emprestimo = joins.get(root, "emprestimos", JoinType.LEFT, EXPANDIR_EMPRESTIMO_ATIVO,
+                            join -> criteriaBuilder.equal(join.get("status"), Status.ATIVO));
+                    selecoes.addAll(List.of(
+                            emprestimo.get("id"),
+                            emprestimo.get("usuario").get("id"),
+                            emprestimo.get("dataEmprestimo"),
+                            emprestimo.get("dataDevolucao")));
+                }
+
+                return selecoes;
+            }
+
+            @Override
+            public List<String> getAssociacoes() {
+                List<String> associacoes = new ArrayList<>();
+                if (categoria) {
+                    associacoes.add(EXPANDIR_CATEGORIA);
+                }
+                if (emprestimoAtivo) {
+                    associacoes.add("emprestimos");
+                }
+                return associacoes;
+            }
+
+            @Override
+            public String getChave() {
+                return LivroDTO.class.getName() + ':' + categoria + ':' + emprestimoAtivo;
+            }
+
+            @Override
+            public LivroDTO converter(Tuple tupla) {
+                Long id = tupla.get(0, Long.class);
+                int indice = 6;
+
+                LivroDTO.LivroDTOBuilder livroDTO = LivroDTO.builder()
+                        .id(id)
+                        .isbn(tupla.get(1, String.class))
+                        .autor(tupla.get(2, String.class))
+                        .titulo(tupla.get(3, String.class))
+                        .dataPublicacao(tupla.get(4, LocalDate.class))
+                        .idCategoria(tupla.get(5, Long.class));
+
+                if (categoria) {
+                    livroDTO.nomeCategoria(tupla.get(indice++, String.class));
+                }
+
+                if (emprestimoAtivo) {
+                    Long idEmprestimo = tupla.get(indice, Long.class);
+                    livroDTO.emprestimo(idEmprestimo == null ? null : EmprestimoDTO.builder()
+                            .id(idEmprestimo)
+                            .idLivro(id)
+                            .status(Status.ATIVO.name())
+                            .idUsuario(tupla.get(indice + 1, Long.class))
+                            .dataEmprestimo(tupla.get(indice + 2, LocalDate.class))
+                            .dataDevolucao(tupla.get(indice + 3, LocalDate.class))
+                            .build());
+                }
+
+                return livroDTO.build();
+            }
+        };
     }
 
     public static LivroDTO fromVolume(Volume volume, Long idCategoria) {
@@ -1,11 +1,18 @@
 package br.com.project.dto;
 
 import br.com.project.entity.Usuario;
+import br.com.project.util.pesquisa.PesquisaProjecao;
+import br.com.project.util.pesquisa.PesquisaProjecao.Joins;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Getter
 @Setter
@@ -58,4 +65,30 @@ public class UsuarioDTO {
                 .build();
     }
 
+    public static PesquisaProjecao<Usuario, UsuarioDTO> projecao() {
+        return new PesquisaProjecao<>() {
+
+            @Override
+            public List<Selection<?>> selecionar(CriteriaBuilder criteriaBuilder, Root<Usuario> root, Joins joins) {
+                return List.of(
+                        root.get("id"),
+                        root.get("nome"),
+                        root.get("email"),
+                        root.get("telefone"),
+                        root.get("dataCadastro"));
+            }
+
+            @Override
+            public UsuarioDTO converter(Tuple tupla) {
+                return UsuarioDTO.builder()
+                        .id(tupla.get(0, Long.class))
+                        .nome(tupla.get(1, String.class))
+                        .email(tupla.get(2, String.class))
+                        .telefone(tupla.get(3, String.class))
+                        .dataCadastro(tupla.get(4, LocalDate.class))
+                        .build();
+            }
+        };
+    }
+
 }
\ No newline at end of file
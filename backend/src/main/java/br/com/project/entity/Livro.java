@@ -1,5 +1,7 @@
 package br.com.project.entity;
 
+import br.com.project.util.pesquisa.Agregacao;
+import br.com.project.util.pesquisa.PesquisaAgregado;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
@@ -14,6 +16,8 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@PesquisaAgregado(nome = "totalEmprestimos", colecao = "emprestimos", funcao = Agregacao.CONTAGEM)
+@PesquisaAgregado(nome = "ultimoEmprestimo", colecao = "emprestimos", funcao = Agregacao.MAXIMO, campo = "dataEmprestimo")
 @Table(name = "livros")
 public class Livro {
 
@@ -1,5 +1,7 @@
 package br.com.project.entity;
 
+import br.com.project.util.pesquisa.Agregacao;
+import br.com.project.util.pesquisa.PesquisaAgregado;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
@@ -14,6 +16,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@PesquisaAgregado(nome = "emprestimosAtivos", colecao = "emprestimos", funcao = Agregacao.CONTAGEM, condicao = "status", valor = "ATIVO")
 @Table(name = "usuarios")
 public class Usuario {
 
@@ -1,6 +1,7 @@
 package br.com.project.exception;
 
 import br.com.project.errors.StanderError;
+import br.com.project.util.MessageUtil;
 import org.apache.coyote.BadRequestException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import jakarta.persistence.QueryTimeoutException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -37,6 +39,20 @@ public class ExceptionHandling {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<StanderError> tooManyRequests(TooManyRequestsException ex, HttpServletRequest httpServletRequest) {
+        StanderError error = new StanderError(LocalDateTime.now(), HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage(), httpServletRequest.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+    }
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<StanderError> queryTimeout(QueryTimeoutException ex, HttpServletRequest httpServletRequest) {
+        StanderError error = new StanderError(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), MessageUtil.get("pesquisa.tempo.excedido"), httpServletRequest.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<StanderError> exception(Exception ex, HttpServletRequest httpServletRequest) {
         StanderError error = new StanderError(LocalDateTime.now(), HttpStatus.INTERNAL_SERVER_ERROR.value(), ex.getMessage(), httpServletRequest.getRequestURI());
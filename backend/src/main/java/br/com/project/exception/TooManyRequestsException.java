@@ -0,0 +1,8 @@
+package br.com.project.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -2,10 +2,32 @@ package br.com.project.repository;
 
 import br.com.project.entity.Emprestimo;
 import br.com.project.enumeration.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface EmprestimoRepository extends JpaRepository<Emprestimo, Long> {
+
+    interface UsuarioLivro {
+
+        Long getIdUsuario();
+
+        Long getIdLivro();
+    }
+
     boolean existsByLivroIdAndStatus(Long id, Status status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value =
+            """
+                    SELECT DISTINCT e.usuario.id AS idUsuario, e.livro.id AS idLivro
+                    FROM Emprestimo e
+                    """)
+    Stream<UsuarioLivro> streamUsuariosLivros();
 }
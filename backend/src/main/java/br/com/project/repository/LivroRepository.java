@@ -1,37 +1,67 @@
 package br.com.project.repository;
 
 import br.com.project.entity.Livro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface LivroRepository extends JpaRepository<Livro, Long> {
+public interface LivroRepository extends JpaRepository<Livro, Long>, LivroRepositoryCustom {
 
+    interface ContagemEmprestimos {
+
+        Long getIdLivro();
+
+        Long getTotal();
+    }
+
+    @Query(value =
+            """
+                    SElECT l.id
+                    FROM Livro l
+                    LEFT JOIN Emprestimo e ON l.id = e.livro.id
+                    GROUP BY l.id
+                    ORDER BY COUNT(e.id) DESC, l.id ASC
+                    """)
+    List<Long> findIdsLivrosMaisEmprestados(Pageable pageable);
+
+    /**
+     * Ranking geral sem os livros que o usuário já emprestou. A exclusão é uma anti-junção ({@code NOT EXISTS}) resolvida
+     * pelo índice {@code idx_emprestimos_usuario_livro}; a contagem continua considerando os empréstimos de todos.
+     */
     @Query(value =
             """
-                    SElECT l
+                    SELECT l.id
                     FROM Livro l
                     LEFT JOIN Emprestimo e ON l.id = e.livro.id
+                    WHERE NOT EXISTS (
+                        SELECT 1
+                        FROM Emprestimo ue
+                        WHERE ue.livro.id = l.id AND ue.usuario.id = :idUsuario
+                    )
                     GROUP BY l.id
                     ORDER BY COUNT(e.id) DESC, l.id ASC
                     """)
-    List<Livro> findLivrosMaisEmprestados();
+    List<Long> findIdsLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(@Param("idUsuario") Long idUsuario,
+                                                                            Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
     @Query(value =
             """
-                    SELECT l
+                    SELECT l.id AS idLivro, COUNT(e.id) AS total
                     FROM Livro l
-                    JOIN Categoria c ON l.categoria.id = c.id
                     LEFT JOIN Emprestimo e ON l.id = e.livro.id
-                    LEFT JOIN Usuario u ON e.usuario.id = u.id
-                    WHERE u.id <> :idUsuario OR u.id IS NULL
                     GROUP BY l.id
                     ORDER BY COUNT(e.id) DESC, l.id ASC
                     """)
-    List<Livro> findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(@Param("idUsuario") Long idUsuario);
+    Stream<ContagemEmprestimos> streamContagemEmprestimos();
 
 }
\ No newline at end of file
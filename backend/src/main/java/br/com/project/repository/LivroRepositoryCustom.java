@@ -0,0 +1,17 @@
+package br.com.project.repository;
+
+import br.com.project.entity.Livro;
+import br.com.project.util.pesquisa.PesquisaProjecao;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LivroRepositoryCustom {
+
+    /**
+     * Carrega somente as colunas da projeção dos livros informados, sem passar pela
+     * {@link br.com.project.util.pesquisa.Pesquisa}: os ids vêm de rankings e recomendações já calculados, então não se
+     * aplicam os limites, as estatísticas, o registro de pesquisas lentas nem o cache da pesquisa. A ordem não é garantida.
+     */
+    <D> List<D> findByIds(Collection<Long> ids, PesquisaProjecao<Livro, D> projecao);
+}
@@ -0,0 +1,35 @@
+package br.com.project.repository;
+
+import br.com.project.entity.Livro;
+import br.com.project.util.pesquisa.PesquisaProjecao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Collection;
+import java.util.List;
+
+public class LivroRepositoryCustomImpl implements LivroRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public LivroRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public <D> List<D> findByIds(Collection<Long> ids, PesquisaProjecao<Livro, D> projecao) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Livro> root = query.from(Livro.class);
+
+        query.multiselect(projecao.selecionar(criteriaBuilder, root, PesquisaProjecao.Joins.REAPROVEITAR));
+        query.where(root.get("id").in(ids));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(projecao::converter)
+                .toList();
+    }
+}
@@ -0,0 +1,199 @@
+package br.com.project.service;
+
+import br.com.project.dto.BuscaRequestDTO;
+import br.com.project.dto.BuscaResponseDTO;
+import br.com.project.dto.CategoriaDTO;
+import br.com.project.dto.LivroDTO;
+import br.com.project.dto.UsuarioDTO;
+import br.com.project.entity.Categoria;
+import br.com.project.entity.Livro;
+import br.com.project.entity.Usuario;
+import br.com.project.util.MessageUtil;
+import br.com.project.util.pesquisa.Comparacao;
+import br.com.project.util.pesquisa.Contagem;
+import br.com.project.util.pesquisa.OperadorLogico;
+import br.com.project.util.pesquisa.Pesquisa;
+import br.com.project.util.pesquisa.PesquisaFiltro;
+import br.com.project.util.pesquisa.PesquisaGrupo;
+import br.com.project.util.pesquisa.PesquisaOrdenacao;
+import br.com.project.util.pesquisa.PesquisaPrazo;
+import br.com.project.util.pesquisa.PesquisaRequest;
+import br.com.project.util.pesquisa.PesquisaResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+
+/**
+ * Busca um termo em livros, usuários e categorias ao mesmo tempo, cada pesquisa em sua própria transação somente leitura,
+ * num pool exclusivo da busca. Todas compartilham o mesmo prazo, então a busca demora o mesmo que a pesquisa mais lenta,
+ * limitada ao tempo máximo; as que não terminarem a tempo são canceladas e informadas em {@code indisponiveis}, assim como
+ * as recusadas pelo pool cheio, que nunca são executadas na thread da requisição. Cada pesquisa segura uma conexão
+ * enquanto executa, então {@code busca.threads} fica bem abaixo de {@code spring.datasource.hikari.maximum-pool-size}.
+ * Somente os primeiros registros de cada entidade são lidos, sem contagem: os filtros CONTEM de e-mail e ISBN não têm
+ * índice trigram e uma contagem em janela leria todas as correspondências em vez de parar no limite da página.
+ */
+@Service
+public class BuscaService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaService.class);
+
+    static final String LIVROS = "livros";
+    static final String USUARIOS = "usuarios";
+    static final String CATEGORIAS = "categorias";
+
+    private final Pesquisa<Livro> pesquisaLivros;
+    private final Pesquisa<Usuario> pesquisaUsuarios;
+    private final Pesquisa<Categoria> pesquisaCategorias;
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final long tempoMaximoMillis;
+    private final int quantidadePadrao;
+
+    public BuscaService(Pesquisa<Livro> pesquisaLivros, Pesquisa<Usuario> pesquisaUsuarios, Pesquisa<Categoria> pesquisaCategorias,
+                        PlatformTransactionManager transactionManager, ObjectProvider<MeterRegistry> meterRegistry,
+                        @Value("${busca.tempo-maximo-ms:2000}") long tempoMaximoMillis,
+                        @Value("${busca.quantidade-padrao:5}") int quantidadePadrao,
+                        @Value("${busca.threads:4}") int threads) {
+        this.pesquisaLivros = pesquisaLivros;
+        this.pesquisaUsuarios = pesquisaUsuarios;
+        this.pesquisaCategorias = pesquisaCategorias;
+        this.tempoMaximoMillis = tempoMaximoMillis;
+        this.quantidadePadrao = quantidadePadrao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads),
+                new CustomizableThreadFactory("busca-"), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        meterRegistry.ifAvailable(registry -> new ExecutorServiceMetrics(executor, "busca", List.of()).bindTo(registry));
+    }
+
+    public BuscaResponseDTO buscar(BuscaRequestDTO request) {
+        if (request.termo() == null || request.termo().isBlank()) {
+            throw new IllegalArgumentException(MessageUtil.get("busca.termo.obrigatorio"));
+        }
+
+        String termo = request.termo().trim();
+        long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tempoMaximoMillis);
+
+        Future<PesquisaResult<LivroDTO>> livros = iniciar(request.quantidadeLivros(), prazo,
+                quantidade -> pesquisaLivros.pesquisar(criarRequest(termo, quantidade, "titulo", "autor", "isbn"), Livro.class,
+                        LivroDTO.projecao(Set.of(LivroDTO.EXPANDIR_CATEGORIA))));
+        Future<PesquisaResult<UsuarioDTO>> usuarios = iniciar(request.quantidadeUsuarios(), prazo,
+                quantidade -> pesquisaUsuarios.pesquisar(criarRequest(termo, quantidade, "nome", "email"), Usuario.class,
+                        UsuarioDTO.projecao()));
+        Future<PesquisaResult<CategoriaDTO>> categorias = iniciar(request.quantidadeCategorias(), prazo,
+                quantidade -> pesquisaCategorias.pesquisar(criarRequest(termo, quantidade, "nome"), Categoria.class)
+                        .mapear(CategoriaDTO::fromEntity));
+
+        List<String> indisponiveis = new ArrayList<>();
+        return BuscaResponseDTO.builder()
+                .livros(aguardar(LIVROS, livros, prazo, indisponiveis))
+                .usuarios(aguardar(USUARIOS, usuarios, prazo, indisponiveis))
+                .categorias(aguardar(CATEGORIAS, categorias, prazo, indisponiveis))
+                .indisponiveis(indisponiveis)
+                .build();
+    }
+
+    /**
+     * As consultas da pesquisa recebem como timeout o tempo restante até o prazo, para que o banco as interrompa junto com
+     * o cancelamento em {@link #aguardar}.
+     */
+    private <R> Future<R> iniciar(Integer quantidade, long prazo, IntFunction<R> pesquisa) {
+        int quantidadeRegistros = Objects.requireNonNullElse(quantidade, quantidadePadrao);
+        if (quantidadeRegistros == 0) {
+            return null;
+        }
+
+        try {
+            return executor.submit(() -> transactionTemplate.execute(status ->
+                    PesquisaPrazo.executar(prazo, () -> pesquisa.apply(quantidadeRegistros))));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Aguarda a pesquisa até o prazo comum. Requisições inválidas (quantidade acima do limite, por exemplo) continuam
+     * sendo rejeitadas; falhas, recusas e atrasos deixam somente a entidade sem resultado.
+     */
+    private <R> R aguardar(String entidade, Future<R> resultado, long prazo, List<String> indisponiveis) {
+        if (resultado == null) {
+            return null;
+        }
+
+        try {
+            return resultado.get(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            log.warn("A busca em {} não terminou em {} ms", entidade, tempoMaximoMillis);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof RejectedExecutionException) {
+                log.warn("A busca em {} foi recusada: o pool da busca está cheio", entidade);
+            } else {
+                log.warn("A busca em {} falhou", entidade, e.getCause());
+            }
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+
+        indisponiveis.add(entidade);
+        return null;
+    }
+
+    private static PesquisaRequest criarRequest(String termo, int quantidade, String... campos) {
+        PesquisaGrupo grupo = new PesquisaGrupo();
+        grupo.setOperador(OperadorLogico.OU);
+        grupo.setFiltros(Arrays.stream(campos).map(campo -> {
+            PesquisaFiltro filtro = new PesquisaFiltro();
+            filtro.setCampo(campo);
+            filtro.setComparacao(Comparacao.CONTEM);
+            filtro.setValor(termo);
+            return filtro;
+        }).toList());
+
+        PesquisaOrdenacao ordenacao = new PesquisaOrdenacao();
+        ordenacao.setCampo(campos[0]);
+
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(quantidade);
+        request.setContagem(Contagem.NENHUMA);
+        request.setGrupo(grupo);
+        request.setOrdenacao(List.of(ordenacao));
+        return request;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
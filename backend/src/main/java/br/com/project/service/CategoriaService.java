@@ -5,6 +5,7 @@ import br.com.project.entity.Categoria;
 import br.com.project.exception.ObjectNotFoundException;
 import br.com.project.repository.CategoriaRepository;
 import br.com.project.util.MessageUtil;
+import br.com.project.util.pesquisa.PesquisaVersoes;
 import lombok.AllArgsConstructor;
 import org.apache.coyote.BadRequestException;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Service;
 public class CategoriaService {
 
     private final CategoriaRepository repository;
+    private final PesquisaVersoes pesquisaVersoes;
 
     public Categoria getCategoriaById(Long id) {
         return repository.findById(id).orElseThrow(() ->
@@ -25,7 +27,9 @@ public class CategoriaService {
     }
 
     public CategoriaDTO createCategoria(CategoriaDTO categoriaDTO) {
-        return CategoriaDTO.fromEntity(repository.save(categoriaDTO.toEntity()));
+        Categoria savedCategoria = repository.save(categoriaDTO.toEntity());
+        pesquisaVersoes.incrementar(Categoria.class);
+        return CategoriaDTO.fromEntity(savedCategoria);
     }
 
     private static Categoria setNewCategoriaData(CategoriaDTO categoriaDTO, Categoria categoria) {
@@ -37,7 +41,9 @@ public class CategoriaService {
     public CategoriaDTO updateCategoria(Long id, CategoriaDTO categoriaDTO) {
         Categoria categoria = getCategoriaById(id);
         Categoria newCategoria = setNewCategoriaData(categoriaDTO, categoria);
-        return CategoriaDTO.fromEntity(repository.save(newCategoria));
+        Categoria savedCategoria = repository.save(newCategoria);
+        pesquisaVersoes.incrementar(Categoria.class);
+        return CategoriaDTO.fromEntity(savedCategoria);
     }
 
     public void canDeleteCategoria(Long id) throws BadRequestException {
@@ -51,6 +57,7 @@ public class CategoriaService {
     public String deleteCategoria(Long id) throws BadRequestException {
         canDeleteCategoria(id);
         repository.deleteById(id);
+        pesquisaVersoes.incrementar(Categoria.class);
         return MessageUtil.get("categoria.deleted");
     }
 }
@@ -7,6 +7,10 @@ import br.com.project.enumeration.Status;
 import br.com.project.exception.ObjectNotFoundException;
 import br.com.project.repository.EmprestimoRepository;
 import br.com.project.util.MessageUtil;
+import br.com.project.util.TransacaoUtil;
+import br.com.project.util.pesquisa.PesquisaVersoes;
+import br.com.project.util.recomendacao.CoEmprestimosLivros;
+import br.com.project.util.recomendacao.PopularidadeLivros;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
 import org.springframework.stereotype.Service;
@@ -16,9 +20,13 @@ import org.springframework.stereotype.Service;
 public class EmprestimoService {
 
     private final EmprestimoRepository repository;
+    private final PesquisaVersoes pesquisaVersoes;
+    private final PopularidadeLivros popularidade;
+    private final CoEmprestimosLivros coEmprestimos;
 
     private final LivroService livroService;
     private final UsuarioService usuarioService;
+    private final RecomendacaoService recomendacaoService;
 
     public Emprestimo getEmprestimoById(Long id) {
         return repository.findById(id).orElseThrow(() ->
@@ -38,7 +46,12 @@ public class EmprestimoService {
 
         existsEmprestimoAtivo(emprestimo.getLivro().getId());
 
-        return EmprestimoDTO.fromEntity(repository.save(emprestimoDTO.toEntity()));
+        Emprestimo savedEmprestimo = repository.save(emprestimoDTO.toEntity());
+        pesquisaVersoes.incrementar(Emprestimo.class);
+        popularidade.registrarEmprestimo(emprestimo.getLivro().getId());
+        coEmprestimos.registrarEmprestimo(emprestimo.getUsuario().getId(), emprestimo.getLivro().getId());
+        TransacaoUtil.aposCommit(() -> recomendacaoService.invalidar(emprestimo.getUsuario().getId()));
+        return EmprestimoDTO.fromEntity(savedEmprestimo);
     }
 
     private void setEmprestimoData(EmprestimoUpdateDTO emprestimoDTO, Emprestimo emprestimo) throws BadRequestException {
@@ -58,6 +71,9 @@ public class EmprestimoService {
         Emprestimo emprestimo = getEmprestimoById(id);
         setEmprestimoData(emprestimoDTO, emprestimo);
 
-        return EmprestimoDTO.fromEntity(repository.save(emprestimo));
+        Emprestimo savedEmprestimo = repository.save(emprestimo);
+        pesquisaVersoes.incrementar(Emprestimo.class);
+        TransacaoUtil.aposCommit(() -> recomendacaoService.invalidar(emprestimo.getUsuario().getId()));
+        return EmprestimoDTO.fromEntity(savedEmprestimo);
     }
 }
@@ -4,19 +4,32 @@ import br.com.project.dto.LivroDTO;
 import br.com.project.entity.Livro;
 import br.com.project.exception.ObjectNotFoundException;
 import br.com.project.repository.LivroRepository;
+import br.com.project.util.ExpansaoUtil;
 import br.com.project.util.MessageUtil;
+import br.com.project.util.pesquisa.PesquisaVersoes;
+import br.com.project.util.recomendacao.CoEmprestimosLivros;
+import br.com.project.util.recomendacao.PopularidadeLivros;
 import lombok.AllArgsConstructor;
 import org.apache.coyote.BadRequestException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class LivroService {
 
     private final LivroRepository repository;
+    private final PesquisaVersoes pesquisaVersoes;
     private final CategoriaService categoriaService;
+    private final PopularidadeLivros popularidade;
+    private final CoEmprestimosLivros coEmprestimos;
 
     public Livro getLivroById(Long id) {
         return repository.findById(id).orElseThrow(() ->
@@ -27,13 +40,28 @@ public class LivroService {
         return LivroDTO.fromEntity(getLivroById(id));
     }
 
+    /**
+     * Carrega o livro pela mesma projeção da pesquisa: a categoria e somente o empréstimo ativo, quando expandidos,
+     * sem o histórico de empréstimos do livro.
+     */
+    public LivroDTO getLivroDTOById(Long id, List<String> expand) {
+        Set<String> expansoes = ExpansaoUtil.resolver(expand, LivroDTO.EXPANSOES);
+
+        return repository.findByIds(List.of(id), LivroDTO.projecao(expansoes)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ObjectNotFoundException(MessageUtil.get("livro.not.found")));
+    }
+
     public void existCategoria(LivroDTO livroDTO) {
         categoriaService.getCategoriaById(livroDTO.getIdCategoria());
     }
 
     public LivroDTO createLivro(LivroDTO livroDTO) {
         existCategoria(livroDTO);
-        return LivroDTO.fromEntity(repository.save(livroDTO.toEntity()));
+        Livro savedLivro = repository.save(livroDTO.toEntity());
+        pesquisaVersoes.incrementar(Livro.class);
+        popularidade.adicionarLivro(savedLivro.getId());
+        return LivroDTO.fromEntity(savedLivro);
     }
 
     private Livro setNewLivroData(LivroDTO livroDTO, Livro livro) {
@@ -46,7 +74,9 @@ public class LivroService {
     public LivroDTO updateLivro(Long id, LivroDTO livroDTO) {
         Livro livro = getLivroById(id);
         Livro newLivro = setNewLivroData(livroDTO, livro);
-        return LivroDTO.fromEntity(repository.save(newLivro));
+        Livro savedLivro = repository.save(newLivro);
+        pesquisaVersoes.incrementar(Livro.class);
+        return LivroDTO.fromEntity(savedLivro);
     }
 
     public void canDeleteLivro(Long id) throws BadRequestException {
@@ -60,14 +90,33 @@ public class LivroService {
     public String deleteLivro(Long id) throws BadRequestException {
         canDeleteLivro(id);
         repository.deleteById(id);
+        pesquisaVersoes.incrementar(Livro.class);
+        popularidade.removerLivro(id);
+        coEmprestimos.removerLivro(id);
         return MessageUtil.get("livro.deleted");
     }
 
-    public List<Livro> findLivrosMaisEmprestados() {
-        return repository.findLivrosMaisEmprestados();
+    public List<LivroDTO> findLivrosMaisEmprestados(int pagina, int quantidade) {
+        return getLivrosDTOByIds(popularidade.listar(pagina, quantidade)
+                .orElseGet(() -> repository.findIdsLivrosMaisEmprestados(PageRequest.of(pagina - 1, quantidade))));
     }
 
-    public List<Livro> findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(Long idUsuario) {
-        return repository.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(idUsuario);
+    public List<LivroDTO> findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(Long idUsuario, int pagina, int quantidade) {
+        return getLivrosDTOByIds(repository.findIdsLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(idUsuario,
+                PageRequest.of(pagina - 1, quantidade)));
+    }
+
+    /**
+     * Carrega somente as colunas de {@link LivroDTO#projecao()} dos livros informados, mantendo a ordem dos ids,
+     * sem instanciar as entidades nem as coleções de empréstimos.
+     */
+    public List<LivroDTO> getLivrosDTOByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, LivroDTO> livros = repository.findByIds(ids, LivroDTO.projecao()).stream()
+                .collect(Collectors.toMap(LivroDTO::getId, Function.identity(), (primeiro, segundo) -> primeiro));
+        return ids.stream().map(livros::get).filter(Objects::nonNull).toList();
     }
 }
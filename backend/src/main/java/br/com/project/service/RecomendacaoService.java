@@ -1,33 +1,143 @@
 package br.com.project.service;
 
 import br.com.project.dto.LivroDTO;
-import br.com.project.entity.Livro;
-import lombok.AllArgsConstructor;
+import br.com.project.util.MessageUtil;
+import br.com.project.util.recomendacao.CoEmprestimosLivros;
+import br.com.project.util.recomendacao.RecomendacoesPrecalculadas;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-@AllArgsConstructor
 public class RecomendacaoService {
 
+    public static final int QUANTIDADE_MAXIMA = 100;
+
+    /**
+     * Página de recomendações de um usuário guardada em {@link #cache}.
+     */
+    private record ChaveRecomendacao(Long idUsuario, int pagina, int quantidade) {
+    }
+
     private final LivroService livroService;
     private final UsuarioService usuarioService;
+    private final CoEmprestimosLivros coEmprestimos;
+    private final RecomendacoesPrecalculadas precalculadas;
+    private final Cache<ChaveRecomendacao, List<LivroDTO>> cache;
+    /**
+     * Páginas de cada usuário presentes em {@link #cache}, para que {@link #invalidar(Long)} não percorra o cache.
+     * A página é registrada dentro do carregamento e removida pelo {@code evictionListener}, que o Caffeine executa
+     * de forma atômica com as operações da mesma chave.
+     */
+    private final Map<Long, Set<ChaveRecomendacao>> paginas = new ConcurrentHashMap<>();
+
+    public RecomendacaoService(LivroService livroService, UsuarioService usuarioService, CoEmprestimosLivros coEmprestimos,
+                               RecomendacoesPrecalculadas precalculadas, ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${recomendacao.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                               @Value("${recomendacao.cache.ttl-segundos:60}") long ttlSegundos) {
+        this.livroService = livroService;
+        this.usuarioService = usuarioService;
+        this.coEmprestimos = coEmprestimos;
+        this.precalculadas = precalculadas;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .evictionListener((ChaveRecomendacao chave, List<LivroDTO> livros, RemovalCause causa) -> desregistrar(chave))
+                .recordStats()
+                .build();
+
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "recomendacao"));
+    }
+
+    private List<LivroDTO> findLivrosMaisEmprestadosExcluindo(int pagina, int quantidade) {
+        return livroService.findLivrosMaisEmprestados(pagina, quantidade);
+    }
+
+    private List<LivroDTO> findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(Long idUsuario, int pagina, int quantidade) {
+        usuarioService.getUsuarioById(idUsuario);
+        return precalculadas.listar(idUsuario, pagina, quantidade)
+                .map(livroService::getLivrosDTOByIds)
+                .orElseGet(() -> livroService.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(idUsuario, pagina, quantidade));
+    }
+
+    /**
+     * Somente a página pedida é lida do banco: o ranking é limitado na própria consulta e os livros são projetados
+     * diretamente em {@link LivroDTO}. As recomendações de um usuário vêm de {@link RecomendacoesPrecalculadas}
+     * enquanto o lote estiver dentro da validade, e são calculadas na hora caso contrário. Elas ficam em cache até que
+     * o usuário crie ou altere um empréstimo ({@link #invalidar(Long)}); os empréstimos dos demais usuários só
+     * aparecem após o TTL.
+     * Requisições simultâneas do mesmo usuário e página aguardam a mesma consulta.
+     */
+    public List<LivroDTO> getRecomendacoes(Long idUsuario, int pagina, int quantidade) {
+        validarPaginacao(pagina, quantidade);
+
+        if (idUsuario == null) {
+            return findLivrosMaisEmprestadosExcluindo(pagina, quantidade);
+        }
+        return cache.get(new ChaveRecomendacao(idUsuario, pagina, quantidade), chave -> {
+            registrar(chave);
+            return findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(idUsuario, pagina, quantidade);
+        });
+    }
+
+    /**
+     * Uma consulta ainda em andamento já está registrada, e a invalidação da sua chave aguarda o fim do carregamento;
+     * as consultas iniciadas depois leem os empréstimos já confirmados.
+     */
+    public void invalidar(Long idUsuario) {
+        Set<ChaveRecomendacao> chaves = paginas.remove(idUsuario);
+        if (chaves != null) {
+            cache.invalidateAll(chaves);
+        }
+    }
+
+    private void registrar(ChaveRecomendacao chave) {
+        paginas.compute(chave.idUsuario(), (idUsuario, chaves) -> {
+            Set<ChaveRecomendacao> registradas = chaves == null ? ConcurrentHashMap.newKeySet() : chaves;
+            registradas.add(chave);
+            return registradas;
+        });
+    }
+
+    private void desregistrar(ChaveRecomendacao chave) {
+        paginas.computeIfPresent(chave.idUsuario(), (idUsuario, chaves) -> {
+            chaves.remove(chave);
+            return chaves.isEmpty() ? null : chaves;
+        });
+    }
 
-    private List<Livro> findLivrosMaisEmprestadosExcluindo() {
-        return livroService.findLivrosMaisEmprestados();
+    /**
+     * Livros emprestados pelos usuários que emprestaram o livro informado, dos mais frequentes para os menos.
+     */
+    public List<LivroDTO> getTambemEmprestados(Long idLivro, int quantidade) {
+        validarPaginacao(1, quantidade);
+        livroService.getLivroById(idLivro);
+        return livroService.getLivrosDTOByIds(coEmprestimos.tambemEmprestados(idLivro, quantidade));
     }
 
-    private List<Livro> findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(Long idUsuario) {
+    /**
+     * Recomendações baseadas nos livros que outros usuários emprestaram junto com os do histórico do usuário.
+     */
+    public List<LivroDTO> getRecomendacoesPorHistorico(Long idUsuario, int quantidade) {
+        validarPaginacao(1, quantidade);
         usuarioService.getUsuarioById(idUsuario);
-        return livroService.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(idUsuario);
+        return livroService.getLivrosDTOByIds(coEmprestimos.recomendar(idUsuario, quantidade));
     }
 
-    public List<LivroDTO> getRecomendacoes(Long idUsuario) {
-        return Optional.ofNullable(idUsuario)
-                .map(this::findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados)
-                .orElseGet(this::findLivrosMaisEmprestadosExcluindo)
-                .stream().map(LivroDTO::fromEntity).toList();
+    private static void validarPaginacao(int pagina, int quantidade) {
+        if (pagina < 1 || quantidade < 1 || quantidade > QUANTIDADE_MAXIMA) {
+            throw new IllegalArgumentException(MessageUtil.get("recomendacao.paginacao.invalida", QUANTIDADE_MAXIMA));
+        }
     }
 }
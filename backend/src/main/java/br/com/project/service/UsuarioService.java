@@ -5,6 +5,7 @@ import br.com.project.entity.Usuario;
 import br.com.project.exception.ObjectNotFoundException;
 import br.com.project.repository.UsuarioRepository;
 import br.com.project.util.MessageUtil;
+import br.com.project.util.pesquisa.PesquisaVersoes;
 import lombok.AllArgsConstructor;
 import org.apache.coyote.BadRequestException;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Service;
 public class UsuarioService {
 
     private final UsuarioRepository repository;
+    private final PesquisaVersoes pesquisaVersoes;
 
     public Usuario getUsuarioById(Long id) {
         return repository.findById(id).orElseThrow(() ->
@@ -25,7 +27,9 @@ public class UsuarioService {
     }
 
     public UsuarioDTO createUsuario(UsuarioDTO usuarioDTO) {
-        return UsuarioDTO.fromEntity(repository.save(usuarioDTO.toEntity()));
+        Usuario savedUsuario = repository.save(usuarioDTO.toEntity());
+        pesquisaVersoes.incrementar(Usuario.class);
+        return UsuarioDTO.fromEntity(savedUsuario);
     }
 
     private static Usuario setNewDataToUsuario(UsuarioDTO usuarioDTO, Usuario usuario) {
@@ -39,7 +43,9 @@ public class UsuarioService {
 
         Usuario newUsuario = setNewDataToUsuario(usuarioDTO, usuario);
 
-        return UsuarioDTO.fromEntity(repository.save(newUsuario));
+        Usuario savedUsuario = repository.save(newUsuario);
+        pesquisaVersoes.incrementar(Usuario.class);
+        return UsuarioDTO.fromEntity(savedUsuario);
     }
 
     public void canDeleteUsuario(Long id) throws BadRequestException {
@@ -54,6 +60,7 @@ public class UsuarioService {
         canDeleteUsuario(id);
 
         repository.deleteById(id);
+        pesquisaVersoes.incrementar(Usuario.class);
 
         return MessageUtil.get("usuario.deleted");
     }
@@ -0,0 +1,30 @@
+package br.com.project.util;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ExpansaoUtil {
+
+    private ExpansaoUtil() {
+    }
+
+    /**
+     * Valida as associações informadas em {@code expand}. Quando {@code expand} não é informado,
+     * todas as associações permitidas são expandidas, mantendo o formato de resposta anterior.
+     */
+    public static Set<String> resolver(List<String> expand, Set<String> permitidas) {
+        if (expand == null) {
+            return permitidas;
+        }
+
+        expand.stream()
+                .filter(expansao -> !permitidas.contains(expansao))
+                .findFirst()
+                .ifPresent(expansao -> {
+                    throw new IllegalArgumentException(MessageUtil.get("expand.invalido", expansao, String.join(", ", permitidas)));
+                });
+
+        return expand.stream().collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.project.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransacaoUtil {
+
+    private TransacaoUtil() {
+    }
+
+    /**
+     * Executa a ação após o commit da transação corrente, ou imediatamente quando não há transação,
+     * como nos services que gravam pelo {@code save} do repositório.
+     */
+    public static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.project.util.pesquisa;
+
+public enum Agregacao {
+    CONTAGEM,
+    MAXIMO,
+    MINIMO
+}
@@ -0,0 +1,8 @@
+package br.com.project.util.pesquisa;
+
+/**
+ * {@code anulavel} indica se o valor pode ser nulo: algum atributo opcional no caminho, uma coleção ou um agregado sem
+ * elementos.
+ */
+public record CampoMetadados(String caminho, Class<?> tipo, boolean multivalorado, boolean anulavel) {
+}
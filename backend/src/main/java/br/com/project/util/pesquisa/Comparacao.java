@@ -3,5 +3,11 @@ package br.com.project.util.pesquisa;
 public enum Comparacao {
     COMECA_COM,
     CONTEM,
-    IGUAL
+    IGUAL,
+    NAO_IGUAL,
+    EM,
+    ENTRE,
+    MAIOR,
+    MENOR,
+    TEXTO
 }
@@ -0,0 +1,8 @@
+package br.com.project.util.pesquisa;
+
+public enum Contagem {
+    EXATA,
+    NENHUMA,
+    JANELA,
+    ESTIMADA
+}
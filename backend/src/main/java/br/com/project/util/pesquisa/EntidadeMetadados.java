@@ -0,0 +1,82 @@
+package br.com.project.util.pesquisa;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+public class EntidadeMetadados {
+
+    record Atributo(String nome, Class<?> tipo, boolean associacao, boolean colecao, boolean opcional) {
+    }
+
+    /**
+     * Campo de {@link PesquisaAgregado}. {@code valor} já está convertido para o tipo de {@code condicao}.
+     */
+    record Agregado(String nome, Class<?> tipo, String colecao, Agregacao funcao, String campo, String condicao, Object valor) {
+    }
+
+    private final Class<?> entityClass;
+    private final String atributoId;
+    private final Map<String, Atributo> atributos;
+    private final Map<String, String> nomesJson;
+    private final Map<String, Agregado> agregados;
+
+    EntidadeMetadados(EntityType<?> entityType) {
+        this.entityClass = entityType.getJavaType();
+        this.atributoId = entityType.getId(entityType.getIdType().getJavaType()).getName();
+        this.atributos = entityType.getAttributes().stream()
+                .map(EntidadeMetadados::criarAtributo)
+                .collect(Collectors.toUnmodifiableMap(Atributo::nome, Function.identity()));
+        this.nomesJson = Arrays.stream(entityClass.getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(JsonProperty.class))
+                .filter(field -> atributos.containsKey(field.getName()))
+                .collect(Collectors.toUnmodifiableMap(field -> field.getAnnotation(JsonProperty.class).value(), Field::getName));
+        this.agregados = Arrays.stream(entityClass.getAnnotationsByType(PesquisaAgregado.class))
+                .map(agregado -> criarAgregado(entityType, agregado))
+                .collect(Collectors.toUnmodifiableMap(Agregado::nome, Function.identity()));
+    }
+
+    private static Agregado criarAgregado(EntityType<?> entityType, PesquisaAgregado agregado) {
+        if (!(entityType.getAttribute(agregado.colecao()) instanceof PluralAttribute<?, ?, ?> colecao)
+                || !(colecao.getElementType() instanceof ManagedType<?> elemento)) {
+            throw new IllegalStateException("Coleção " + agregado.colecao() + " inválida para o agregado " + agregado.nome());
+        }
+
+        Class<?> tipo = Agregacao.CONTAGEM.equals(agregado.funcao())
+                ? Long.class
+                : elemento.getAttribute(agregado.campo()).getJavaType();
+
+        if (agregado.condicao().isEmpty()) {
+            return new Agregado(agregado.nome(), tipo, agregado.colecao(), agregado.funcao(), agregado.campo(), null, null);
+        }
+
+        Object valor = PesquisaConversor.converter(agregado.valor(), elemento.getAttribute(agregado.condicao()).getJavaType(),
+                agregado.condicao());
+        return new Agregado(agregado.nome(), tipo, agregado.colecao(), agregado.funcao(), agregado.campo(), agregado.condicao(), valor);
+    }
+
+    private static Atributo criarAtributo(Attribute<?, ?> attribute) {
+        if (attribute instanceof PluralAttribute<?, ?, ?> plural) {
+            return new Atributo(attribute.getName(), plural.getElementType().getJavaType(), attribute.isAssociation(), true, true);
+        }
+
+        return new Atributo(attribute.getName(), attribute.getJavaType(), attribute.isAssociation(), false,
+                !(attribute instanceof SingularAttribute<?, ?> singular) || singular.isOptional());
+    }
+
+    Atributo getAtributo(String nomeCampo) {
+        return atributos.get(nomesJson.getOrDefault(nomeCampo, nomeCampo));
+    }
+
+}
@@ -0,0 +1,14 @@
+package br.com.project.util.pesquisa;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum FormatoExportacao {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extensao;
+}
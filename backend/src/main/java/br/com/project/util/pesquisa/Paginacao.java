@@ -0,0 +1,6 @@
+package br.com.project.util.pesquisa;
+
+public enum Paginacao {
+    PAGINA,
+    CURSOR
+}
@@ -1,192 +1,1073 @@
 package br.com.project.util.pesquisa;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import br.com.project.util.MessageUtil;
+import br.com.project.util.pesquisa.PesquisaConsultas.ConsultaPreparada;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.lang.reflect.Array;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 
 @Component
 public class Pesquisa<T> {
 
+    private static final int TAMANHO_LOTE_EXPORTACAO = 1000;
+    private static final int LIMITE_VALORES_FACETA = 100;
+    private static final int PROFUNDIDADE_MAXIMA_GRUPOS = 5;
+
+    private record ChaveOrdenacao(String campo, Class<?> tipo, boolean ascendente, boolean anulavel,
+                                  EntidadeMetadados.Agregado agregado) {
+
+        @Override
+        public String toString() {
+            return campo + (ascendente ? ":ASC" : ":DESC");
+        }
+    }
+
+    private static final String PARAMETRO_FILTRO = "f";
+    private static final String PARAMETRO_CURSOR = "c";
+    private static final String FORMA_NULO = "nulo";
+    private static final String ENTRE_ATE = "ate";
+    private static final String ENTRE_DESDE = "desde";
+    private static final String EM_NULO = "nulo+";
+    private static final String EM_LISTA = "lista";
+    private static final String EM_ARRAY = "array";
+
     private final EntityManager entityManager;
+    private final PesquisaMetadados metadados;
+    private final PesquisaPlano plano;
+    private final PesquisaParalela paralela;
+    private final PesquisaCache cache;
+    private final PesquisaConsultas consultas;
+    private final PesquisaLimites limites;
+    private final PesquisaLentas lentas;
+    private final PesquisaEstatisticas estatisticas;
+    private final PesquisaProjecao.Joins joins = PesquisaProjecao.Joins.REAPROVEITAR;
 
-    public Pesquisa(EntityManager entityManager) {
+    public Pesquisa(EntityManager entityManager, PesquisaMetadados metadados, PesquisaPlano plano, PesquisaParalela paralela,
+                    PesquisaCache cache, PesquisaConsultas consultas, PesquisaLimites limites, PesquisaLentas lentas,
+                    PesquisaEstatisticas estatisticas) {
         this.entityManager = entityManager;
+        this.metadados = metadados;
+        this.plano = plano;
+        this.paralela = paralela;
+        this.cache = cache;
+        this.consultas = consultas;
+        this.limites = limites;
+        this.lentas = lentas;
+        this.estatisticas = estatisticas;
     }
 
-    public static String alterarCampoParaNomeAtributo(Class<?> clazz, String nomeCampo) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(JsonProperty.class))
-                .filter(field -> field.getAnnotation(JsonProperty.class).value().equals(nomeCampo))
-                .map(Field::getName)
-                .findFirst()
-                .orElse(nomeCampo);
+    public PesquisaResult<T> pesquisar(PesquisaRequest request, Class<T> entityClass) {
+        return pesquisar(request, entityClass, PesquisaProjecao.entidade(entityClass));
     }
 
-    public PesquisaResult<T> pesquisar(PesquisaRequest request, Class<T> entityClass) {
-        validarCampoExistente(entityClass, request.getFiltros(), request.getOrdenacao());
-        ResultadoBusca<T> busca = buscarRegistros(request, entityClass);
+    public <D> PesquisaResult<D> pesquisar(PesquisaRequest request, Class<T> entityClass, PesquisaProjecao<T, D> projecao) {
+        validar(request, entityClass);
+        validarQuantidadeRegistros(request, entityClass);
+        return cache.obter(entityClass, projecao, request, () -> executarPesquisa(request, entityClass, projecao));
+    }
+
+    private <D> PesquisaResult<D> executarPesquisa(PesquisaRequest request, Class<T> entityClass, PesquisaProjecao<T, D> projecao) {
+        verificarCusto(request, entityClass);
+
+        // a contagem e as facetas executadas em paralelo registram os seus SQLs e tempos de outras threads
+        Map<String, Long> tempos = Collections.synchronizedMap(new LinkedHashMap<>());
+        List<String> sqls = Collections.synchronizedList(new ArrayList<>());
+        long inicio = System.nanoTime();
+
+        PesquisaResult<D> resultado = PesquisaSqlInspector.capturar(sqls, () -> executarConsultas(request, entityClass, projecao, tempos));
+
+        long total = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        tempos.put("total", total);
+        estatisticas.registrar(entityClass, request, total);
+        if (lentas.isLenta(total)) {
+            lentas.registrar(entityClass, request, sqls, tempos, () -> explicarPagina(request, entityClass));
+        }
+
+        return resultado;
+    }
+
+    private <D> PesquisaResult<D> executarConsultas(PesquisaRequest request, Class<T> entityClass, PesquisaProjecao<T, D> projecao,
+                                                    Map<String, Long> tempos) {
+        boolean emParalelo = paralela.isHabilitada();
+
+        List<Supplier<PesquisaFaceta>> consultasFacetas = criarConsultasFacetas(request, entityClass, tempos);
+        List<CompletableFuture<PesquisaFaceta>> facetasFuturas = emParalelo
+                ? consultasFacetas.stream().map(PesquisaSqlInspector::propagar).map(paralela::executar).toList()
+                : List.of();
 
-        return PesquisaResult.<T>builder()
+        ResultadoBusca<D> busca = buscarRegistros(request, entityClass, projecao, tempos);
+
+        List<PesquisaFaceta> facetas = emParalelo
+                ? facetasFuturas.stream().map(paralela::aguardar).toList()
+                : consultasFacetas.stream().map(Supplier::get).toList();
+
+        return PesquisaResult.<D>builder()
                 .registros(busca.getRegistros())
                 .totalRegistros(busca.getTotalRegistros())
+                .proximoCursor(busca.getProximoCursor())
+                .possuiProximaPagina(busca.getPossuiProximaPagina())
+                .facetas(facetas.isEmpty() ? null : facetas)
                 .build();
     }
 
-    public ResultadoBusca<T> buscarRegistros(PesquisaRequest request, Class<T> entityClass) {
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    public <D> ResultadoBusca<D> buscarRegistros(PesquisaRequest request, Class<T> entityClass, PesquisaProjecao<T, D> projecao) {
+        return buscarRegistros(request, entityClass, projecao, new HashMap<>());
+    }
+
+    /**
+     * Tempo de cada consulta da pesquisa, em milissegundos, registrado em {@code tempos} com o nome da fase.
+     */
+    private static <R> Supplier<R> cronometrar(String fase, Map<String, Long> tempos, Supplier<R> consulta) {
+        return () -> {
+            long inicio = System.nanoTime();
+            try {
+                return consulta.get();
+            } finally {
+                tempos.put(fase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            }
+        };
+    }
+
+    private <D> ResultadoBusca<D> buscarRegistros(PesquisaRequest request, Class<T> entityClass, PesquisaProjecao<T, D> projecao,
+                                                  Map<String, Long> tempos) {
+        Contagem contagem = Objects.requireNonNullElse(request.getContagem(), Contagem.EXATA);
+        boolean cursorInformado = request.isPaginacaoPorCursor() && request.getCursor() != null;
+        boolean contagemJanela = Contagem.JANELA.equals(contagem) && !cursorInformado;
+        boolean buscarRegistroExtra = request.isPaginacaoPorCursor() || Contagem.NENHUMA.equals(contagem) || Contagem.ESTIMADA.equals(contagem);
+
+        FiltrosPreparados filtros = prepararFiltros(request, entityClass);
+
+        Supplier<Long> contarTotal = cronometrar("contagem", tempos, Contagem.ESTIMADA.equals(contagem)
+                ? () -> estimarTotalRegistros(entityClass, filtros)
+                : () -> contarRegistros(entityClass, filtros));
+        CompletableFuture<Long> contagemParalela = (Contagem.EXATA.equals(contagem) || Contagem.ESTIMADA.equals(contagem))
+                && paralela.isHabilitada()
+                ? paralela.executar(PesquisaSqlInspector.propagar(contarTotal))
+                : null;
+
+        List<ChaveOrdenacao> chaves = criarChavesOrdenacao(entityClass, request);
+        List<Object> valoresCursor = decodificarCursor(request, chaves);
+
+        Map<String, Object> valores = new HashMap<>(filtros.valores());
+        StringBuilder forma = new StringBuilder("registros|").append(projecao.getChave()).append('|').append(chaves)
+                .append(contagemJanela ? "|janela" : "");
+        adicionarCursor(forma, valores, valoresCursor);
+
+        ConsultaPreparada<Tuple> consulta = consultas.obter(criarForma(entityClass, filtros, forma),
+                () -> criarConsultaRegistros(entityClass, projecao, filtros, chaves, valoresCursor, contagemJanela));
+        int totalSelecoes = consulta.criteriaQuery().getSelection().getCompoundSelectionItems().size();
+        int inicioChaves = totalSelecoes - chaves.size() - (contagemJanela ? 1 : 0);
+
+        int quantidadeRegistros = request.getQuantidadeRegistros();
+        int primeiroRegistro = request.isPaginacaoPorCursor() ? 0 : (request.getPagina() - 1) * quantidadeRegistros;
+
+        List<Tuple> tuplas = cronometrar("registros", tempos, () -> criarQuery(consulta, entityClass, valores)
+                .setFirstResult(primeiroRegistro)
+                .setMaxResults(buscarRegistroExtra ? quantidadeRegistros + 1 : quantidadeRegistros)
+                .getResultList()).get();
+
+        boolean possuiRegistroExtra = tuplas.size() > quantidadeRegistros;
+        if (possuiRegistroExtra) {
+            tuplas = tuplas.subList(0, quantidadeRegistros);
+        }
 
-        CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
+        Long totalRegistros;
+        if (Contagem.NENHUMA.equals(contagem)) {
+            totalRegistros = null;
+        } else if (contagemJanela && !tuplas.isEmpty()) {
+            totalRegistros = tuplas.get(0).get(totalSelecoes - 1, Long.class);
+        } else if (contagemJanela && primeiroRegistro == 0) {
+            totalRegistros = 0L;
+        } else if (contagemParalela != null) {
+            totalRegistros = paralela.aguardar(contagemParalela);
+        } else {
+            totalRegistros = contarTotal.get();
+        }
+
+        ResultadoBusca<D> resultado = new ResultadoBusca<>(tuplas.stream().map(projecao::converter).toList(), totalRegistros);
+        if (buscarRegistroExtra) {
+            resultado.setPossuiProximaPagina(possuiRegistroExtra);
+        } else {
+            resultado.setPossuiProximaPagina(primeiroRegistro + tuplas.size() < totalRegistros);
+        }
+        if (request.isPaginacaoPorCursor() && possuiRegistroExtra) {
+            resultado.setProximoCursor(criarCursor(chaves, tuplas.get(tuplas.size() - 1), inicioChaves));
+        }
+
+        return resultado;
+    }
+
+    private List<Object> decodificarCursor(PesquisaRequest request, List<ChaveOrdenacao> chaves) {
+        if (!request.isPaginacaoPorCursor() || request.getCursor() == null) {
+            return null;
+        }
+
+        return PesquisaCursor.decodificar(request.getCursor(),
+                chaves.stream().map(ChaveOrdenacao::toString).toList(),
+                chaves.stream().<Class<?>>map(ChaveOrdenacao::tipo).toList());
+    }
+
+    /**
+     * Os valores nulos do cursor mudam o predicado gerado, então fazem parte da forma da consulta; os demais viram parâmetros.
+     */
+    private static void adicionarCursor(StringBuilder forma, Map<String, Object> valores, List<Object> valoresCursor) {
+        if (valoresCursor == null) {
+            return;
+        }
+
+        forma.append("|cursor:");
+        for (int i = 0; i < valoresCursor.size(); i++) {
+            forma.append(valoresCursor.get(i) == null ? 'N' : 'V');
+            valores.put(PARAMETRO_CURSOR + i, valoresCursor.get(i));
+        }
+    }
+
+    private <D> ConsultaPreparada<Tuple> criarConsultaRegistros(Class<T> entityClass, PesquisaProjecao<T, D> projecao,
+                                                                FiltrosPreparados filtros, List<ChaveOrdenacao> chaves,
+                                                                List<Object> valoresCursor, boolean contagemJanela) {
+        HibernateCriteriaBuilder criteriaBuilder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        Parametros parametros = new Parametros(criteriaBuilder);
+
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
         Root<T> root = criteriaQuery.from(entityClass);
 
-        Predicate[] predicates = criarPredicados(criteriaBuilder, root, request);
-        criteriaQuery.where(predicates);
+        List<Predicate> predicates = new ArrayList<>(Arrays.asList(criarPredicados(criteriaBuilder, criteriaQuery, root, filtros, parametros)));
 
-        List<Order> orders = adicionarOrdenacao(criteriaBuilder, root, request);
-        criteriaQuery.orderBy(orders);
+        List<Expression<?>> caminhos = new ArrayList<>();
+        chaves.forEach(chave -> caminhos.add(getOrdenacao(criteriaBuilder, criteriaQuery, root, chave)));
 
-        TypedQuery<T> query = entityManager.createQuery(criteriaQuery);
+        if (valoresCursor != null) {
+            predicates.add(criarPredicadoCursor(criteriaBuilder, chaves, caminhos, valoresCursor, parametros));
+        }
 
-        List<T> resultados = query
-                .setFirstResult((request.getPagina() - 1) * request.getQuantidadeRegistros())
-                .setMaxResults(request.getQuantidadeRegistros()).getResultList();
+        List<Selection<?>> selecoes = new ArrayList<>(projecao.selecionar(criteriaBuilder, root, joins));
+        selecoes.addAll(caminhos);
+        if (contagemJanela) {
+            selecoes.add(criteriaBuilder.count(root, criteriaBuilder.createWindow()));
+        }
 
-        CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
-        Root<T> countRoot = countQuery.from(entityClass);
+        criteriaQuery.multiselect(selecoes);
+        criteriaQuery.where(predicates.toArray(Predicate[]::new));
+        criteriaQuery.orderBy(criarOrdens(criteriaBuilder, root, filtros, chaves, caminhos, parametros));
 
-        Predicate[] countPredicates = criarPredicados(criteriaBuilder, countRoot, request);
-        countQuery.select(criteriaBuilder.count(countRoot));
-        countQuery.where(countPredicates);
+        return parametros.preparar(criteriaQuery);
+    }
 
-        Long totalRegistros = entityManager.createQuery(countQuery).getSingleResult();
+    public void validar(PesquisaRequest request, Class<T> entityClass) {
+        Integer quantidadeMaximaFiltros = limites.getLimites(entityClass).getQuantidadeMaximaFiltros();
+        if (quantidadeMaximaFiltros != null && contarFiltros(request.getFiltros(), request.getGrupo(), 0) > quantidadeMaximaFiltros) {
+            throw new IllegalArgumentException(MessageUtil.get("pesquisa.filtros.excedido", quantidadeMaximaFiltros));
+        }
 
-        return new ResultadoBusca<>(resultados, totalRegistros);
+        validarCampoExistente(entityClass, request.getFiltros(), request.getGrupo(), request.getOrdenacao());
+        prepararFiltros(request, entityClass);
+
+        if (request.getFacetas() != null) {
+            request.setFacetas(request.getFacetas().stream().map(faceta -> metadados.resolver(entityClass, faceta).caminho()).toList());
+        }
     }
 
-    private Predicate[] criarPredicados(CriteriaBuilder criteriaBuilder, Root<T> root, PesquisaRequest request) {
-        if (request.getFiltros() != null) {
-            return request.getFiltros().stream()
-                    .map(filtro -> criarPredicate(criteriaBuilder, root, filtro))
+    /**
+     * Rejeita a pesquisa quando o custo estimado pelo banco ultrapassa o custo máximo configurado para a entidade,
+     * antes que a consulta ocupe uma conexão por todo o tempo limite.
+     */
+    public void verificarCusto(PesquisaRequest request, Class<T> entityClass) {
+        Double custoMaximo = limites.getLimites(entityClass).getCustoMaximo();
+        if (custoMaximo == null) {
+            return;
+        }
+
+        double custo = plano.estimarCusto(criarConsultaPlano(entityClass, prepararFiltros(request, entityClass)));
+        if (custo > custoMaximo) {
+            throw new IllegalArgumentException(MessageUtil.get("pesquisa.custo.excedido", custo, custoMaximo));
+        }
+    }
+
+    /**
+     * Plano de execução da consulta de registros com os mesmos filtros, ordenação, cursor e página, selecionando somente
+     * o id (a consulta tipada da projeção não pode ser lida como o resultado de um EXPLAIN).
+     */
+    private JsonNode explicarPagina(PesquisaRequest request, Class<T> entityClass) {
+        FiltrosPreparados filtros = prepararFiltros(request, entityClass);
+        List<ChaveOrdenacao> chaves = criarChavesOrdenacao(entityClass, request);
+        List<Object> valoresCursor = decodificarCursor(request, chaves);
+
+        Map<String, Object> valores = new HashMap<>(filtros.valores());
+        StringBuilder forma = new StringBuilder("plano-pagina|").append(chaves);
+        adicionarCursor(forma, valores, valoresCursor);
+
+        ConsultaPreparada<String> consulta = consultas.obter(criarForma(entityClass, filtros, forma), () -> {
+            HibernateCriteriaBuilder criteriaBuilder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+            Parametros parametros = new Parametros(criteriaBuilder);
+            CriteriaQuery<String> explainQuery = criteriaBuilder.createQuery(String.class);
+            Root<T> explainRoot = explainQuery.from(entityClass);
+
+            List<Predicate> predicates = new ArrayList<>(Arrays.asList(criarPredicados(criteriaBuilder, explainQuery, explainRoot, filtros, parametros)));
+            List<Expression<?>> caminhos = new ArrayList<>();
+            chaves.forEach(chave -> caminhos.add(getOrdenacao(criteriaBuilder, explainQuery, explainRoot, chave)));
+
+            if (valoresCursor != null) {
+                predicates.add(criarPredicadoCursor(criteriaBuilder, chaves, caminhos, valoresCursor, parametros));
+            }
+
+            explainQuery.select(explainRoot.get(metadados.getEntidade(entityClass).getAtributoId()).as(String.class));
+            explainQuery.where(predicates.toArray(Predicate[]::new));
+            explainQuery.orderBy(criarOrdens(criteriaBuilder, explainRoot, filtros, chaves, caminhos, parametros));
+            return parametros.preparar(explainQuery);
+        });
+
+        int quantidadeRegistros = request.getQuantidadeRegistros();
+        int primeiroRegistro = request.isPaginacaoPorCursor() ? 0 : (request.getPagina() - 1) * quantidadeRegistros;
+
+        return plano.explicar(criarQuery(consulta, entityClass, valores)
+                .setFirstResult(primeiroRegistro)
+                .setMaxResults(quantidadeRegistros), "ANALYZE, BUFFERS");
+    }
+
+    private void validarQuantidadeRegistros(PesquisaRequest request, Class<T> entityClass) {
+        Integer quantidadeMaximaRegistros = limites.getLimites(entityClass).getQuantidadeMaximaRegistros();
+        if (request.getQuantidadeRegistros() == null || request.getQuantidadeRegistros() < 1
+                || (quantidadeMaximaRegistros != null && request.getQuantidadeRegistros() > quantidadeMaximaRegistros)) {
+            throw new IllegalArgumentException(MessageUtil.get("pesquisa.quantidade.registros.invalida", quantidadeMaximaRegistros));
+        }
+    }
+
+    private List<Supplier<PesquisaFaceta>> criarConsultasFacetas(PesquisaRequest request, Class<T> entityClass,
+                                                                 Map<String, Long> tempos) {
+        if (request.getFacetas() == null) {
+            return List.of();
+        }
+
+        FiltrosPreparados filtros = prepararFiltros(request, entityClass);
+        boolean filtroMultivalorado = filtros.conjuntivos().stream().anyMatch(FiltroPreparado::multivalorado);
+
+        return request.getFacetas().stream()
+                .distinct()
+                .<Supplier<PesquisaFaceta>>map(faceta -> {
+                    boolean contarDistintos = filtroMultivalorado || metadados.resolver(entityClass, faceta).multivalorado();
+                    return cronometrar("faceta:" + faceta, tempos, () -> calcularFaceta(entityClass, filtros, faceta, contarDistintos));
+                })
+                .toList();
+    }
+
+    private PesquisaFaceta calcularFaceta(Class<T> entityClass, FiltrosPreparados filtros, String faceta, boolean contarDistintos) {
+        String forma = "faceta|" + faceta + (contarDistintos ? "|distintos" : "");
+        ConsultaPreparada<Tuple> consulta = consultas.obter(criarForma(entityClass, filtros, forma), () -> {
+            HibernateCriteriaBuilder criteriaBuilder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+            Parametros parametros = new Parametros(criteriaBuilder);
+            CriteriaQuery<Tuple> facetaQuery = criteriaBuilder.createTupleQuery();
+            Root<T> facetaRoot = facetaQuery.from(entityClass);
+
+            Path<?> path = getPath(facetaRoot, faceta, JoinType.LEFT);
+            Expression<Long> quantidade = contarDistintos ? criteriaBuilder.countDistinct(facetaRoot) : criteriaBuilder.count(facetaRoot);
+
+            facetaQuery.multiselect(path, quantidade);
+            facetaQuery.where(criarPredicados(criteriaBuilder, facetaQuery, facetaRoot, filtros, parametros));
+            facetaQuery.groupBy(path);
+            facetaQuery.orderBy(criteriaBuilder.desc(quantidade), criteriaBuilder.asc(path));
+            return parametros.preparar(facetaQuery);
+        });
+
+        List<PesquisaFaceta.Valor> valores = criarQuery(consulta, entityClass, filtros.valores())
+                .setMaxResults(LIMITE_VALORES_FACETA)
+                .getResultList().stream()
+                .map(tupla -> new PesquisaFaceta.Valor(tupla.get(0), tupla.get(1, Long.class)))
+                .toList();
+
+        return new PesquisaFaceta(faceta, valores);
+    }
+
+    public <D> void exportar(PesquisaRequest request, Class<T> entityClass, PesquisaProjecao<T, D> projecao, Consumer<D> consumidor) {
+        validar(request, entityClass);
+
+        FiltrosPreparados filtros = prepararFiltros(request, entityClass);
+        List<ChaveOrdenacao> chaves = criarChavesOrdenacao(entityClass, request);
+        String forma = "exportacao|" + projecao.getChave() + '|' + chaves;
+
+        ConsultaPreparada<Tuple> consulta = consultas.obter(criarForma(entityClass, filtros, forma), () -> {
+            HibernateCriteriaBuilder criteriaBuilder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+            Parametros parametros = new Parametros(criteriaBuilder);
+            CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+            Root<T> root = criteriaQuery.from(entityClass);
+
+            Predicate[] predicates = criarPredicados(criteriaBuilder, criteriaQuery, root, filtros, parametros);
+            List<Expression<?>> caminhos = new ArrayList<>();
+            chaves.forEach(chave -> caminhos.add(getOrdenacao(criteriaBuilder, criteriaQuery, root, chave)));
+
+            criteriaQuery.multiselect(projecao.selecionar(criteriaBuilder, root, joins));
+            criteriaQuery.where(predicates);
+            criteriaQuery.orderBy(criarOrdens(criteriaBuilder, root, filtros, chaves, caminhos, parametros));
+            return parametros.preparar(criteriaQuery);
+        });
+
+        try (Stream<Tuple> tuplas = consulta.criar(entityManager, filtros.valores())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANHO_LOTE_EXPORTACAO)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, Math.toIntExact(limites.getTempoMaximoExportacao().toMillis()))
+                .getResultStream()) {
+            Iterator<Tuple> iterator = tuplas.iterator();
+            long registros = 0;
+
+            while (iterator.hasNext()) {
+                consumidor.accept(projecao.converter(iterator.next()));
+
+                if (++registros % TAMANHO_LOTE_EXPORTACAO == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private Long contarRegistros(Class<T> entityClass, FiltrosPreparados filtros) {
+        ConsultaPreparada<Long> consulta = consultas.obter(criarForma(entityClass, filtros, "contagem"), () -> {
+            HibernateCriteriaBuilder criteriaBuilder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+            Parametros parametros = new Parametros(criteriaBuilder);
+            CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
+            Root<T> countRoot = countQuery.from(entityClass);
+
+            countQuery.select(criteriaBuilder.count(countRoot));
+            countQuery.where(criarPredicados(criteriaBuilder, countQuery, countRoot, filtros, parametros));
+            return parametros.preparar(countQuery);
+        });
+
+        return criarQuery(consulta, entityClass, filtros.valores()).getSingleResult();
+    }
+
+    private Long estimarTotalRegistros(Class<T> entityClass, FiltrosPreparados filtros) {
+        return plano.estimarRegistros(criarConsultaPlano(entityClass, filtros));
+    }
+
+    private TypedQuery<String> criarConsultaPlano(Class<T> entityClass, FiltrosPreparados filtros) {
+        ConsultaPreparada<String> consulta = consultas.obter(criarForma(entityClass, filtros, "plano"), () -> {
+            HibernateCriteriaBuilder criteriaBuilder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+            Parametros parametros = new Parametros(criteriaBuilder);
+            CriteriaQuery<String> explainQuery = criteriaBuilder.createQuery(String.class);
+            Root<T> explainRoot = explainQuery.from(entityClass);
+
+            explainQuery.select(explainRoot.get(metadados.getEntidade(entityClass).getAtributoId()).as(String.class));
+            explainQuery.where(criarPredicados(criteriaBuilder, explainQuery, explainRoot, filtros, parametros));
+            return parametros.preparar(explainQuery);
+        });
+
+        return criarQuery(consulta, entityClass, filtros.valores());
+    }
+
+    private <R> TypedQuery<R> criarQuery(ConsultaPreparada<R> consulta, Class<T> entityClass, Map<String, Object> valores) {
+        TypedQuery<R> query = consulta.criar(entityManager, valores);
+
+        Duration tempoMaximo = PesquisaPrazo.limitar(limites.getLimites(entityClass).getTempoMaximo());
+        if (tempoMaximo != null) {
+            query.setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, Math.toIntExact(tempoMaximo.toMillis()));
+        }
+        return query;
+    }
+
+    private String criarForma(Class<T> entityClass, FiltrosPreparados filtros, CharSequence consulta) {
+        return entityClass.getName() + '|' + filtros.forma() + '|' + consulta;
+    }
+
+    private Predicate[] criarPredicados(HibernateCriteriaBuilder criteriaBuilder, AbstractQuery<?> query, Root<T> root,
+                                        FiltrosPreparados filtros, Parametros parametros) {
+        return filtros.raiz().nos().stream()
+                .map(no -> criarPredicate(criteriaBuilder, query, root, no, true, parametros))
+                .toArray(Predicate[]::new);
+    }
+
+    /**
+     * Os filtros ligados à raiz somente por E usam join INNER, como os filtros sem grupo. Dentro de OU e NAO um join INNER
+     * eliminaria os registros sem a associação antes de avaliar as outras alternativas, então os campos de associações
+     * para um usam join LEFT e os multivalorados viram um EXISTS, que também não repete o registro para cada elemento.
+     */
+    private Predicate criarPredicate(HibernateCriteriaBuilder criteriaBuilder, AbstractQuery<?> query, Root<T> root, NoFiltro no,
+                                     boolean conjuntivo, Parametros parametros) {
+        if (no instanceof GrupoPreparado grupo) {
+            boolean conjuntivoNos = conjuntivo && OperadorLogico.E.equals(grupo.operador());
+            Predicate[] predicados = grupo.nos().stream()
+                    .map(filho -> criarPredicate(criteriaBuilder, query, root, filho, conjuntivoNos, parametros))
                     .toArray(Predicate[]::new);
+
+            return switch (grupo.operador()) {
+                case E -> criteriaBuilder.and(predicados);
+                case OU -> criteriaBuilder.or(predicados);
+                case NAO -> criteriaBuilder.not(criteriaBuilder.and(predicados));
+            };
         }
 
-        return new Predicate[]{};
+        FiltroPreparado filtro = (FiltroPreparado) no;
+        if (conjuntivo) {
+            return criarPredicate(criteriaBuilder, getPath(root, filtro.campo(), JoinType.INNER), filtro, parametros);
+        }
+        if (!filtro.multivalorado()) {
+            return criarPredicate(criteriaBuilder, getPath(root, filtro.campo(), JoinType.LEFT), filtro, parametros);
+        }
+
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Root<T> correlacao = subquery.correlate(root);
+        subquery.select(criteriaBuilder.literal(1))
+                .where(criarPredicate(criteriaBuilder, getPath(correlacao, filtro.campo(), JoinType.INNER), filtro, parametros));
+        return criteriaBuilder.exists(subquery);
     }
 
-    private List<Order> adicionarOrdenacao(CriteriaBuilder criteriaBuilder, Root<T> root, PesquisaRequest request) {
+    private List<ChaveOrdenacao> criarChavesOrdenacao(Class<T> entityClass, PesquisaRequest request) {
+        List<ChaveOrdenacao> chaves = new ArrayList<>();
+
         if (request.getOrdenacao() != null) {
-            return request.getOrdenacao().stream()
-                    .map(ordenacao -> {
-                        Path<?> campo = getPath(root, ordenacao.getCampo(), JoinType.LEFT);
-                        if (ordenacao.getOrdenacao() == Ordenacao.ASC) {
-                            return criteriaBuilder.asc(campo);
-                        }
+            request.getOrdenacao().forEach(ordenacao -> {
+                CampoMetadados campo = metadados.resolverOrdenacao(entityClass, ordenacao.getCampo());
+                chaves.add(new ChaveOrdenacao(ordenacao.getCampo(), campo.tipo(), ordenacao.getOrdenacao() != Ordenacao.DESC,
+                        campo.anulavel(), metadados.getAgregado(entityClass, ordenacao.getCampo())));
+            });
+        }
 
-                        return criteriaBuilder.desc(campo);
-                    }).toList();
+        if (request.isPaginacaoPorCursor()) {
+            String atributoId = metadados.getEntidade(entityClass).getAtributoId();
+            if (chaves.stream().noneMatch(chave -> chave.campo().equals(atributoId))) {
+                chaves.add(new ChaveOrdenacao(atributoId, metadados.resolver(entityClass, atributoId).tipo(), true, false, null));
+            }
         }
 
-        return new ArrayList<>();
+        return chaves;
     }
 
-    private Path<?> getPath(Path<?> root, String campo, JoinType joinType) {
-        String[] campos = campo.split("\\.");
-        Path<?> path = root;
-        for (String part : campos) {
-            if (campos[campos.length - 1].equals(part)) {
-                path = path.get(part);
-            } else if (path instanceof From) {
-                path = ((From<?, ?>) path).join(part, joinType);
-            } else {
-                throw new IllegalArgumentException("O caminho deve ser uma instância de From para realizar o join.");
+    private List<Order> criarOrdens(HibernateCriteriaBuilder criteriaBuilder, Root<T> root, FiltrosPreparados filtros,
+                                    List<ChaveOrdenacao> chaves, List<Expression<?>> caminhos, Parametros parametros) {
+        List<Order> orders = adicionarOrdenacao(criteriaBuilder, chaves, caminhos);
+        return orders.isEmpty() ? criarOrdenacaoRelevancia(criteriaBuilder, root, filtros, parametros) : orders;
+    }
+
+    private List<Order> criarOrdenacaoRelevancia(HibernateCriteriaBuilder criteriaBuilder, Root<T> root, FiltrosPreparados filtros,
+                                                 Parametros parametros) {
+        List<Expression<Double>> relevancias = new ArrayList<>();
+        filtros.raiz().nos().forEach(no -> adicionarRelevancia(criteriaBuilder, root, no, true, parametros, relevancias));
+
+        return relevancias.stream()
+                .reduce(criteriaBuilder::sum)
+                .<List<Order>>map(relevancia -> List.of(criteriaBuilder.desc(relevancia)))
+                .orElse(List.of());
+    }
+
+    /**
+     * Soma a relevância dos filtros de TEXTO com os mesmos joins de {@link #criarPredicate}. Os filtros negados e os
+     * multivalorados dentro de grupos (resolvidos em EXISTS) não entram na relevância.
+     */
+    private void adicionarRelevancia(HibernateCriteriaBuilder criteriaBuilder, Root<T> root, NoFiltro no, boolean conjuntivo,
+                                     Parametros parametros, List<Expression<Double>> relevancias) {
+        if (no instanceof GrupoPreparado grupo) {
+            if (!OperadorLogico.NAO.equals(grupo.operador())) {
+                boolean conjuntivoNos = conjuntivo && OperadorLogico.E.equals(grupo.operador());
+                grupo.nos().forEach(filho -> adicionarRelevancia(criteriaBuilder, root, filho, conjuntivoNos, parametros, relevancias));
             }
+            return;
         }
-        return path;
+
+        FiltroPreparado filtro = (FiltroPreparado) no;
+        if (!Comparacao.TEXTO.equals(filtro.comparacao()) || (!conjuntivo && filtro.multivalorado())) {
+            return;
+        }
+
+        Expression<Double> relevancia = criteriaBuilder.function(PesquisaFuncoes.RELEVANCIA, Double.class,
+                getTexto(getPath(root, filtro.campo(), conjuntivo ? JoinType.INNER : JoinType.LEFT)),
+                parametros.get(filtro.nome(0), String.class));
+        relevancias.add(conjuntivo ? relevancia : criteriaBuilder.coalesce(relevancia, 0.0));
     }
 
-    private Predicate criarPredicate(CriteriaBuilder criteriaBuilder, Root<?> root, PesquisaFiltro filtro) {
-        Object valor = converterParaLocalDateTimeCamposDeData(filtro.getValor());
+    /**
+     * Os nulos ficam por último nas duas direções, explicitamente, para que o cursor não dependa do padrão do banco
+     * (o PostgreSQL os coloca por último no ASC e primeiro no DESC, o H2 faz o contrário).
+     */
+    private List<Order> adicionarOrdenacao(HibernateCriteriaBuilder criteriaBuilder, List<ChaveOrdenacao> chaves,
+                                           List<Expression<?>> caminhos) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < chaves.size(); i++) {
+            ChaveOrdenacao chave = chaves.get(i);
+            Expression<?> caminho = caminhos.get(i);
+            if (chave.anulavel()) {
+                orders.add(chave.ascendente() ? criteriaBuilder.asc(caminho, false) : criteriaBuilder.desc(caminho, false));
+            } else {
+                orders.add(chave.ascendente() ? criteriaBuilder.asc(caminho) : criteriaBuilder.desc(caminho));
+            }
+        }
+        return orders;
+    }
 
-        Path<?> path = getPath(root, filtro.getCampo(), JoinType.INNER);
+    /**
+     * Com todas as chaves não nulas e na mesma direção, o cursor é uma comparação de linha ({@code (k1, k2, id) > (...)}),
+     * que o banco resolve posicionando o índice da ordenação; as páginas profundas custam o mesmo que a primeira.
+     * Caso contrário, o predicado é expandido em alternativas, uma para cada chave.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate criarPredicadoCursor(HibernateCriteriaBuilder criteriaBuilder, List<ChaveOrdenacao> chaves,
+                                           List<Expression<?>> caminhos, List<Object> valores, Parametros parametros) {
+        boolean ascendente = chaves.get(0).ascendente();
+        if (chaves.size() > 1 && chaves.size() <= PesquisaFuncoes.MAXIMO_CHAVES_LINHA
+                && valores.stream().allMatch(Objects::nonNull)
+                && chaves.stream().allMatch(chave -> !chave.anulavel() && chave.ascendente() == ascendente)) {
+            List<Expression<?>> argumentos = new ArrayList<>(caminhos);
+            for (int i = 0; i < chaves.size(); i++) {
+                argumentos.add(parametros.get(PARAMETRO_CURSOR + i, Parametros.getTipo(valores.get(i))));
+            }
+            return criteriaBuilder.isTrue(criteriaBuilder.function(PesquisaFuncoes.linha(ascendente, chaves.size()), Boolean.class,
+                    argumentos.toArray(Expression[]::new)));
+        }
 
-        return switch (filtro.getComparacao()) {
-            case COMECA_COM ->
-                    criteriaBuilder.like(criteriaBuilder.upper(path.as(String.class)), valor.toString().toUpperCase() + "%");
-            case CONTEM ->
-                    criteriaBuilder.like(criteriaBuilder.upper(path.as(String.class)), "%" + valor.toString().toUpperCase() + "%");
-            case IGUAL -> {
-                if (valor == null) {
-                    yield criteriaBuilder.isNull(path);
-                }
+        List<Predicate> alternativas = new ArrayList<>();
+        List<Predicate> anterioresIguais = new ArrayList<>();
 
-                if (path.getJavaType().getTypeName().equals("java.time.LocalDate")) {
-                    yield criteriaBuilder.like(criteriaBuilder.upper(path.as(String.class)), valor.toString().toUpperCase());
-                }
+        for (int i = 0; i < chaves.size(); i++) {
+            Expression<Comparable> valor = valores.get(i) == null
+                    ? null
+                    : parametros.get(PARAMETRO_CURSOR + i, (Class<Comparable>) Parametros.getTipo(valores.get(i)));
 
-                yield criteriaBuilder.equal(path, valor);
+            Predicate posterior = criarPredicadoPosterior(criteriaBuilder, chaves.get(i), caminhos.get(i), valor);
+            if (posterior != null) {
+                List<Predicate> termos = new ArrayList<>(anterioresIguais);
+                termos.add(posterior);
+                alternativas.add(criteriaBuilder.and(termos.toArray(Predicate[]::new)));
             }
+
+            anterioresIguais.add(valor == null
+                    ? criteriaBuilder.isNull(caminhos.get(i))
+                    : criteriaBuilder.equal(caminhos.get(i), valor));
+        }
+
+        return criteriaBuilder.or(alternativas.toArray(Predicate[]::new));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate criarPredicadoPosterior(CriteriaBuilder criteriaBuilder, ChaveOrdenacao chave, Expression<?> caminho,
+                                              Expression<Comparable> valor) {
+        Expression<Comparable> expressao = (Expression<Comparable>) caminho;
+
+        // os nulos são os últimos nas duas direções (adicionarOrdenacao)
+        if (valor == null) {
+            return null;
+        }
+
+        Predicate posterior = chave.ascendente()
+                ? criteriaBuilder.greaterThan(expressao, valor)
+                : criteriaBuilder.lessThan(expressao, valor);
+        return chave.anulavel() ? criteriaBuilder.or(posterior, criteriaBuilder.isNull(caminho)) : posterior;
+    }
+
+    private String criarCursor(List<ChaveOrdenacao> chaves, Tuple ultimaTupla, int inicioChaves) {
+        List<Object> valores = new ArrayList<>();
+        for (int i = 0; i < chaves.size(); i++) {
+            valores.add(ultimaTupla.get(inicioChaves + i));
+        }
+        return PesquisaCursor.codificar(chaves.stream().map(ChaveOrdenacao::toString).toList(), valores);
+    }
+
+    private Expression<?> getOrdenacao(HibernateCriteriaBuilder criteriaBuilder, AbstractQuery<?> query, Root<T> root,
+                                       ChaveOrdenacao chave) {
+        return chave.agregado() == null
+                ? getPath(root, chave.campo(), JoinType.LEFT)
+                : criarAgregado(criteriaBuilder, query, root, chave.agregado());
+    }
+
+    /**
+     * Subconsulta correlacionada de {@link PesquisaAgregado}. Com um índice começando pela chave estrangeira da coleção,
+     * cada valor é lido do índice e o banco ordena e limita a página sem carregar os elementos.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Expression<?> criarAgregado(HibernateCriteriaBuilder criteriaBuilder, AbstractQuery<?> query, Root<T> root,
+                                        EntidadeMetadados.Agregado agregado) {
+        Subquery subquery = query.subquery(agregado.tipo());
+        Join<?, ?> elemento = subquery.correlate(root).join(agregado.colecao());
+
+        subquery.select(switch (agregado.funcao()) {
+            case CONTAGEM -> criteriaBuilder.count(elemento);
+            case MAXIMO -> criteriaBuilder.greatest(elemento.<Comparable>get(agregado.campo()));
+            case MINIMO -> criteriaBuilder.least(elemento.<Comparable>get(agregado.campo()));
+        });
+        if (agregado.condicao() != null) {
+            subquery.where(criteriaBuilder.equal(elemento.get(agregado.condicao()), agregado.valor()));
+        }
+        return subquery;
+    }
+
+    /**
+     * Resolve o caminho reaproveitando os joins já criados na mesma raiz, como em {@link PesquisaProjecao.Joins#REAPROVEITAR}:
+     * filtros, ordenações e a projeção sobre o mesmo caminho compartilham um único join.
+     */
+    private Path<?> getPath(From<?, ?> root, String campo, JoinType joinType) {
+        String[] campos = campo.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < campos.length - 1; i++) {
+            from = joins.get(from, campos[i], joinType);
+        }
+        return from.get(campos[campos.length - 1]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Expression<String> getTexto(Path<?> path) {
+        return String.class.equals(path.getJavaType()) ? (Expression<String>) path : path.as(String.class);
+    }
+
+    private Predicate criarPredicadoSemelhante(HibernateCriteriaBuilder criteriaBuilder, Path<?> path, Expression<String> padrao) {
+        if (String.class.equals(path.getJavaType())) {
+            return criteriaBuilder.ilike(getTexto(path), padrao);
+        }
+
+        return criteriaBuilder.like(criteriaBuilder.upper(path.as(String.class)), padrao);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate criarPredicate(HibernateCriteriaBuilder criteriaBuilder, Path<?> path, FiltroPreparado filtro, Parametros parametros) {
+        Expression<Comparable> comparavel = (Expression<Comparable>) path;
+
+        return switch (filtro.comparacao()) {
+            case NAO_IGUAL -> filtro.valores().isEmpty()
+                    ? criteriaBuilder.isNotNull(path)
+                    : criteriaBuilder.notEqual(path, parametros.get(filtro, 0));
+            case EM -> criarPredicadoEm(criteriaBuilder, path, filtro, parametros);
+            case ENTRE -> switch (filtro.forma()) {
+                case ENTRE_ATE -> criteriaBuilder.lessThanOrEqualTo(comparavel, parametros.<Comparable>get(filtro, 0));
+                case ENTRE_DESDE -> criteriaBuilder.greaterThanOrEqualTo(comparavel, parametros.<Comparable>get(filtro, 0));
+                default -> criteriaBuilder.between(comparavel, parametros.<Comparable>get(filtro, 0), parametros.<Comparable>get(filtro, 1));
+            };
+            case MAIOR -> criteriaBuilder.greaterThan(comparavel, parametros.<Comparable>get(filtro, 0));
+            case MENOR -> criteriaBuilder.lessThan(comparavel, parametros.<Comparable>get(filtro, 0));
+            case COMECA_COM, CONTEM -> criarPredicadoSemelhante(criteriaBuilder, path, parametros.get(filtro, 0));
+            case TEXTO -> criteriaBuilder.isTrue(criteriaBuilder.function(PesquisaFuncoes.TEXTO, Boolean.class,
+                    getTexto(path), parametros.get(filtro, 0)));
+            case IGUAL -> filtro.valores().isEmpty()
+                    ? criteriaBuilder.isNull(path)
+                    : criteriaBuilder.equal(path, parametros.get(filtro, 0));
         };
     }
 
-    private void validarCampoExistente(Class<?> entityClass, List<PesquisaFiltro> filtros, List<PesquisaOrdenacao> ordenacoes) {
+    private Predicate criarPredicadoEm(HibernateCriteriaBuilder criteriaBuilder, Path<?> path, FiltroPreparado filtro, Parametros parametros) {
+        List<Predicate> alternativas = new ArrayList<>();
+
+        if (filtro.forma().startsWith(EM_NULO)) {
+            alternativas.add(criteriaBuilder.isNull(path));
+        }
+
+        if (filtro.forma().endsWith(EM_LISTA)) {
+            alternativas.add(path.in(parametros.get(filtro.nome(0), path.getJavaType())));
+        } else if (filtro.forma().endsWith(EM_ARRAY)) {
+            alternativas.add(criteriaBuilder.isTrue(criteriaBuilder.function(PesquisaFuncoes.EM, Boolean.class, path,
+                    parametros.get(filtro, 0))));
+        }
+
+        return alternativas.size() == 1 ? alternativas.get(0) : criteriaBuilder.or(alternativas.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Os filtros da requisição formam um grupo E com o grupo informado. Grupos E dentro de E e OU dentro de OU são
+     * achatados, grupos de um só elemento são substituídos por ele e os elementos idênticos de um mesmo grupo
+     * (mesmo campo, comparação e valores) são descartados, antes de numerar os parâmetros.
+     */
+    private FiltrosPreparados prepararFiltros(PesquisaRequest request, Class<T> entityClass) {
+        GrupoPreparado raiz = prepararGrupo(OperadorLogico.E, request.getFiltros(),
+                request.getGrupo() == null ? null : List.of(request.getGrupo()), entityClass);
+
+        int[] contador = {0};
+        return new FiltrosPreparados(raiz.numerar(contador));
+    }
+
+    private GrupoPreparado prepararGrupo(OperadorLogico operador, List<PesquisaFiltro> filtros, List<PesquisaGrupo> grupos,
+                                         Class<T> entityClass) {
+        List<NoFiltro> nos = new ArrayList<>();
         if (filtros != null) {
-            filtros.forEach((filtro -> {
-                filtro.setCampo(alterarCampoParaNomeAtributo(entityClass, filtro.getCampo()));
-                validarCampoExistente(entityClass, filtro.getCampo());
-            }));
+            filtros.forEach(filtro -> nos.add(prepararFiltro(filtro, null, entityClass)));
+        }
+        if (grupos != null) {
+            grupos.forEach(grupo -> nos.add(prepararGrupo(Objects.requireNonNullElse(grupo.getOperador(), OperadorLogico.E),
+                    grupo.getFiltros(), grupo.getGrupos(), entityClass)));
         }
 
-        if (ordenacoes != null) {
-            ordenacoes.forEach(ordenacao -> {
-                ordenacao.setCampo(alterarCampoParaNomeAtributo(entityClass, ordenacao.getCampo()));
-                validarCampoExistente(entityClass, ordenacao.getCampo());
-            });
+        Map<String, NoFiltro> unicos = new LinkedHashMap<>();
+        for (NoFiltro no : nos) {
+            if (no instanceof GrupoPreparado grupo && grupo.nos().size() == 1 && !OperadorLogico.NAO.equals(grupo.operador())) {
+                no = grupo.nos().get(0);
+            }
 
+            if (no instanceof GrupoPreparado grupo && grupo.operador().equals(operador) && !OperadorLogico.NAO.equals(operador)) {
+                grupo.nos().forEach(filho -> unicos.putIfAbsent(filho.chave(), filho));
+            } else {
+                unicos.putIfAbsent(no.chave(), no);
+            }
         }
+
+        return new GrupoPreparado(operador, List.copyOf(unicos.values()));
     }
 
-    private void validarCampoExistente(Class<?> entityClass, String campo) {
-        try {
-            if (campo.contains(".")) {
-                String[] partes = campo.split("\\.");
-                Class<?> currentClass = entityClass;
-                for (String parte : partes) {
-                    Field field = currentClass.getDeclaredField(parte);
-                    currentClass = field.getType();
-                    if (Collection.class.isAssignableFrom(currentClass)) {
-                        currentClass = (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
-                    }
+    private FiltroPreparado prepararFiltro(PesquisaFiltro filtro, String prefixo, Class<T> entityClass) {
+        Object valor = filtro.getValor();
+        CampoMetadados campo = metadados.resolver(entityClass, filtro.getCampo());
+        Class<?> tipo = campo.tipo();
+        boolean multivalorado = campo.multivalorado();
+
+        return switch (filtro.getComparacao()) {
+            case IGUAL, NAO_IGUAL -> valor == null
+                    ? new FiltroPreparado(filtro, multivalorado, FORMA_NULO, prefixo, List.of())
+                    : new FiltroPreparado(filtro, multivalorado, "", prefixo, List.of(PesquisaConversor.converter(valor, tipo, filtro.getCampo())));
+            case EM -> prepararFiltroEm(filtro, prefixo, tipo, multivalorado);
+            case ENTRE -> {
+                List<Object> limites = converterValores(valor, tipo, filtro.getCampo());
+                if (limites.size() != 2 || (limites.get(0) == null && limites.get(1) == null)) {
+                    throw new IllegalArgumentException(MessageUtil.get("pesquisa.intervalo.invalido", filtro.getCampo()));
                 }
-            } else {
-                entityClass.getDeclaredField(campo);
+                if (limites.get(0) == null) {
+                    yield new FiltroPreparado(filtro, multivalorado, ENTRE_ATE, prefixo, List.of(limites.get(1)));
+                }
+                if (limites.get(1) == null) {
+                    yield new FiltroPreparado(filtro, multivalorado, ENTRE_DESDE, prefixo, List.of(limites.get(0)));
+                }
+                yield new FiltroPreparado(filtro, multivalorado, "", prefixo, limites);
             }
-        } catch (NoSuchFieldException | SecurityException e) {
-            throw new IllegalArgumentException("Campo '" + campo + "' não encontrado na classe " + entityClass.getName(), e);
+            case MAIOR, MENOR -> new FiltroPreparado(filtro, multivalorado, "", prefixo, List.of(converterValorObrigatorio(filtro, tipo)));
+            case COMECA_COM -> new FiltroPreparado(filtro, multivalorado, "", prefixo, List.of(criarPadrao(valor + "%", tipo)));
+            case CONTEM -> new FiltroPreparado(filtro, multivalorado, "", prefixo, List.of(criarPadrao("%" + valor + "%", tipo)));
+            case TEXTO -> new FiltroPreparado(filtro, multivalorado, "", prefixo, List.of(converterValorObrigatorio(filtro, String.class)));
+        };
+    }
+
+    private FiltroPreparado prepararFiltroEm(PesquisaFiltro filtro, String prefixo, Class<?> tipo, boolean multivalorado) {
+        List<Object> valores = converterValores(filtro.getValor(), tipo, filtro.getCampo());
+        List<Object> naoNulos = valores.stream().filter(Objects::nonNull).toList();
+        String nulo = naoNulos.size() < valores.size() ? EM_NULO : "";
+
+        if (naoNulos.isEmpty()) {
+            return new FiltroPreparado(filtro, multivalorado, nulo, prefixo, List.of());
+        }
+
+        if (tipo.isEnum()) {
+            return new FiltroPreparado(filtro, multivalorado, nulo + EM_LISTA, prefixo, List.of(naoNulos));
         }
+
+        Object array = Array.newInstance(tipo, naoNulos.size());
+        for (int i = 0; i < naoNulos.size(); i++) {
+            Array.set(array, i, naoNulos.get(i));
+        }
+        return new FiltroPreparado(filtro, multivalorado, nulo + EM_ARRAY, prefixo, List.of(array));
     }
 
-    public Object converterParaLocalDateTimeCamposDeData(Object valor) {
-        if (valor instanceof String valorStr) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm[:ss]");
-            try {
-                return LocalDateTime.parse(valorStr, formatter);
-            } catch (DateTimeParseException e) {
-                return valor;
+    private String criarPadrao(String padrao, Class<?> tipo) {
+        return String.class.equals(tipo) ? padrao : padrao.toUpperCase();
+    }
+
+    private Object converterValorObrigatorio(PesquisaFiltro filtro, Class<?> tipo) {
+        if (filtro.getValor() == null) {
+            throw new IllegalArgumentException(MessageUtil.get("pesquisa.valor.invalido", null, filtro.getCampo()));
+        }
+        return PesquisaConversor.converter(filtro.getValor(), tipo, filtro.getCampo());
+    }
+
+    private List<Object> converterValores(Object valor, Class<?> tipo, String campo) {
+        Collection<?> valores = valor instanceof Collection<?> colecao ? colecao : Arrays.asList(valor);
+        List<Object> convertidos = new ArrayList<>(valores.size());
+        valores.forEach(item -> convertidos.add(PesquisaConversor.converter(item, tipo, campo)));
+        return convertidos;
+    }
+
+    private void validarCampoExistente(Class<?> entityClass, List<PesquisaFiltro> filtros, PesquisaGrupo grupo,
+                                       List<PesquisaOrdenacao> ordenacoes) {
+        if (filtros != null) {
+            filtros.forEach(filtro -> filtro.setCampo(metadados.resolver(entityClass, filtro.getCampo()).caminho()));
+        }
+
+        if (grupo != null) {
+            validarCampoExistente(entityClass, grupo.getFiltros(), null, null);
+            if (grupo.getGrupos() != null) {
+                grupo.getGrupos().forEach(subgrupo -> validarCampoExistente(entityClass, null, subgrupo, null));
+            }
+        }
+
+        if (ordenacoes != null) {
+            ordenacoes.forEach(ordenacao -> ordenacao.setCampo(metadados.resolverOrdenacao(entityClass, ordenacao.getCampo()).caminho()));
+        }
+    }
+
+    /**
+     * Quantidade de filtros da requisição, incluindo os de todos os grupos. Rejeita grupos vazios e
+     * aninhados além de {@link #PROFUNDIDADE_MAXIMA_GRUPOS} níveis.
+     */
+    private static int contarFiltros(List<PesquisaFiltro> filtros, PesquisaGrupo grupo, int profundidade) {
+        int quantidade = filtros == null ? 0 : filtros.size();
+        if (grupo == null) {
+            return quantidade;
+        }
+
+        if (profundidade >= PROFUNDIDADE_MAXIMA_GRUPOS) {
+            throw new IllegalArgumentException(MessageUtil.get("pesquisa.grupo.profundidade", PROFUNDIDADE_MAXIMA_GRUPOS));
+        }
+        if ((grupo.getFiltros() == null || grupo.getFiltros().isEmpty()) && (grupo.getGrupos() == null || grupo.getGrupos().isEmpty())) {
+            throw new IllegalArgumentException(MessageUtil.get("pesquisa.grupo.vazio"));
+        }
+
+        quantidade += contarFiltros(grupo.getFiltros(), null, profundidade);
+        if (grupo.getGrupos() != null) {
+            for (PesquisaGrupo subgrupo : grupo.getGrupos()) {
+                quantidade += contarFiltros(null, subgrupo, profundidade + 1);
             }
         }
-        return valor;
+        return quantidade;
+    }
+
+    private sealed interface NoFiltro permits FiltroPreparado, GrupoPreparado {
+
+        /** Identifica o predicado gerado, incluindo os valores, para descartar elementos idênticos de um grupo. */
+        String chave();
+
+        /** Forma do nó sem os valores, que compõe a chave de {@link PesquisaConsultas}. */
+        void forma(StringBuilder forma);
+
+        NoFiltro numerar(int[] contador);
+
+        void adicionarFiltros(List<FiltroPreparado> filtros);
+    }
+
+    /**
+     * Filtro com os valores já convertidos. A forma registra as variações da consulta que dependem dos valores
+     * (comparação com nulo, intervalo aberto, IN por lista ou por array); os valores em si viram parâmetros.
+     */
+    private record FiltroPreparado(String campo, Comparacao comparacao, boolean multivalorado, String forma, String prefixo,
+                                   List<Object> valores) implements NoFiltro {
+
+        FiltroPreparado(PesquisaFiltro filtro, boolean multivalorado, String forma, String prefixo, List<Object> valores) {
+            this(filtro.getCampo(), filtro.getComparacao(), multivalorado, forma, prefixo, valores);
+        }
+
+        String nome(int indice) {
+            return prefixo + indice;
+        }
+
+        @Override
+        public String chave() {
+            StringBuilder chave = new StringBuilder();
+            forma(chave);
+            return chave.append(Arrays.deepToString(valores.toArray())).toString();
+        }
+
+        @Override
+        public void forma(StringBuilder forma) {
+            forma.append(campo).append(':').append(comparacao).append(':').append(this.forma).append(',');
+        }
+
+        @Override
+        public NoFiltro numerar(int[] contador) {
+            return new FiltroPreparado(campo, comparacao, multivalorado, forma, PARAMETRO_FILTRO + contador[0]++ + '_', valores);
+        }
+
+        @Override
+        public void adicionarFiltros(List<FiltroPreparado> filtros) {
+            filtros.add(this);
+        }
+    }
+
+    private record GrupoPreparado(OperadorLogico operador, List<NoFiltro> nos) implements NoFiltro {
+
+        @Override
+        public String chave() {
+            return operador + nos.stream().map(NoFiltro::chave).toList().toString();
+        }
+
+        @Override
+        public void forma(StringBuilder forma) {
+            forma.append(operador).append('(');
+            nos.forEach(no -> no.forma(forma));
+            forma.append("),");
+        }
+
+        @Override
+        public GrupoPreparado numerar(int[] contador) {
+            return new GrupoPreparado(operador, nos.stream().map(no -> no.numerar(contador)).toList());
+        }
+
+        @Override
+        public void adicionarFiltros(List<FiltroPreparado> filtros) {
+            nos.forEach(no -> no.adicionarFiltros(filtros));
+        }
     }
 
+    /**
+     * Árvore de filtros da pesquisa. A raiz é sempre um grupo E; sem grupos na requisição ela contém somente filtros.
+     */
+    private record FiltrosPreparados(GrupoPreparado raiz) {
+
+        String forma() {
+            StringBuilder forma = new StringBuilder();
+            raiz.nos().forEach(no -> no.forma(forma));
+            return forma.toString();
+        }
+
+        /** Filtros ligados à raiz somente por E, que restringem todas as linhas da consulta. */
+        List<FiltroPreparado> conjuntivos() {
+            List<FiltroPreparado> filtros = new ArrayList<>();
+            raiz.nos().stream().filter(FiltroPreparado.class::isInstance).map(FiltroPreparado.class::cast).forEach(filtros::add);
+            return filtros;
+        }
+
+        Map<String, Object> valores() {
+            List<FiltroPreparado> filtros = new ArrayList<>();
+            raiz.adicionarFiltros(filtros);
+
+            Map<String, Object> valores = new HashMap<>();
+            filtros.forEach(filtro -> {
+                for (int i = 0; i < filtro.valores().size(); i++) {
+                    valores.put(filtro.nome(i), filtro.valores().get(i));
+                }
+            });
+            return valores;
+        }
+    }
+
+    /**
+     * Cria os parâmetros nomeados durante a montagem de uma consulta, reaproveitando a mesma expressão quando
+     * um valor é utilizado mais de uma vez (filtro de TEXTO e ordenação por relevância, por exemplo).
+     */
+    private static final class Parametros {
+
+        private final CriteriaBuilder criteriaBuilder;
+        private final Map<String, ParameterExpression<?>> criados = new LinkedHashMap<>();
+
+        Parametros(CriteriaBuilder criteriaBuilder) {
+            this.criteriaBuilder = criteriaBuilder;
+        }
+
+        static Class<?> getTipo(Object valor) {
+            return valor instanceof Enum<?> constante ? constante.getDeclaringClass() : valor.getClass();
+        }
+
+        <V> Expression<V> get(FiltroPreparado filtro, int indice) {
+            return get(filtro.nome(indice), getTipo(filtro.valores().get(indice)));
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> Expression<V> get(String nome, Class<?> tipo) {
+            return (Expression<V>) criados.computeIfAbsent(nome, chave -> criteriaBuilder.parameter(tipo, chave));
+        }
+
+        <R> ConsultaPreparada<R> preparar(CriteriaQuery<R> criteriaQuery) {
+            return new ConsultaPreparada<>(criteriaQuery, Set.copyOf(criados.keySet()));
+        }
+    }
 }
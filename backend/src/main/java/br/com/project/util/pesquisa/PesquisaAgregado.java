@@ -0,0 +1,38 @@
+package br.com.project.util.pesquisa;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Campo calculado da entidade que pode ser utilizado na ordenação de {@link Pesquisa}. O valor é uma subconsulta
+ * correlacionada que agrega os elementos da coleção {@code colecao}, opcionalmente somente os que têm
+ * {@code condicao} igual a {@code valor}, então a página é ordenada e limitada no próprio banco.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(PesquisaAgregado.Lista.class)
+public @interface PesquisaAgregado {
+
+    String nome();
+
+    String colecao();
+
+    Agregacao funcao();
+
+    /** Atributo do elemento agregado por MAXIMO e MINIMO. */
+    String campo() default "";
+
+    String condicao() default "";
+
+    String valor() default "";
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Lista {
+
+        PesquisaAgregado[] value();
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.project.util.pesquisa;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache dos resultados de {@link Pesquisa#pesquisar}. A chave é composta pela entidade, pela projeção,
+ * pelas versões ({@link PesquisaVersoes}) das entidades que a pesquisa lê e pela requisição normalizada. As entidades
+ * lidas são a pesquisada e as alcançadas pelos caminhos dos filtros, ordenações, facetas e associações da projeção,
+ * então uma gravação em outra entidade não invalida o resultado.
+ * Pesquisas executadas dentro de uma transação não utilizam o cache, pois podem enxergar dados ainda não confirmados.
+ */
+@Component
+public class PesquisaCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final Cache<String, PesquisaResult<?>> cache;
+    private final PesquisaVersoes versoes;
+    private final PesquisaMetadados metadados;
+
+    public PesquisaCache(PesquisaVersoes versoes, PesquisaMetadados metadados, ObjectProvider<MeterRegistry> meterRegistry,
+                         @Value("${pesquisa.cache.tamanho-maximo:1000}") long tamanhoMaximo,
+                         @Value("${pesquisa.cache.ttl-segundos:300}") long ttlSegundos) {
+        this.versoes = versoes;
+        this.metadados = metadados;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "pesquisa"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <D> PesquisaResult<D> obter(Class<?> entityClass, PesquisaProjecao<?, D> projecao, PesquisaRequest request,
+                                       Supplier<PesquisaResult<D>> pesquisa) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pesquisa.get();
+        }
+
+        return (PesquisaResult<D>) cache.get(criarChave(entityClass, projecao, request), chave -> pesquisa.get());
+    }
+
+    private String criarChave(Class<?> entityClass, PesquisaProjecao<?, ?> projecao, PesquisaRequest request) {
+        StringBuilder chave = new StringBuilder(entityClass.getName()).append('|').append(projecao.getChave());
+        for (Class<?> dependencia : metadados.getDependencias(entityClass, getCaminhos(projecao, request))) {
+            chave.append('|').append(versoes.getVersao(dependencia));
+        }
+
+        try {
+            return chave.append('|').append(MAPPER.writeValueAsString(request)).toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> getCaminhos(PesquisaProjecao<?, ?> projecao, PesquisaRequest request) {
+        List<String> caminhos = new ArrayList<>(projecao.getAssociacoes());
+        adicionarCaminhos(caminhos, request.getFiltros(), request.getGrupo());
+        if (request.getOrdenacao() != null) {
+            request.getOrdenacao().forEach(ordenacao -> caminhos.add(ordenacao.getCampo()));
+        }
+        if (request.getFacetas() != null) {
+            caminhos.addAll(request.getFacetas());
+        }
+        return caminhos;
+    }
+
+    private static void adicionarCaminhos(List<String> caminhos, List<PesquisaFiltro> filtros, PesquisaGrupo grupo) {
+        if (filtros != null) {
+            filtros.forEach(filtro -> caminhos.add(filtro.getCampo()));
+        }
+        if (grupo != null) {
+            adicionarCaminhos(caminhos, grupo.getFiltros(), null);
+            if (grupo.getGrupos() != null) {
+                grupo.getGrupos().forEach(subgrupo -> adicionarCaminhos(caminhos, null, subgrupo));
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.project.util.pesquisa;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cache das consultas de {@link Pesquisa} já montadas, indexado pela forma da requisição (campos, comparações e ordenação).
+ * Os valores dos filtros são sempre parâmetros, então requisições de mesma forma reutilizam a mesma {@link CriteriaQuery}
+ * e, com ela, o plano de consulta do Hibernate e o prepared statement do banco.
+ */
+@Component
+public class PesquisaConsultas {
+
+    private final Cache<String, ConsultaPreparada<?>> cache;
+
+    public PesquisaConsultas(ObjectProvider<MeterRegistry> meterRegistry,
+                             @Value("${pesquisa.consultas.tamanho-maximo:500}") long tamanhoMaximo) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "pesquisa.consultas"));
+    }
+
+    @SuppressWarnings("unchecked")
+    <R> ConsultaPreparada<R> obter(String forma, Supplier<ConsultaPreparada<R>> montagem) {
+        return (ConsultaPreparada<R>) cache.get(forma, chave -> montagem.get());
+    }
+
+    record ConsultaPreparada<R>(CriteriaQuery<R> criteriaQuery, Set<String> parametros) {
+
+        TypedQuery<R> criar(EntityManager entityManager, Map<String, Object> valores) {
+            TypedQuery<R> query = entityManager.createQuery(criteriaQuery)
+                    .setHint(HibernateHints.HINT_QUERY_PLAN_CACHEABLE, true);
+            parametros.forEach(nome -> query.setParameter(nome, valores.get(nome)));
+            return query;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.util.MessageUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converte os valores dos filtros para o tipo do atributo, permitindo que o banco compare
+ * diretamente com a coluna (e utilize seus índices) em vez de converter a coluna para texto.
+ */
+final class PesquisaConversor {
+
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm[:ss]");
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private static final ClassValue<Map<String, Object>> ENUMS = new ClassValue<>() {
+        @Override
+        protected Map<String, Object> computeValue(Class<?> tipo) {
+            return Stream.of(tipo.getEnumConstants())
+                    .collect(Collectors.toUnmodifiableMap(constante -> ((Enum<?>) constante).name().toUpperCase(Locale.ROOT), Function.identity()));
+        }
+    };
+
+    private PesquisaConversor() {
+    }
+
+    static Object converter(Object valor, Class<?> tipo, String campo) {
+        if (valor == null || tipo.isInstance(valor)) {
+            return valor;
+        }
+
+        try {
+            Object convertido = converterValor(valor, tipo);
+            if (convertido == null) {
+                throw valorInvalido(valor, campo);
+            }
+            return convertido;
+        } catch (DateTimeParseException | IllegalArgumentException | ArithmeticException e) {
+            throw valorInvalido(valor, campo);
+        }
+    }
+
+    private static Object converterValor(Object valor, Class<?> tipo) {
+        String texto = valor.toString().trim();
+
+        if (String.class.equals(tipo)) {
+            return valor.toString();
+        }
+        if (LocalDate.class.equals(tipo)) {
+            return converterData(texto);
+        }
+        if (LocalDateTime.class.equals(tipo)) {
+            return converterDataHora(texto);
+        }
+        if (tipo.isEnum()) {
+            return ENUMS.get(tipo).get(texto.toUpperCase(Locale.ROOT));
+        }
+        if (Boolean.class.equals(tipo) || boolean.class.equals(tipo)) {
+            return converterBooleano(texto);
+        }
+        if (Number.class.isAssignableFrom(tipo) || tipo.isPrimitive()) {
+            return converterNumero(valor instanceof Number numero ? new BigDecimal(numero.toString()) : new BigDecimal(texto), tipo);
+        }
+
+        return MAPPER.convertValue(valor, tipo);
+    }
+
+    private static LocalDate converterData(String texto) {
+        if (texto.indexOf('/') < 0) {
+            return texto.length() > 10 ? LocalDateTime.parse(texto).toLocalDate() : LocalDate.parse(texto);
+        }
+        return texto.length() > 10 ? LocalDateTime.parse(texto, DATA_HORA).toLocalDate() : LocalDate.parse(texto, DATA);
+    }
+
+    private static LocalDateTime converterDataHora(String texto) {
+        if (texto.indexOf('/') < 0) {
+            return texto.length() > 10 ? LocalDateTime.parse(texto) : LocalDate.parse(texto).atStartOfDay();
+        }
+        return texto.length() > 10 ? LocalDateTime.parse(texto, DATA_HORA) : LocalDate.parse(texto, DATA).atStartOfDay();
+    }
+
+    private static Boolean converterBooleano(String texto) {
+        if ("true".equalsIgnoreCase(texto)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(texto)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private static Object converterNumero(BigDecimal numero, Class<?> tipo) {
+        if (Long.class.equals(tipo) || long.class.equals(tipo)) {
+            return numero.longValueExact();
+        }
+        if (Integer.class.equals(tipo) || int.class.equals(tipo)) {
+            return numero.intValueExact();
+        }
+        if (Short.class.equals(tipo) || short.class.equals(tipo)) {
+            return numero.shortValueExact();
+        }
+        if (Double.class.equals(tipo) || double.class.equals(tipo)) {
+            return numero.doubleValue();
+        }
+        if (Float.class.equals(tipo) || float.class.equals(tipo)) {
+            return numero.floatValue();
+        }
+        if (BigInteger.class.equals(tipo)) {
+            return numero.toBigIntegerExact();
+        }
+        return numero;
+    }
+
+    private static IllegalArgumentException valorInvalido(Object valor, String campo) {
+        return new IllegalArgumentException(MessageUtil.get("pesquisa.valor.invalido", valor, campo));
+    }
+}
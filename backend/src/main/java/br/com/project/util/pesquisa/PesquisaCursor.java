@@ -0,0 +1,60 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.util.MessageUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+class PesquisaCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private record Conteudo(List<String> campos, List<Object> valores) {
+    }
+
+    private PesquisaCursor() {
+    }
+
+    static String codificar(List<String> campos, List<Object> valores) {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(new Conteudo(campos, valores));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static List<Object> decodificar(String cursor, List<String> campos, List<Class<?>> tipos) {
+        try {
+            JsonNode conteudo = MAPPER.readTree(Base64.getUrlDecoder().decode(cursor));
+            JsonNode valoresCursor = conteudo.path("valores");
+            List<String> camposCursor = new ArrayList<>();
+            conteudo.path("campos").forEach(campo -> camposCursor.add(campo.asText()));
+
+            if (!camposCursor.equals(campos) || valoresCursor.size() != campos.size()) {
+                throw cursorInvalido();
+            }
+
+            List<Object> valores = new ArrayList<>(campos.size());
+            for (int i = 0; i < campos.size(); i++) {
+                JsonNode valor = valoresCursor.get(i);
+                valores.add(valor.isNull() ? null : MAPPER.convertValue(valor, tipos.get(i)));
+            }
+            return valores;
+        } catch (IOException | IllegalArgumentException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    private static IllegalArgumentException cursorInvalido() {
+        return new IllegalArgumentException(MessageUtil.get("pesquisa.cursor.invalido"));
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.project.util.pesquisa;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas de uso das pesquisas por combinação de entidade, filtros (campo e comparação) e ordenação.
+ * Os contadores são {@link LongAdder}, então o registro não disputa lock entre as requisições concorrentes.
+ * Somente as pesquisas executadas no banco são contadas, as respondidas por {@link PesquisaCache} não.
+ */
+@Component
+public class PesquisaEstatisticas {
+
+    /** Limites superiores, em milissegundos, das faixas do histograma de duração. A última faixa não tem limite. */
+    static final long[] FAIXAS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    /**
+     * {@code filtrosAgrupados} são os filtros de {@link PesquisaRequest#getGrupo()}, sem a estrutura de E, OU e NAO:
+     * não restringem todas as linhas como os de {@code filtros}, então não compõem índices com eles.
+     */
+    public record Combinacao(@JsonIgnore Class<?> entityClass, String entidade, List<String> filtros, List<String> filtrosAgrupados,
+                             List<String> ordenacao) {
+    }
+
+    public record UsoPesquisa(Combinacao combinacao, long execucoes, long tempoTotalMs, double tempoMedioMs,
+                              long tempoMaximoMs, Map<String, Long> histograma) {
+    }
+
+    private static final class Uso {
+
+        private final LongAdder execucoes = new LongAdder();
+        private final LongAdder tempoTotal = new LongAdder();
+        private final LongAccumulator tempoMaximo = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] faixas = new LongAdder[FAIXAS_MILLIS.length + 1];
+
+        private Uso() {
+            for (int i = 0; i < faixas.length; i++) {
+                faixas[i] = new LongAdder();
+            }
+        }
+
+        private void registrar(long duracaoMillis) {
+            execucoes.increment();
+            tempoTotal.add(duracaoMillis);
+            tempoMaximo.accumulate(duracaoMillis);
+            faixas[faixa(duracaoMillis)].increment();
+        }
+    }
+
+    private final PesquisaMetadados metadados;
+    private final Map<Combinacao, Uso> usos = new ConcurrentHashMap<>();
+
+    public PesquisaEstatisticas(PesquisaMetadados metadados) {
+        this.metadados = metadados;
+    }
+
+    public void registrar(Class<?> entityClass, PesquisaRequest request, long duracaoMillis) {
+        usos.computeIfAbsent(combinacao(entityClass, request), chave -> new Uso()).registrar(duracaoMillis);
+    }
+
+    /**
+     * Combinações registradas, da que consumiu mais tempo no banco para a que consumiu menos.
+     */
+    public List<UsoPesquisa> listar() {
+        return usos.entrySet().stream()
+                .map(entrada -> resumir(entrada.getKey(), entrada.getValue()))
+                .sorted(Comparator.comparingLong(UsoPesquisa::tempoTotalMs).thenComparingLong(UsoPesquisa::execucoes).reversed())
+                .toList();
+    }
+
+    public void limpar() {
+        usos.clear();
+    }
+
+    /**
+     * Os filtros são ordenados porque a ordem em que são informados não muda a consulta; a ordenação, ao contrário, é mantida.
+     */
+    private Combinacao combinacao(Class<?> entityClass, PesquisaRequest request) {
+        List<PesquisaFiltro> agrupados = new ArrayList<>();
+        adicionarFiltros(request.getGrupo(), agrupados);
+
+        List<String> filtros = request.getFiltros() == null ? List.of() : descrever(entityClass, request.getFiltros());
+        List<String> ordenacao = request.getOrdenacao() == null ? List.of() : request.getOrdenacao().stream()
+                .map(item -> metadados.resolverOrdenacao(entityClass, item.getCampo()).caminho() + ":"
+                        + (item.getOrdenacao() == Ordenacao.DESC ? Ordenacao.DESC : Ordenacao.ASC))
+                .toList();
+
+        return new Combinacao(entityClass, entityClass.getSimpleName(), filtros, descrever(entityClass, agrupados), ordenacao);
+    }
+
+    private List<String> descrever(Class<?> entityClass, List<PesquisaFiltro> filtros) {
+        return filtros.stream()
+                .map(filtro -> metadados.resolver(entityClass, filtro.getCampo()).caminho() + ":" + filtro.getComparacao())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static void adicionarFiltros(PesquisaGrupo grupo, List<PesquisaFiltro> filtros) {
+        if (grupo == null) {
+            return;
+        }
+
+        if (grupo.getFiltros() != null) {
+            filtros.addAll(grupo.getFiltros());
+        }
+        if (grupo.getGrupos() != null) {
+            grupo.getGrupos().forEach(subgrupo -> adicionarFiltros(subgrupo, filtros));
+        }
+    }
+
+    private static UsoPesquisa resumir(Combinacao combinacao, Uso uso) {
+        long execucoes = uso.execucoes.sum();
+        long tempoTotal = uso.tempoTotal.sum();
+
+        Map<String, Long> histograma = new LinkedHashMap<>();
+        for (int i = 0; i < uso.faixas.length; i++) {
+            histograma.put(i < FAIXAS_MILLIS.length ? "<=" + FAIXAS_MILLIS[i] + "ms" : ">" + FAIXAS_MILLIS[i - 1] + "ms",
+                    uso.faixas[i].sum());
+        }
+
+        return new UsoPesquisa(combinacao, execucoes, tempoTotal, execucoes == 0 ? 0 : (double) tempoTotal / execucoes,
+                uso.tempoMaximo.get(), histograma);
+    }
+
+    private static int faixa(long duracaoMillis) {
+        int i = 0;
+        while (i < FAIXAS_MILLIS.length && duracaoMillis > FAIXAS_MILLIS[i]) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.exception.TooManyRequestsException;
+import br.com.project.util.MessageUtil;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportação do resultado completo de uma pesquisa. Cada exportação prende uma conexão e uma thread assíncrona enquanto
+ * durar, então no máximo {@code pesquisa.exportacao.simultaneas} rodam ao mesmo tempo e as demais recebem 429. O tempo
+ * máximo da requisição, maior que o das demais requisições assíncronas, vale só para a exportação.
+ */
+@Component
+public class PesquisaExportacao {
+
+    /**
+     * Atributo da requisição com o tempo máximo, em milissegundos, aplicado ao processamento assíncrono da exportação.
+     */
+    public static final String ATRIBUTO_TEMPO_MAXIMO = PesquisaExportacao.class.getName() + ".TEMPO_MAXIMO";
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper csvMapper;
+    private final int simultaneas;
+    private final Semaphore exportacoes;
+    private final long tempoMaximoMillis;
+
+    public PesquisaExportacao(PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                              @Value("${pesquisa.exportacao.simultaneas:2}") int simultaneas,
+                              @Value("${pesquisa.exportacao.tempo-maximo-minutos:30}") long tempoMaximoMinutos) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        this.csvMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.ALWAYS);
+        this.simultaneas = simultaneas;
+        this.exportacoes = new Semaphore(simultaneas);
+        this.tempoMaximoMillis = TimeUnit.MINUTES.toMillis(tempoMaximoMinutos);
+    }
+
+    /**
+     * Valida a pesquisa e reserva uma das exportações simultâneas, liberada quando o corpo termina de ser escrito.
+     *
+     * @throws TooManyRequestsException quando todas as exportações simultâneas estão em andamento
+     */
+    public <T, D> StreamingResponseBody exportar(Pesquisa<T> pesquisa, PesquisaRequest request, Class<T> entityClass,
+                                                 PesquisaProjecao<T, D> projecao, FormatoExportacao formato) {
+        pesquisa.validar(request, entityClass);
+        pesquisa.verificarCusto(request, entityClass);
+
+        if (!exportacoes.tryAcquire()) {
+            throw new TooManyRequestsException(MessageUtil.get("pesquisa.exportacao.excedida", simultaneas));
+        }
+
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            atributos.setAttribute(ATRIBUTO_TEMPO_MAXIMO, tempoMaximoMillis, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        return outputStream -> {
+            try {
+                escrever(pesquisa, request, entityClass, projecao, formato, outputStream);
+            } finally {
+                exportacoes.release();
+            }
+        };
+    }
+
+    private <T, D> void escrever(Pesquisa<T> pesquisa, PesquisaRequest request, Class<T> entityClass,
+                                 PesquisaProjecao<T, D> projecao, FormatoExportacao formato, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        EscritorRegistro escritor = FormatoExportacao.CSV.equals(formato) ? new EscritorCsv(writer) : new EscritorNdjson(writer);
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    pesquisa.exportar(request, entityClass, projecao, registro -> {
+                        try {
+                            escritor.escrever(registro);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+    }
+
+    private interface EscritorRegistro {
+        void escrever(Object registro) throws IOException;
+    }
+
+    private class EscritorNdjson implements EscritorRegistro {
+
+        private final Writer writer;
+
+        EscritorNdjson(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void escrever(Object registro) throws IOException {
+            writer.write(objectMapper.writeValueAsString(registro));
+            writer.write('\n');
+        }
+    }
+
+    private class EscritorCsv implements EscritorRegistro {
+
+        private final Writer writer;
+        private List<String> colunas;
+
+        EscritorCsv(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void escrever(Object registro) throws IOException {
+            JsonNode linha = csvMapper.valueToTree(registro);
+
+            if (colunas == null) {
+                colunas = new ArrayList<>();
+                linha.fieldNames().forEachRemaining(colunas::add);
+                escreverLinha(colunas.iterator());
+            }
+
+            List<String> valores = new ArrayList<>(colunas.size());
+            for (String coluna : colunas) {
+                JsonNode valor = linha.path(coluna);
+                if (valor.isMissingNode() || valor.isNull()) {
+                    valores.add("");
+                } else {
+                    valores.add(valor.isContainerNode() ? csvMapper.writeValueAsString(valor) : valor.asText());
+                }
+            }
+            escreverLinha(valores.iterator());
+        }
+
+        private void escreverLinha(Iterator<String> valores) throws IOException {
+            while (valores.hasNext()) {
+                writer.write(escapar(valores.next()));
+                if (valores.hasNext()) {
+                    writer.write(',');
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private String escapar(String valor) {
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return valor;
+            }
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.project.util.pesquisa;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PesquisaFaceta {
+
+    private String campo;
+
+    private List<Valor> valores;
+
+    @Data
+    @AllArgsConstructor
+    public static class Valor {
+
+        private Object valor;
+
+        private Long quantidade;
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package br.com.project.util.pesquisa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.StringJoiner;
+
+/**
+ * Funções HQL utilizadas pelas comparações {@link Comparacao#TEXTO} e {@link Comparacao#EM} e pelo cursor.
+ * No PostgreSQL a expressão de TEXTO é a mesma dos índices GIN criados no changelog 00000000000001_pesquisa_texto.xml,
+ * nos demais bancos (testes) é utilizado um LIKE equivalente. As comparações de linha do cursor
+ * ({@code (k1, k2) > (?, ?)}) são registradas para cada quantidade de chaves até {@link #MAXIMO_CHAVES_LINHA}: a
+ * Criteria API do Hibernate tipa os parâmetros de uma tupla com o tipo da própria tupla.
+ */
+public class PesquisaFuncoes implements FunctionContributor {
+
+    public static final String TEXTO = "pesquisa_texto";
+    public static final String RELEVANCIA = "pesquisa_texto_relevancia";
+    public static final String EM = "pesquisa_em";
+    public static final int MAXIMO_CHAVES_LINHA = 6;
+
+    private static final String LINHA_MAIOR = "pesquisa_linha_maior_";
+    private static final String LINHA_MENOR = "pesquisa_linha_menor_";
+
+    private static final String DOCUMENTO = "to_tsvector('portuguese', ?1)";
+    private static final String CONSULTA = "plainto_tsquery('portuguese', ?2)";
+    private static final String CONTEM = "upper(?1) like ('%' || upper(?2) || '%')";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry tipos = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        boolean postgres = functionContributions.getDialect() instanceof PostgreSQLDialect;
+
+        functionContributions.getFunctionRegistry().registerPattern(TEXTO,
+                postgres ? "(" + DOCUMENTO + " @@ " + CONSULTA + ")" : "(" + CONTEM + ")",
+                tipos.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(RELEVANCIA,
+                postgres ? "ts_rank(" + DOCUMENTO + ", " + CONSULTA + ")" : "(case when " + CONTEM + " then 1.0 else 0.0 end)",
+                tipos.resolve(StandardBasicTypes.DOUBLE));
+        functionContributions.getFunctionRegistry().registerPattern(EM, "(?1 = any(?2))",
+                tipos.resolve(StandardBasicTypes.BOOLEAN));
+
+        for (int chaves = 2; chaves <= MAXIMO_CHAVES_LINHA; chaves++) {
+            functionContributions.getFunctionRegistry().registerPattern(linha(true, chaves), padraoLinha(chaves, " > "),
+                    tipos.resolve(StandardBasicTypes.BOOLEAN));
+            functionContributions.getFunctionRegistry().registerPattern(linha(false, chaves), padraoLinha(chaves, " < "),
+                    tipos.resolve(StandardBasicTypes.BOOLEAN));
+        }
+    }
+
+    /**
+     * Comparação da linha das {@code chaves} colunas (os primeiros argumentos) com a dos valores (os demais).
+     */
+    public static String linha(boolean maior, int chaves) {
+        return (maior ? LINHA_MAIOR : LINHA_MENOR) + chaves;
+    }
+
+    private static String padraoLinha(int chaves, String operador) {
+        StringJoiner colunas = new StringJoiner(", ", "(", ")");
+        StringJoiner valores = new StringJoiner(", ", "(", ")");
+        for (int i = 1; i <= chaves; i++) {
+            colunas.add("?" + i);
+            valores.add("?" + (chaves + i));
+        }
+        return "(" + colunas + operador + valores + ")";
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.project.util.pesquisa;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PesquisaGrupo {
+
+    @Schema(example = "OU", description = "E exige todos os filtros e grupos, OU exige ao menos um e NAO exige que não sejam todos atendidos")
+    private OperadorLogico operador = OperadorLogico.E;
+
+    private List<PesquisaFiltro> filtros;
+
+    private List<PesquisaGrupo> grupos;
+
+}
@@ -0,0 +1,290 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.util.pesquisa.PesquisaEstatisticas.Combinacao;
+import br.com.project.util.pesquisa.PesquisaEstatisticas.UsoPesquisa;
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sugere índices para as combinações de filtros e ordenação mais custosas registradas em {@link PesquisaEstatisticas}.
+ * CONTEM e COMECA_COM em textos pedem um índice GIN de trigramas, TEXTO o índice GIN da mesma expressão de
+ * {@link PesquisaFuncoes}, e as demais comparações um B-tree por tabela com as colunas de igualdade, depois a primeira
+ * de intervalo ou, sem intervalo, as de ordenação. Os filtros de grupos recebem índices de uma coluna.
+ * No PostgreSQL as sugestões já cobertas por um índice de {@code pg_indexes} são descartadas; nos outros bancos
+ * a verificação não é feita.
+ */
+@Component
+public class PesquisaIndices {
+
+    public enum TipoIndice {
+        BTREE, TRIGRAMA, TEXTO
+    }
+
+    public record SugestaoIndice(String nome, String tabela, List<String> colunas, TipoIndice tipo, long execucoes,
+                                 long tempoTotalMs, List<Combinacao> combinacoes, String changeSet) {
+    }
+
+    private record Indice(String tabela, List<String> colunas, TipoIndice tipo) {
+    }
+
+    private record Coluna(String tabela, String nome) {
+    }
+
+    private static final int TAMANHO_MAXIMO_NOME = 63;
+    private static final int COLUNAS_MAXIMAS_BTREE = 4;
+    private static final Pattern DEFINICAO = Pattern.compile("\\sUSING\\s+(\\w+)\\s*\\((.*)\\)", Pattern.CASE_INSENSITIVE);
+
+    private final EntityManager entityManager;
+    private final PesquisaMetadados metadados;
+    private final PesquisaEstatisticas estatisticas;
+    private final long minimoExecucoes;
+    private final String autor;
+
+    public PesquisaIndices(EntityManager entityManager, PesquisaMetadados metadados, PesquisaEstatisticas estatisticas,
+                           @Value("${pesquisa.estatisticas.minimo-execucoes:50}") long minimoExecucoes,
+                           @Value("${pesquisa.estatisticas.autor-changeset:pesquisa}") String autor) {
+        this.entityManager = entityManager;
+        this.metadados = metadados;
+        this.estatisticas = estatisticas;
+        this.minimoExecucoes = minimoExecucoes;
+        this.autor = autor;
+    }
+
+    /**
+     * Considera as {@code limite} combinações com mais tempo total entre as executadas ao menos {@code minimo-execucoes} vezes.
+     * O mesmo índice sugerido por mais de uma combinação aparece uma vez, com as execuções e o tempo somados.
+     */
+    public List<SugestaoIndice> sugerir(int limite) {
+        Map<String, List<String>> existentes = indicesExistentes();
+        Map<Indice, List<UsoPesquisa>> sugeridos = new LinkedHashMap<>();
+
+        estatisticas.listar().stream()
+                .filter(uso -> uso.execucoes() >= minimoExecucoes)
+                .limit(limite)
+                .forEach(uso -> indices(uso.combinacao()).stream()
+                        .filter(indice -> existentes == null || !coberto(indice, existentes.getOrDefault(indice.tabela(), List.of())))
+                        .forEach(indice -> sugeridos.computeIfAbsent(indice, chave -> new ArrayList<>()).add(uso)));
+
+        return sugeridos.entrySet().stream()
+                .map(entrada -> sugestao(entrada.getKey(), entrada.getValue()))
+                .sorted(Comparator.comparingLong(SugestaoIndice::tempoTotalMs).reversed())
+                .toList();
+    }
+
+    private List<Indice> indices(Combinacao combinacao) {
+        Class<?> entityClass = combinacao.entityClass();
+        Map<String, Set<String>> igualdade = new LinkedHashMap<>();
+        Map<String, Set<String>> intervalo = new LinkedHashMap<>();
+        Set<Indice> indices = new LinkedHashSet<>();
+
+        List<String> filtros = new ArrayList<>(combinacao.filtros());
+        filtros.addAll(combinacao.filtrosAgrupados());
+
+        for (int i = 0; i < filtros.size(); i++) {
+            String filtro = filtros.get(i);
+            int separador = filtro.lastIndexOf(':');
+            String caminho = filtro.substring(0, separador);
+            Comparacao comparacao = Comparacao.valueOf(filtro.substring(separador + 1));
+            Coluna coluna = coluna(entityClass, caminho);
+            if (coluna == null) {
+                continue;
+            }
+
+            boolean agrupado = i >= combinacao.filtros().size();
+            boolean texto = String.class.equals(metadados.resolver(entityClass, caminho).tipo());
+            switch (comparacao) {
+                case TEXTO -> indices.add(new Indice(coluna.tabela(), List.of(coluna.nome()), TipoIndice.TEXTO));
+                case CONTEM, COMECA_COM -> {
+                    if (texto) {
+                        indices.add(new Indice(coluna.tabela(), List.of(coluna.nome()), TipoIndice.TRIGRAMA));
+                    }
+                }
+                case IGUAL, EM, ENTRE, MAIOR, MENOR -> {
+                    if (agrupado) {
+                        // Alternativas de OU são resolvidas por índices separados combinados pelo banco (BitmapOr)
+                        indices.add(new Indice(coluna.tabela(), List.of(coluna.nome()), TipoIndice.BTREE));
+                    } else {
+                        Map<String, Set<String>> colunas = comparacao == Comparacao.IGUAL || comparacao == Comparacao.EM ? igualdade : intervalo;
+                        colunas.computeIfAbsent(coluna.tabela(), tabela -> new LinkedHashSet<>()).add(coluna.nome());
+                    }
+                }
+                case NAO_IGUAL -> {
+                    // Pouco seletiva, o banco não usa índice para ela
+                }
+            }
+        }
+
+        String tabelaRaiz = tabela(entityClass);
+        List<String> ordenacao = combinacao.ordenacao().stream()
+                .map(item -> coluna(entityClass, item.substring(0, item.lastIndexOf(':'))))
+                .takeWhile(coluna -> coluna != null && coluna.tabela().equals(tabelaRaiz))
+                .map(Coluna::nome)
+                .toList();
+
+        Set<String> tabelas = new LinkedHashSet<>(igualdade.keySet());
+        tabelas.addAll(intervalo.keySet());
+        if (!ordenacao.isEmpty()) {
+            tabelas.add(tabelaRaiz);
+        }
+
+        for (String tabela : tabelas) {
+            LinkedHashSet<String> colunas = new LinkedHashSet<>(igualdade.getOrDefault(tabela, Set.of()));
+            Set<String> intervaloTabela = intervalo.getOrDefault(tabela, Set.of());
+            if (!intervaloTabela.isEmpty()) {
+                colunas.add(intervaloTabela.iterator().next());
+            } else if (tabela.equals(tabelaRaiz)) {
+                colunas.addAll(ordenacao);
+            }
+
+            indices.add(new Indice(tabela, colunas.stream().limit(COLUNAS_MAXIMAS_BTREE).toList(), TipoIndice.BTREE));
+        }
+
+        return new ArrayList<>(indices);
+    }
+
+    /**
+     * Coluna do caminho já resolvido por {@link PesquisaMetadados}. O id de uma associação para um é a chave estrangeira
+     * na própria tabela, sem join. Coleções de valores simples e campos de {@link PesquisaAgregado} não são considerados.
+     */
+    private Coluna coluna(Class<?> entityClass, String caminho) {
+        String[] partes = caminho.split("\\.");
+        Class<?> atual = entityClass;
+
+        for (int i = 0; i < partes.length - 1; i++) {
+            EntidadeMetadados.Atributo atributo = metadados.getEntidade(atual).getAtributo(partes[i]);
+            if (!atributo.associacao()) {
+                return null;
+            }
+
+            if (!atributo.colecao() && i == partes.length - 2
+                    && partes[i + 1].equals(metadados.getEntidade(atributo.tipo()).getAtributoId())) {
+                return new Coluna(tabela(atual), persister(atual).getPropertyColumnNames(partes[i])[0]);
+            }
+            atual = atributo.tipo();
+        }
+
+        EntidadeMetadados.Atributo atributo = metadados.getEntidade(atual).getAtributo(partes[partes.length - 1]);
+        if (atributo == null || atributo.colecao()) {
+            return null;
+        }
+
+        return new Coluna(tabela(atual), persister(atual).getPropertyColumnNames(atributo.nome())[0]);
+    }
+
+    private String tabela(Class<?> entityClass) {
+        return persister(entityClass).getTableName();
+    }
+
+    private AbstractEntityPersister persister(Class<?> entityClass) {
+        return (AbstractEntityPersister) sessionFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * Definições dos índices por tabela, ou {@code null} quando o banco não é PostgreSQL.
+     */
+    private Map<String, List<String>> indicesExistentes() {
+        if (!(sessionFactory().getJdbcServices().getDialect() instanceof PostgreSQLDialect)) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = entityManager.createNativeQuery(
+                "select tablename, indexdef from pg_indexes where schemaname = current_schema()").getResultList();
+
+        return linhas.stream().collect(Collectors.groupingBy(linha -> (String) linha[0],
+                Collectors.mapping(linha -> (String) linha[1], Collectors.toList())));
+    }
+
+    /**
+     * Um B-tree cobre a sugestão quando suas primeiras colunas são as mesmas colunas sugeridas, em qualquer ordem.
+     */
+    private static boolean coberto(Indice indice, List<String> definicoes) {
+        for (String definicao : definicoes) {
+            Matcher matcher = DEFINICAO.matcher(definicao);
+            if (!matcher.find()) {
+                continue;
+            }
+
+            String metodo = matcher.group(1).toLowerCase(Locale.ROOT);
+            String expressao = matcher.group(2).replace("\"", "");
+            String coluna = Pattern.quote(indice.colunas().get(0));
+            boolean cobre = switch (indice.tipo()) {
+                case TRIGRAMA -> metodo.equals("gin") && Pattern.compile("\\b" + coluna + "\\)?(::\\w+)?\\s+gin_trgm_ops").matcher(expressao).find();
+                case TEXTO -> metodo.equals("gin") && Pattern.compile("to_tsvector\\([^,]+,\\s*\\(?" + coluna + "\\b").matcher(expressao).find();
+                case BTREE -> metodo.equals("btree") && colunasIniciais(expressao, indice.colunas().size())
+                        .equals(new HashSet<>(indice.colunas()));
+            };
+
+            if (cobre) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Set<String> colunasIniciais(String expressao, int quantidade) {
+        String[] colunas = expressao.split(",");
+        Set<String> iniciais = new HashSet<>();
+        for (int i = 0; i < Math.min(quantidade, colunas.length); i++) {
+            iniciais.add(colunas[i].trim().split("\\s+")[0]);
+        }
+        return iniciais;
+    }
+
+    private SugestaoIndice sugestao(Indice indice, List<UsoPesquisa> usos) {
+        String sufixo = switch (indice.tipo()) {
+            case BTREE -> "";
+            case TRIGRAMA -> "_trgm";
+            case TEXTO -> "_tsv";
+        };
+        String nome = "idx_" + indice.tabela() + "_" + String.join("_", indice.colunas());
+        nome = nome.substring(0, Math.min(nome.length(), TAMANHO_MAXIMO_NOME - sufixo.length())) + sufixo;
+
+        return new SugestaoIndice(nome, indice.tabela(), indice.colunas(), indice.tipo(),
+                usos.stream().mapToLong(UsoPesquisa::execucoes).sum(),
+                usos.stream().mapToLong(UsoPesquisa::tempoTotalMs).sum(),
+                usos.stream().map(UsoPesquisa::combinacao).toList(),
+                changeSet(nome, indice));
+    }
+
+    private String changeSet(String nome, Indice indice) {
+        String coluna = indice.colunas().get(0);
+        String criacao = switch (indice.tipo()) {
+            case BTREE -> "CREATE INDEX " + nome + " ON " + indice.tabela() + " (" + String.join(", ", indice.colunas()) + ")";
+            case TRIGRAMA -> "CREATE INDEX " + nome + " ON " + indice.tabela() + " USING gin (" + coluna + " gin_trgm_ops)";
+            case TEXTO -> "CREATE INDEX " + nome + " ON " + indice.tabela() + " USING gin (to_tsvector('portuguese', " + coluna + "))";
+        };
+
+        return """
+                <changeSet id="%s" author="%s"%s>
+                    <sql>%s</sql>
+
+                    <rollback>
+                        <sql>DROP INDEX %s</sql>
+                    </rollback>
+                </changeSet>
+                """.formatted(nome, autor, indice.tipo() == TipoIndice.BTREE ? "" : " dbms=\"postgresql\"", criacao, nome);
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.project.util.pesquisa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pesquisa que ultrapassou o limiar de {@link PesquisaLentas}, com os SQLs e o tempo de cada consulta executada
+ * (registros, contagem e facetas). O plano é preenchido depois do registro, quando o EXPLAIN ANALYZE executado em
+ * segundo plano termina.
+ */
+@Getter
+public class PesquisaLenta {
+
+    private final LocalDateTime data;
+    private final String entidade;
+    private final PesquisaRequest requisicao;
+    private final List<String> sqls;
+    private final Map<String, Long> tempos;
+
+    @Setter
+    private volatile JsonNode plano;
+
+    @Setter
+    private volatile String erroPlano;
+
+    public PesquisaLenta(LocalDateTime data, String entidade, PesquisaRequest requisicao, List<String> sqls, Map<String, Long> tempos) {
+        this.data = data;
+        this.entidade = entidade;
+        this.requisicao = requisicao;
+        this.sqls = sqls;
+        this.tempos = tempos;
+    }
+}
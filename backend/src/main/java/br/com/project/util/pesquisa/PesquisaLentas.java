@@ -0,0 +1,177 @@
+package br.com.project.util.pesquisa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Guarda as últimas pesquisas que ultrapassaram o limiar de duração em um buffer circular limitado.
+ * Os valores dos filtros e os literais do SQL são removidos antes do registro. Com {@code pesquisa.lentas.explicar=true}
+ * o plano ({@code EXPLAIN (ANALYZE, BUFFERS)}), que executa a consulta lenta de novo, é obtido em uma única thread
+ * própria e no máximo uma vez por forma de consulta a cada {@code pesquisa.lentas.intervalo-plano-minutos}; as
+ * pesquisas da mesma forma registradas nesse intervalo ficam sem plano.
+ */
+@Component
+public class PesquisaLentas implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PesquisaLentas.class);
+
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final String VALOR_REMOVIDO = "?";
+    private static final int TAMANHO_FILA_PLANOS = 10;
+    private static final int FORMAS_EXPLICADAS = 1000;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, Boolean> formasExplicadas;
+    private final long limiarMillis;
+    private final int capacidade;
+    private final boolean explicar;
+    private final Deque<PesquisaLenta> pesquisas;
+
+    public PesquisaLentas(PlatformTransactionManager transactionManager,
+                          @Value("${pesquisa.lentas.limiar-ms:1000}") long limiarMillis,
+                          @Value("${pesquisa.lentas.capacidade:100}") int capacidade,
+                          @Value("${pesquisa.lentas.explicar:false}") boolean explicar,
+                          @Value("${pesquisa.lentas.intervalo-plano-minutos:10}") long intervaloPlanoMinutos) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(TAMANHO_FILA_PLANOS),
+                new CustomizableThreadFactory("pesquisa-lentas-"), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.formasExplicadas = Caffeine.newBuilder()
+                .maximumSize(FORMAS_EXPLICADAS)
+                .expireAfterWrite(Duration.ofMinutes(intervaloPlanoMinutos))
+                .build();
+        this.limiarMillis = limiarMillis;
+        this.capacidade = capacidade;
+        this.explicar = explicar;
+        this.pesquisas = new ArrayDeque<>(capacidade);
+    }
+
+    public boolean isLenta(long duracaoMillis) {
+        return duracaoMillis >= limiarMillis;
+    }
+
+    public void registrar(Class<?> entityClass, PesquisaRequest request, List<String> sqls, Map<String, Long> tempos,
+                          Supplier<JsonNode> plano) {
+        PesquisaLenta pesquisa = new PesquisaLenta(LocalDateTime.now(), entityClass.getSimpleName(), normalizar(request),
+                sqls.stream().map(sql -> LITERAL.matcher(sql).replaceAll(VALOR_REMOVIDO)).toList(), Map.copyOf(tempos));
+
+        synchronized (pesquisas) {
+            if (pesquisas.size() == capacidade) {
+                pesquisas.removeLast();
+            }
+            pesquisas.addFirst(pesquisa);
+        }
+
+        if (explicar) {
+            explicar(pesquisa, plano);
+        }
+    }
+
+    private void explicar(PesquisaLenta pesquisa, Supplier<JsonNode> plano) {
+        String forma = pesquisa.getEntidade() + '|' + String.join("|", pesquisa.getSqls().stream().sorted().toList());
+        if (formasExplicadas.asMap().putIfAbsent(forma, Boolean.TRUE) != null) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    pesquisa.setPlano(transactionTemplate.execute(status -> plano.get()));
+                } catch (RuntimeException e) {
+                    log.warn("Não foi possível obter o plano da pesquisa lenta de {}", pesquisa.getEntidade(), e);
+                    pesquisa.setErroPlano(e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            formasExplicadas.invalidate(forma);
+            log.debug("Plano da pesquisa lenta de {} descartado: fila cheia", pesquisa.getEntidade());
+        }
+    }
+
+    public List<PesquisaLenta> listar() {
+        synchronized (pesquisas) {
+            return new ArrayList<>(pesquisas);
+        }
+    }
+
+    public void limpar() {
+        synchronized (pesquisas) {
+            pesquisas.clear();
+        }
+        formasExplicadas.invalidateAll();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static PesquisaRequest normalizar(PesquisaRequest request) {
+        PesquisaRequest normalizada = new PesquisaRequest();
+        normalizada.setPagina(request.getPagina());
+        normalizada.setQuantidadeRegistros(request.getQuantidadeRegistros());
+        normalizada.setOrdenacao(request.getOrdenacao());
+        normalizada.setPaginacao(request.getPaginacao());
+        normalizada.setContagem(request.getContagem());
+        normalizada.setFacetas(request.getFacetas());
+        normalizada.setExpand(request.getExpand());
+
+        normalizada.setFiltros(normalizar(request.getFiltros()));
+        normalizada.setGrupo(normalizar(request.getGrupo()));
+
+        return normalizada;
+    }
+
+    private static PesquisaGrupo normalizar(PesquisaGrupo grupo) {
+        if (grupo == null) {
+            return null;
+        }
+
+        PesquisaGrupo normalizado = new PesquisaGrupo();
+        normalizado.setOperador(grupo.getOperador());
+        normalizado.setFiltros(normalizar(grupo.getFiltros()));
+        if (grupo.getGrupos() != null) {
+            normalizado.setGrupos(grupo.getGrupos().stream().map(PesquisaLentas::normalizar).toList());
+        }
+        return normalizado;
+    }
+
+    private static List<PesquisaFiltro> normalizar(List<PesquisaFiltro> filtros) {
+        if (filtros == null) {
+            return null;
+        }
+
+        return filtros.stream().map(filtro -> {
+            PesquisaFiltro normalizado = new PesquisaFiltro();
+            normalizado.setCampo(filtro.getCampo());
+            normalizado.setComparacao(filtro.getComparacao());
+            normalizado.setValor(filtro.getValor() == null ? null : VALOR_REMOVIDO);
+            return normalizado;
+        }).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.project.util.pesquisa;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limites aplicados pelo servidor às pesquisas. Os valores de {@code padrao} valem para todas as entidades
+ * e podem ser sobrescritos por entidade em {@code entidades.<NomeDaEntidade>}.
+ */
+@Data
+@ConfigurationProperties(prefix = "pesquisa.limites")
+public class PesquisaLimites {
+
+    private Limites padrao = new Limites(100, 20, Duration.ofSeconds(30), null);
+
+    private Map<String, Limites> entidades = new HashMap<>();
+
+    /**
+     * Timeout do statement JDBC da consulta de exportação. É bem maior que o das pesquisas, porque a exportação percorre
+     * o resultado inteiro, mas ainda impede que uma exportação sem filtros prenda a conexão indefinidamente.
+     */
+    private Duration tempoMaximoExportacao = Duration.ofMinutes(10);
+
+    public Limites getLimites(Class<?> entityClass) {
+        Limites entidade = entidades.entrySet().stream()
+                .filter(entrada -> entrada.getKey().equalsIgnoreCase(entityClass.getSimpleName()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+
+        if (entidade == null) {
+            return padrao;
+        }
+
+        return new Limites(
+                valorOuPadrao(entidade.getQuantidadeMaximaRegistros(), padrao.getQuantidadeMaximaRegistros()),
+                valorOuPadrao(entidade.getQuantidadeMaximaFiltros(), padrao.getQuantidadeMaximaFiltros()),
+                valorOuPadrao(entidade.getTempoMaximo(), padrao.getTempoMaximo()),
+                valorOuPadrao(entidade.getCustoMaximo(), padrao.getCustoMaximo()));
+    }
+
+    private static <V> V valorOuPadrao(V valor, V padrao) {
+        return valor != null ? valor : padrao;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limites {
+
+        private Integer quantidadeMaximaRegistros;
+
+        private Integer quantidadeMaximaFiltros;
+
+        /** Tempo máximo de execução de cada consulta da pesquisa, aplicado como timeout do statement JDBC. */
+        private Duration tempoMaximo;
+
+        /** Custo máximo estimado pelo EXPLAIN do PostgreSQL. Quando não informado a verificação não é executada. */
+        private Double custoMaximo;
+    }
+}
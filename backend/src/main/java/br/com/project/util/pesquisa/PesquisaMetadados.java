@@ -0,0 +1,106 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.util.MessageUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+public class PesquisaMetadados {
+
+    private final Map<Class<?>, EntidadeMetadados> entidades;
+
+    public PesquisaMetadados(EntityManager entityManager) {
+        this.entidades = entityManager.getMetamodel().getEntities().stream()
+                .collect(Collectors.toUnmodifiableMap(EntityType::getJavaType, EntidadeMetadados::new));
+    }
+
+    /**
+     * Entidades lidas por uma pesquisa sobre {@code entityClass} com os caminhos informados (filtros, ordenações, facetas
+     * e associações da projeção), incluindo ela mesma, ordenadas pelo nome. Os campos de {@link PesquisaAgregado} leem
+     * a entidade da sua coleção.
+     */
+    public List<Class<?>> getDependencias(Class<?> entityClass, Collection<String> caminhos) {
+        Set<Class<?>> dependencias = new HashSet<>();
+        dependencias.add(getEntidade(entityClass).getEntityClass());
+
+        for (String caminho : caminhos) {
+            EntidadeMetadados.Agregado agregado = getAgregado(entityClass, caminho);
+            EntidadeMetadados entidade = getEntidade(entityClass);
+
+            for (String parte : (agregado != null ? agregado.colecao() : caminho).split("\\.")) {
+                EntidadeMetadados.Atributo atributo = entidade == null ? null : entidade.getAtributo(parte);
+                if (atributo == null || !atributo.associacao()) {
+                    break;
+                }
+                dependencias.add(atributo.tipo());
+                entidade = entidades.get(atributo.tipo());
+            }
+        }
+
+        return dependencias.stream().sorted(Comparator.comparing(Class::getName)).toList();
+    }
+
+    public EntidadeMetadados getEntidade(Class<?> entityClass) {
+        EntidadeMetadados entidade = entidades.get(entityClass);
+        if (entidade == null) {
+            throw new IllegalArgumentException(MessageUtil.get("entidade.not.found", entityClass.getName()));
+        }
+        return entidade;
+    }
+
+    public CampoMetadados resolver(Class<?> entityClass, String campo) {
+        if (campo == null || campo.isBlank()) {
+            throw campoNaoEncontrado(entityClass, campo);
+        }
+
+        String[] partes = campo.split("\\.");
+        StringBuilder caminho = new StringBuilder(campo.length());
+        EntidadeMetadados entidade = getEntidade(entityClass);
+        EntidadeMetadados.Atributo atributo = null;
+        boolean multivalorado = false;
+        boolean anulavel = false;
+
+        for (int i = 0; i < partes.length; i++) {
+            if (entidade == null) {
+                throw campoNaoEncontrado(entityClass, campo);
+            }
+
+            atributo = entidade.getAtributo(partes[i]);
+            if (atributo == null) {
+                throw campoNaoEncontrado(entityClass, campo);
+            }
+
+            if (i > 0) {
+                caminho.append('.');
+            }
+            caminho.append(atributo.nome());
+            multivalorado |= atributo.colecao();
+            anulavel |= atributo.opcional();
+            entidade = atributo.associacao() ? entidades.get(atributo.tipo()) : null;
+        }
+
+        return new CampoMetadados(caminho.toString(), atributo.tipo(), multivalorado, anulavel);
+    }
+
+    /**
+     * Como {@link #resolver}, mas aceitando também os campos calculados de {@link PesquisaAgregado}, que só podem ser ordenados.
+     */
+    public CampoMetadados resolverOrdenacao(Class<?> entityClass, String campo) {
+        EntidadeMetadados.Agregado agregado = getAgregado(entityClass, campo);
+        return agregado != null
+                ? new CampoMetadados(agregado.nome(), agregado.tipo(), false, !Agregacao.CONTAGEM.equals(agregado.funcao()))
+                : resolver(entityClass, campo);
+    }
+
+    EntidadeMetadados.Agregado getAgregado(Class<?> entityClass, String campo) {
+        return getEntidade(entityClass).getAgregados().get(campo);
+    }
+
+    private static IllegalArgumentException campoNaoEncontrado(Class<?> entityClass, String campo) {
+        return new IllegalArgumentException(MessageUtil.get("campo.not.found", campo, entityClass.getName()));
+    }
+}
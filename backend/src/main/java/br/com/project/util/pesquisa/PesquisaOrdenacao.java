@@ -10,7 +10,7 @@ enum Ordenacao {
 @Data
 public class PesquisaOrdenacao {
 
-    @Schema(example = "id")
+    @Schema(example = "id", description = "Atributo da entidade ou campo calculado: totalEmprestimos e ultimoEmprestimo em livros, emprestimosAtivos em usuários")
     private String campo;
 
     @Schema(example = "ASC")
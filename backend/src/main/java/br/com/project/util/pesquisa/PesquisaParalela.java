@@ -0,0 +1,97 @@
+package br.com.project.util.pesquisa;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Executa consultas auxiliares da pesquisa (contagem, facetas) em paralelo, cada uma em sua própria
+ * transação somente leitura e, portanto, em sua própria conexão. A thread da requisição continua com a sua conexão
+ * enquanto aguarda, então as consultas auxiliares em andamento são limitadas a um quarto de
+ * {@code spring.datasource.hikari.maximum-pool-size}: sem permissão livre, a consulta é executada na hora, na thread
+ * chamadora, em vez de esperar na fila por uma conexão que as requisições seguram. Com
+ * {@code pesquisa.paralela.habilitada=false} (o padrão) a contagem e as facetas da pesquisa são executadas em
+ * sequência, depois da consulta dos registros.
+ */
+@Component
+public class PesquisaParalela implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore conexoes;
+    private final boolean habilitada;
+
+    public PesquisaParalela(PlatformTransactionManager transactionManager, ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${pesquisa.paralela.threads:8}") int threads,
+                            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanhoPool,
+                            @Value("${pesquisa.paralela.habilitada:false}") boolean habilitada) {
+        this.habilitada = habilitada;
+        this.conexoes = new Semaphore(Math.min(threads, tamanhoPool / 4));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 4),
+                new CustomizableThreadFactory("pesquisa-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        meterRegistry.ifAvailable(registry -> new ExecutorServiceMetrics(executor, "pesquisa", List.of()).bindTo(registry));
+    }
+
+    /**
+     * Se a contagem e as facetas da pesquisa devem ser executadas em paralelo. Dentro de uma transação elas continuam
+     * na thread chamadora, pois as outras conexões não enxergariam os dados ainda não confirmados.
+     */
+    public boolean isHabilitada() {
+        return habilitada && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    public <R> CompletableFuture<R> executar(Supplier<R> consulta) {
+        if (!conexoes.tryAcquire()) {
+            try {
+                return CompletableFuture.completedFuture(consulta.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return transactionTemplate.execute(status -> consulta.get());
+                } finally {
+                    conexoes.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            conexoes.release();
+            throw e;
+        }
+    }
+
+    public <R> R aguardar(CompletableFuture<R> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
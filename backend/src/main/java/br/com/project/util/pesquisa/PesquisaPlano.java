@@ -0,0 +1,33 @@
+package br.com.project.util.pesquisa;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class PesquisaPlano {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public JsonNode explicar(TypedQuery<String> query, String opcoes) {
+        List<String> linhas = PesquisaSqlInspector.executarComPrefixo("EXPLAIN (" + opcoes + ", FORMAT JSON) ", query::getResultList);
+
+        try {
+            return MAPPER.readTree(String.join("\n", linhas)).path(0).path("Plan");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long estimarRegistros(TypedQuery<String> query) {
+        return explicar(query, "COSTS").path("Plan Rows").asLong();
+    }
+
+    public double estimarCusto(TypedQuery<String> query) {
+        return explicar(query, "COSTS").path("Total Cost").asDouble();
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.project.util.pesquisa;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Prazo das pesquisas executadas na thread corrente. Cada consulta recebe como timeout o menor valor entre o tempo máximo
+ * da entidade e o tempo restante até o prazo, para que o banco interrompa a consulta quando quem a aguarda desistir.
+ */
+public final class PesquisaPrazo {
+
+    private static final ThreadLocal<Long> PRAZO = new ThreadLocal<>();
+
+    private PesquisaPrazo() {
+    }
+
+    /**
+     * Executa as pesquisas com o prazo informado, em {@link System#nanoTime()}.
+     */
+    public static <R> R executar(long prazoNanos, Supplier<R> execucao) {
+        Long anterior = PRAZO.get();
+        PRAZO.set(anterior == null ? prazoNanos : Math.min(anterior, prazoNanos));
+        try {
+            return execucao.get();
+        } finally {
+            if (anterior == null) {
+                PRAZO.remove();
+            } else {
+                PRAZO.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * O timeout do statement JDBC é em segundos e o Hibernate arredonda o valor da dica, então um restante abaixo de meio
+     * segundo viraria zero, que significa sem timeout. O restante é arredondado para cima, com no mínimo um segundo.
+     */
+    static Duration limitar(Duration tempoMaximo) {
+        Long prazo = PRAZO.get();
+        if (prazo == null) {
+            return tempoMaximo;
+        }
+
+        long restanteMillis = TimeUnit.NANOSECONDS.toMillis(prazo - System.nanoTime());
+        Duration restante = Duration.ofSeconds(Math.max(1, (restanteMillis + 999) / 1000));
+        return tempoMaximo == null || restante.compareTo(tempoMaximo) < 0 ? restante : tempoMaximo;
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.project.util.pesquisa;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.List;
+import java.util.function.Function;
+
+public interface PesquisaProjecao<T, D> {
+
+    /**
+     * As associações selecionadas devem ser obtidas de {@code joins}, que reaproveita os joins já criados pelos
+     * filtros e pelas ordenações da mesma consulta.
+     */
+    List<Selection<?>> selecionar(CriteriaBuilder criteriaBuilder, Root<T> root, Joins joins);
+
+    D converter(Tuple tupla);
+
+    /**
+     * Identifica as seleções da projeção na chave das consultas em cache. Projeções cujas seleções variam
+     * conforme a instância devem sobrescrever este método.
+     */
+    default String getChave() {
+        return getClass().getName();
+    }
+
+    /**
+     * Caminhos das associações lidas pela projeção, cujas alterações devem invalidar os resultados em {@link PesquisaCache}.
+     * A projeção da entidade lê somente as colunas da própria tabela.
+     */
+    default List<String> getAssociacoes() {
+        return List.of();
+    }
+
+    static <T> PesquisaProjecao<T, T> entidade(Class<T> entityClass) {
+        return new PesquisaProjecao<>() {
+
+            @Override
+            public List<Selection<?>> selecionar(CriteriaBuilder criteriaBuilder, Root<T> root, Joins joins) {
+                return List.of(root);
+            }
+
+            @Override
+            public T converter(Tuple tupla) {
+                return tupla.get(0, entityClass);
+            }
+        };
+    }
+
+    interface Joins {
+
+        /**
+         * Reaproveita os joins já criados no mesmo {@link From}: pedidos sobre o mesmo caminho compartilham um único join.
+         * Um join INNER também atende a um pedido LEFT, pois os filtros já excluíram as linhas sem associação.
+         */
+        Joins REAPROVEITAR = new Joins() {
+
+            @Override
+            public Join<?, ?> get(From<?, ?> from, String atributo, JoinType joinType) {
+                for (Join<?, ?> join : from.getJoins()) {
+                    if (join.getAttribute().getName().equals(atributo) && join.getOn() == null
+                            && (join.getJoinType() == joinType || join.getJoinType() == JoinType.INNER)) {
+                        return join;
+                    }
+                }
+                return from.join(atributo, joinType);
+            }
+
+            @Override
+            public Join<?, ?> get(From<?, ?> from, String atributo, JoinType joinType, String nome,
+                                  Function<Join<?, ?>, Predicate> condicao) {
+                for (Join<?, ?> join : from.getJoins()) {
+                    if (join.getAttribute().getName().equals(atributo) && nome.equals(join.getAlias())
+                            && join.getJoinType() == joinType) {
+                        return join;
+                    }
+                }
+
+                Join<?, ?> join = from.join(atributo, joinType);
+                join.alias(nome);
+                join.on(condicao.apply(join));
+                return join;
+            }
+        };
+
+        Join<?, ?> get(From<?, ?> from, String atributo, JoinType joinType);
+
+        /**
+         * Join com uma condição no ON. Como a condição muda as linhas associadas, ele só é reaproveitado por outro
+         * pedido com o mesmo {@code nome}, nunca pelos joins dos filtros.
+         */
+        Join<?, ?> get(From<?, ?> from, String atributo, JoinType joinType, String nome, Function<Join<?, ?>, Predicate> condicao);
+    }
+}
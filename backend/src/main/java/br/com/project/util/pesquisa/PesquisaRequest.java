@@ -16,6 +16,28 @@ public class PesquisaRequest {
 
     private List<PesquisaFiltro> filtros;
 
+    @Schema(description = "Grupos de filtros combinados por E, OU e NAO, aplicados junto com os filtros em uma única consulta")
+    private PesquisaGrupo grupo;
+
     private List<PesquisaOrdenacao> ordenacao;
 
+    @Schema(example = "PAGINA", description = "PAGINA utiliza o número da página, CURSOR continua a partir do cursor retornado na pesquisa anterior")
+    private Paginacao paginacao = Paginacao.PAGINA;
+
+    @Schema(description = "Cursor retornado em proximo_cursor pela pesquisa anterior")
+    private String cursor;
+
+    @Schema(example = "EXATA", description = "EXATA executa uma consulta de contagem, JANELA conta na mesma consulta dos registros, ESTIMADA utiliza a estimativa do banco e NENHUMA não conta os registros. A contagem e as facetas são executadas em outras conexões ao mesmo tempo que a consulta dos registros")
+    private Contagem contagem = Contagem.EXATA;
+
+    @Schema(example = "[\"categoria.nome\", \"emprestimos.status\"]", description = "Campos cujas quantidades de registros por valor (até 100 valores) serão retornadas em facetas, considerando os mesmos filtros")
+    private List<String> facetas;
+
+    @Schema(example = "[\"categoria\"]", description = "Associações que devem ser carregadas e retornadas. Quando não informado, todas são retornadas")
+    private List<String> expand;
+
+    public boolean isPaginacaoPorCursor() {
+        return Paginacao.CURSOR.equals(paginacao);
+    }
+
 }
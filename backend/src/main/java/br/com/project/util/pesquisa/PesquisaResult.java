@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Data
 @Builder
@@ -17,4 +18,23 @@ public class PesquisaResult<T> {
 
     private List<T> registros;
 
+    @JsonProperty("proximo_cursor")
+    private String proximoCursor;
+
+    @JsonProperty("possui_proxima_pagina")
+    private Boolean possuiProximaPagina;
+
+    private List<PesquisaFaceta> facetas;
+
+    public <D> PesquisaResult<D> mapear(Function<T, D> conversor) {
+        return PesquisaResult.<D>builder()
+                .pagina(pagina)
+                .totalRegistros(totalRegistros)
+                .registros(registros.stream().map(conversor).toList())
+                .proximoCursor(proximoCursor)
+                .possuiProximaPagina(possuiProximaPagina)
+                .facetas(facetas)
+                .build();
+    }
+
 }
@@ -0,0 +1,66 @@
+package br.com.project.util.pesquisa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public class PesquisaSqlInspector implements StatementInspector {
+
+    private static final ThreadLocal<String> PREFIXO = new ThreadLocal<>();
+    private static final ThreadLocal<List<String>> CAPTURA = new ThreadLocal<>();
+
+    static <R> R executarComPrefixo(String prefixo, Supplier<R> execucao) {
+        PREFIXO.set(prefixo);
+        try {
+            return execucao.get();
+        } finally {
+            PREFIXO.remove();
+        }
+    }
+
+    static <R> R capturar(List<String> sqls, Supplier<R> execucao) {
+        List<String> anterior = CAPTURA.get();
+        CAPTURA.set(sqls);
+        try {
+            return execucao.get();
+        } finally {
+            CAPTURA.set(anterior);
+            if (anterior != null) {
+                anterior.addAll(sqls);
+            }
+        }
+    }
+
+    /**
+     * A consulta executada em outra thread registra os seus SQLs na captura da thread corrente, que precisa aceitar
+     * inclusões concorrentes.
+     */
+    static <R> Supplier<R> propagar(Supplier<R> execucao) {
+        List<String> captura = CAPTURA.get();
+        if (captura == null) {
+            return execucao;
+        }
+
+        return () -> {
+            List<String> anterior = CAPTURA.get();
+            CAPTURA.set(captura);
+            try {
+                return execucao.get();
+            } finally {
+                CAPTURA.set(anterior);
+            }
+        };
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captura = CAPTURA.get();
+        if (captura != null) {
+            captura.add(sql);
+        }
+
+        String prefixo = PREFIXO.get();
+        return prefixo == null ? sql : prefixo + sql;
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.project.util.pesquisa;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão dos dados de cada entidade, incrementada pelos services a cada gravação ou exclusão.
+ * Faz parte da chave do {@link PesquisaCache}, então uma gravação torna inalcançáveis os resultados anteriores.
+ */
+@Component
+public class PesquisaVersoes {
+
+    private final Map<Class<?>, AtomicLong> versoes = new ConcurrentHashMap<>();
+
+    public long getVersao(Class<?> entityClass) {
+        return versoes.computeIfAbsent(entityClass, classe -> new AtomicLong()).get();
+    }
+
+    public void incrementar(Class<?> entityClass) {
+        versoes.computeIfAbsent(entityClass, classe -> new AtomicLong()).incrementAndGet();
+    }
+}
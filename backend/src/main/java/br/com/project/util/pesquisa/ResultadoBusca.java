@@ -11,6 +11,8 @@ public class ResultadoBusca<T> {
 
     private List<T> registros;
     private Long totalRegistros;
+    private String proximoCursor;
+    private Boolean possuiProximaPagina;
 
     public ResultadoBusca(List<T> registros, Long totalRegistros) {
         this.registros = registros;
@@ -0,0 +1,154 @@
+package br.com.project.util.recomendacao;
+
+import br.com.project.repository.EmprestimoRepository;
+import br.com.project.util.TransacaoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link GrafoCoEmprestimos} compartilhado pela aplicação. Como {@link PopularidadeLivros}, é carregado uma vez na
+ * inicialização, lendo como stream os pares distintos de usuário e livro dos empréstimos, e recebe os empréstimos
+ * criados após o commit. Enquanto não estiver carregado, as consultas retornam listas vazias. Quando as diferenças pedem
+ * a reconstrução da matriz, ela é feita em uma thread própria a partir de uma cópia dos históricos, e o lock de escrita
+ * só é usado para copiar e para trocar a matriz.
+ */
+@Component
+public class CoEmprestimosLivros implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CoEmprestimosLivros.class);
+
+    private final EmprestimoRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService compactador = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("co-emprestimos-"));
+    private final GrafoCoEmprestimos grafo;
+    private boolean carregado;
+
+    public CoEmprestimosLivros(EmprestimoRepository repository, PlatformTransactionManager transactionManager,
+                               @Value("${recomendacao.co-emprestimos.proporcao-compactacao:0.25}") double proporcaoCompactacao) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.grafo = new GrafoCoEmprestimos(proporcaoCompactacao);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        carregar();
+    }
+
+    public void carregar() {
+        lock.writeLock().lock();
+        try {
+            carregado = false;
+            grafo.limpar();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<EmprestimoRepository.UsuarioLivro> pares = repository.streamUsuariosLivros()) {
+                    pares.forEach(par -> grafo.adicionarHistorico(par.getIdUsuario(), par.getIdLivro()));
+                }
+            });
+            grafo.compactar();
+            carregado = true;
+            log.info("Co-empréstimos de livros carregados");
+        } catch (RuntimeException e) {
+            grafo.limpar();
+            log.error("Não foi possível carregar os co-empréstimos de livros", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> tambemEmprestados(Long idLivro, int quantidade) {
+        return consultar(() -> grafo.tambemEmprestados(idLivro, quantidade));
+    }
+
+    public List<Long> recomendar(Long idUsuario, int quantidade) {
+        return consultar(() -> grafo.recomendar(idUsuario, quantidade));
+    }
+
+    public void registrarEmprestimo(Long idUsuario, Long idLivro) {
+        TransacaoUtil.aposCommit(() -> {
+            GrafoCoEmprestimos.Compactacao compactacao = null;
+            lock.writeLock().lock();
+            try {
+                if (carregado) {
+                    grafo.registrarEmprestimo(idUsuario, idLivro);
+                    if (grafo.isCompactacaoNecessaria()) {
+                        compactacao = grafo.iniciarCompactacao();
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            if (compactacao != null) {
+                compactar(compactacao);
+            }
+        });
+    }
+
+    public void removerLivro(Long idLivro) {
+        TransacaoUtil.aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (carregado) {
+                    grafo.removerLivro(idLivro);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void compactar(GrafoCoEmprestimos.Compactacao compactacao) {
+        compactador.execute(() -> {
+            MatrizCoEmprestimos matriz = null;
+            try {
+                matriz = compactacao.construir();
+            } catch (RuntimeException e) {
+                log.error("Não foi possível reconstruir a matriz de co-empréstimos", e);
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (matriz == null) {
+                    grafo.cancelarCompactacao(compactacao);
+                } else {
+                    grafo.concluirCompactacao(compactacao, matriz);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private List<Long> consultar(Supplier<long[]> consulta) {
+        lock.readLock().lock();
+        try {
+            return carregado ? Arrays.stream(consulta.get()).boxed().toList() : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        compactador.shutdownNow();
+    }
+}
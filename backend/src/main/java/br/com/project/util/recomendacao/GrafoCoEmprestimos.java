@@ -0,0 +1,431 @@
+package br.com.project.util.recomendacao;
+
+import java.util.Arrays;
+
+/**
+ * Co-empréstimos entre livros para recomendações do tipo "quem emprestou este livro também emprestou". Guarda o
+ * histórico de livros distintos de cada usuário e a {@link MatrizCoEmprestimos} construída a partir deles; os
+ * empréstimos registrados depois da construção entram em uma matriz de diferenças por linha, somada à CSR nas
+ * consultas, até que ultrapassem {@code proporcaoCompactacao} das células da CSR e a matriz seja reconstruída.
+ * A reconstrução pode ser feita fora do grafo, a partir de uma {@link Compactacao}.
+ * Livros e usuários são convertidos em índices densos, então todas as estruturas são vetores de {@code int}.
+ * Não é thread-safe.
+ */
+public final class GrafoCoEmprestimos {
+
+    private static final int AUSENTE = -1;
+    private static final int CAPACIDADE_INICIAL = 64;
+    private static final int MINIMO_DIFERENCAS = 4096;
+
+    /**
+     * Históricos no início de uma reconstrução da CSR. As linhas são as mesmas do grafo: os empréstimos seguintes só
+     * escrevem além dos tamanhos copiados ou trocam a linha por uma cópia maior, então {@link #construir()} pode ser
+     * executado em outra thread, sem o grafo.
+     */
+    public static final class Compactacao {
+
+        private final int quantidadeLivros;
+        private final int[][] historicos;
+        private final int[] tamanhos;
+        private final int quantidadeUsuarios;
+
+        private Compactacao(int quantidadeLivros, int[][] historicos, int[] tamanhos, int quantidadeUsuarios) {
+            this.quantidadeLivros = quantidadeLivros;
+            this.historicos = historicos;
+            this.tamanhos = tamanhos;
+            this.quantidadeUsuarios = quantidadeUsuarios;
+        }
+
+        public MatrizCoEmprestimos construir() {
+            return MatrizCoEmprestimos.construir(quantidadeLivros, historicos, tamanhos, quantidadeUsuarios);
+        }
+    }
+
+    private final double proporcaoCompactacao;
+
+    private final MapaLongInt indicesLivros = new MapaLongInt(CAPACIDADE_INICIAL);
+    private long[] idsLivros = new long[CAPACIDADE_INICIAL];
+    private boolean[] removidos = new boolean[CAPACIDADE_INICIAL];
+    private int quantidadeLivros;
+
+    private final MapaLongInt indicesUsuarios = new MapaLongInt(CAPACIDADE_INICIAL);
+    private int[][] historicos = new int[CAPACIDADE_INICIAL][];
+    private int[] tamanhosHistoricos = new int[CAPACIDADE_INICIAL];
+    private int quantidadeUsuarios;
+
+    private MatrizCoEmprestimos matriz = MatrizCoEmprestimos.VAZIA;
+    private int[][] colunasDiferencas = new int[CAPACIDADE_INICIAL][];
+    private int[][] valoresDiferencas = new int[CAPACIDADE_INICIAL][];
+    private int[] tamanhosDiferencas = new int[CAPACIDADE_INICIAL];
+    private int quantidadeDiferencas;
+    private Compactacao compactacao;
+
+    public GrafoCoEmprestimos(double proporcaoCompactacao) {
+        this.proporcaoCompactacao = proporcaoCompactacao;
+    }
+
+    public int getQuantidadeDiferencas() {
+        return quantidadeDiferencas;
+    }
+
+    /**
+     * Acrescenta o livro ao histórico do usuário sem atualizar a matriz. Usado na carga, seguida de {@link #compactar()}.
+     */
+    public void adicionarHistorico(long idUsuario, long idLivro) {
+        int usuario = indiceUsuario(idUsuario);
+        int livro = indiceLivro(idLivro);
+        if (!contem(usuario, livro)) {
+            adicionar(usuario, livro);
+        }
+    }
+
+    /**
+     * Registra um empréstimo novo. Um usuário que empresta de novo o mesmo livro não altera os co-empréstimos.
+     */
+    public void registrarEmprestimo(long idUsuario, long idLivro) {
+        int usuario = indiceUsuario(idUsuario);
+        int livro = indiceLivro(idLivro);
+        if (contem(usuario, livro)) {
+            return;
+        }
+
+        for (int i = 0; i < tamanhosHistoricos[usuario]; i++) {
+            int outro = historicos[usuario][i];
+            somarDiferenca(livro, outro);
+            somarDiferenca(outro, livro);
+        }
+        adicionar(usuario, livro);
+    }
+
+    /**
+     * Remove o livro das respostas. Suas células continuam na CSR e nos históricos até a próxima carga, mas ele deixa de
+     * ser listado e recomendado.
+     */
+    public void removerLivro(long idLivro) {
+        int livro = indicesLivros.get(idLivro, AUSENTE);
+        if (livro != AUSENTE) {
+            removidos[livro] = true;
+        }
+    }
+
+    /**
+     * Se as diferenças ultrapassaram {@code proporcaoCompactacao} das células da CSR e nenhuma reconstrução está em andamento.
+     */
+    public boolean isCompactacaoNecessaria() {
+        return compactacao == null
+                && quantidadeDiferencas > Math.max(MINIMO_DIFERENCAS, matriz.quantidadeValores() * proporcaoCompactacao);
+    }
+
+    /**
+     * Reconstrói a CSR com todos os históricos e descarta as diferenças.
+     */
+    public void compactar() {
+        Compactacao iniciada = iniciarCompactacao();
+        concluirCompactacao(iniciada, iniciada.construir());
+    }
+
+    /**
+     * Copia somente os vetores de históricos e de tamanhos, em tempo proporcional ao número de usuários.
+     */
+    public Compactacao iniciarCompactacao() {
+        compactacao = new Compactacao(quantidadeLivros, Arrays.copyOf(historicos, quantidadeUsuarios),
+                Arrays.copyOf(tamanhosHistoricos, quantidadeUsuarios), quantidadeUsuarios);
+        return compactacao;
+    }
+
+    /**
+     * Troca a CSR pela construída a partir de {@code concluida} e refaz as diferenças somente com os livros acrescentados
+     * aos históricos depois dela. Retorna {@code false}, sem alterar o grafo, quando a compactação foi descartada por
+     * {@link #limpar()} ou {@link #cancelarCompactacao}.
+     */
+    public boolean concluirCompactacao(Compactacao concluida, MatrizCoEmprestimos nova) {
+        if (concluida != compactacao) {
+            return false;
+        }
+
+        compactacao = null;
+        matriz = nova;
+        descartarDiferencas();
+        for (int usuario = 0; usuario < quantidadeUsuarios; usuario++) {
+            int compactados = usuario < concluida.quantidadeUsuarios ? concluida.tamanhos[usuario] : 0;
+            for (int i = compactados; i < tamanhosHistoricos[usuario]; i++) {
+                for (int j = 0; j < i; j++) {
+                    somarDiferenca(historicos[usuario][i], historicos[usuario][j]);
+                    somarDiferenca(historicos[usuario][j], historicos[usuario][i]);
+                }
+            }
+        }
+        return true;
+    }
+
+    public void cancelarCompactacao(Compactacao cancelada) {
+        if (cancelada == compactacao) {
+            compactacao = null;
+        }
+    }
+
+    public void limpar() {
+        descartarDiferencas();
+        matriz = MatrizCoEmprestimos.VAZIA;
+        compactacao = null;
+        Arrays.fill(removidos, 0, quantidadeLivros, false);
+
+        indicesLivros.clear();
+        indicesUsuarios.clear();
+        quantidadeLivros = 0;
+        quantidadeUsuarios = 0;
+    }
+
+    /**
+     * Número de usuários que emprestaram os dois livros.
+     */
+    public int getCoEmprestimos(long idLivro, long outroIdLivro) {
+        int livro = indicesLivros.get(idLivro, AUSENTE);
+        int outro = indicesLivros.get(outroIdLivro, AUSENTE);
+        if (livro == AUSENTE || outro == AUSENTE || removidos[livro] || removidos[outro]) {
+            return 0;
+        }
+
+        int posicao = matriz.posicao(livro, outro);
+        int valor = posicao == AUSENTE ? 0 : matriz.valor(posicao);
+        for (int i = 0; i < tamanhosDiferencas[livro]; i++) {
+            if (colunasDiferencas[livro][i] == outro) {
+                valor += valoresDiferencas[livro][i];
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Ids dos livros mais emprestados pelos usuários que emprestaram o livro informado, do maior número de usuários
+     * em comum para o menor e, no empate, pelo id.
+     */
+    public long[] tambemEmprestados(long idLivro, int quantidade) {
+        int livro = indicesLivros.get(idLivro, AUSENTE);
+        if (livro == AUSENTE || removidos[livro]) {
+            return new long[0];
+        }
+
+        int inicio = matriz.inicio(livro);
+        int tamanhoMatriz = matriz.fim(livro) - inicio;
+        int[] candidatos = new int[tamanhoMatriz + tamanhosDiferencas[livro]];
+        int[] pontuacoes = new int[candidatos.length];
+        for (int i = 0; i < tamanhoMatriz; i++) {
+            candidatos[i] = matriz.coluna(inicio + i);
+            pontuacoes[i] = matriz.valor(inicio + i);
+        }
+
+        int tamanho = tamanhoMatriz;
+        for (int i = 0; i < tamanhosDiferencas[livro]; i++) {
+            int posicao = matriz.posicao(livro, colunasDiferencas[livro][i]);
+            if (posicao == AUSENTE) {
+                candidatos[tamanho] = colunasDiferencas[livro][i];
+                pontuacoes[tamanho++] = valoresDiferencas[livro][i];
+            } else {
+                pontuacoes[posicao - inicio] += valoresDiferencas[livro][i];
+            }
+        }
+
+        return selecionar(candidatos, pontuacoes, tamanho, quantidade);
+    }
+
+    /**
+     * Recomendações para o usuário: a pontuação de cada livro é a soma dos seus co-empréstimos com os livros do
+     * histórico do usuário, e os livros que ele já emprestou são descartados.
+     */
+    public long[] recomendar(long idUsuario, int quantidade) {
+        int usuario = indicesUsuarios.get(idUsuario, AUSENTE);
+        if (usuario == AUSENTE) {
+            return new long[0];
+        }
+
+        int[] acumulador = new int[quantidadeLivros];
+        int[] tocados = new int[quantidadeLivros];
+        int quantidadeTocados = 0;
+        for (int i = 0; i < tamanhosHistoricos[usuario]; i++) {
+            acumulador[historicos[usuario][i]] = AUSENTE;
+        }
+
+        for (int i = 0; i < tamanhosHistoricos[usuario]; i++) {
+            int livro = historicos[usuario][i];
+            for (int posicao = matriz.inicio(livro); posicao < matriz.fim(livro); posicao++) {
+                quantidadeTocados = acumular(acumulador, tocados, quantidadeTocados, matriz.coluna(posicao), matriz.valor(posicao));
+            }
+            for (int j = 0; j < tamanhosDiferencas[livro]; j++) {
+                quantidadeTocados = acumular(acumulador, tocados, quantidadeTocados, colunasDiferencas[livro][j],
+                        valoresDiferencas[livro][j]);
+            }
+        }
+
+        int[] pontuacoes = new int[quantidadeTocados];
+        for (int i = 0; i < quantidadeTocados; i++) {
+            pontuacoes[i] = acumulador[tocados[i]];
+        }
+        return selecionar(tocados, pontuacoes, quantidadeTocados, quantidade);
+    }
+
+    private static int acumular(int[] acumulador, int[] tocados, int quantidadeTocados, int livro, int valor) {
+        if (acumulador[livro] == AUSENTE) {
+            return quantidadeTocados;
+        }
+        if (acumulador[livro] == 0) {
+            tocados[quantidadeTocados++] = livro;
+        }
+        acumulador[livro] += valor;
+        return quantidadeTocados;
+    }
+
+    /**
+     * Os {@code quantidade} candidatos de maior pontuação, por um heap mínimo limitado: o topo é o pior selecionado
+     * até o momento e só é trocado por um candidato melhor. Os livros removidos são ignorados.
+     */
+    private long[] selecionar(int[] candidatos, int[] pontuacoes, int tamanho, int quantidade) {
+        int limite = Math.min(quantidade, tamanho);
+        int[] heap = new int[limite];
+        int tamanhoHeap = 0;
+
+        for (int i = 0; i < tamanho; i++) {
+            if (removidos[candidatos[i]]) {
+                continue;
+            }
+            if (tamanhoHeap < limite) {
+                heap[tamanhoHeap] = i;
+                subir(heap, tamanhoHeap++, candidatos, pontuacoes);
+            } else if (limite > 0 && melhor(i, heap[0], candidatos, pontuacoes)) {
+                heap[0] = i;
+                descer(heap, tamanhoHeap, candidatos, pontuacoes);
+            }
+        }
+
+        long[] ids = new long[tamanhoHeap];
+        while (tamanhoHeap > 0) {
+            ids[tamanhoHeap - 1] = idsLivros[candidatos[heap[0]]];
+            heap[0] = heap[--tamanhoHeap];
+            descer(heap, tamanhoHeap, candidatos, pontuacoes);
+        }
+        return ids;
+    }
+
+    private boolean melhor(int i, int j, int[] candidatos, int[] pontuacoes) {
+        return pontuacoes[i] > pontuacoes[j]
+                || (pontuacoes[i] == pontuacoes[j] && idsLivros[candidatos[i]] < idsLivros[candidatos[j]]);
+    }
+
+    private void subir(int[] heap, int posicao, int[] candidatos, int[] pontuacoes) {
+        while (posicao > 0) {
+            int pai = (posicao - 1) >>> 1;
+            if (!melhor(heap[pai], heap[posicao], candidatos, pontuacoes)) {
+                return;
+            }
+            trocar(heap, pai, posicao);
+            posicao = pai;
+        }
+    }
+
+    private void descer(int[] heap, int tamanho, int[] candidatos, int[] pontuacoes) {
+        int posicao = 0;
+        while (true) {
+            int pior = posicao;
+            for (int filho = 2 * posicao + 1; filho <= 2 * posicao + 2 && filho < tamanho; filho++) {
+                if (melhor(heap[pior], heap[filho], candidatos, pontuacoes)) {
+                    pior = filho;
+                }
+            }
+            if (pior == posicao) {
+                return;
+            }
+            trocar(heap, posicao, pior);
+            posicao = pior;
+        }
+    }
+
+    private static void trocar(int[] heap, int i, int j) {
+        int aux = heap[i];
+        heap[i] = heap[j];
+        heap[j] = aux;
+    }
+
+    private boolean contem(int usuario, int livro) {
+        for (int i = 0; i < tamanhosHistoricos[usuario]; i++) {
+            if (historicos[usuario][i] == livro) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void adicionar(int usuario, int livro) {
+        int tamanho = tamanhosHistoricos[usuario];
+        if (historicos[usuario] == null) {
+            historicos[usuario] = new int[4];
+        } else if (tamanho == historicos[usuario].length) {
+            historicos[usuario] = Arrays.copyOf(historicos[usuario], tamanho * 2);
+        }
+        historicos[usuario][tamanho] = livro;
+        tamanhosHistoricos[usuario]++;
+    }
+
+    private void descartarDiferencas() {
+        Arrays.fill(colunasDiferencas, 0, quantidadeLivros, null);
+        Arrays.fill(valoresDiferencas, 0, quantidadeLivros, null);
+        Arrays.fill(tamanhosDiferencas, 0, quantidadeLivros, 0);
+        quantidadeDiferencas = 0;
+    }
+
+    private void somarDiferenca(int livro, int outro) {
+        int tamanho = tamanhosDiferencas[livro];
+        for (int i = 0; i < tamanho; i++) {
+            if (colunasDiferencas[livro][i] == outro) {
+                valoresDiferencas[livro][i]++;
+                return;
+            }
+        }
+
+        if (colunasDiferencas[livro] == null) {
+            colunasDiferencas[livro] = new int[4];
+            valoresDiferencas[livro] = new int[4];
+        } else if (tamanho == colunasDiferencas[livro].length) {
+            colunasDiferencas[livro] = Arrays.copyOf(colunasDiferencas[livro], tamanho * 2);
+            valoresDiferencas[livro] = Arrays.copyOf(valoresDiferencas[livro], tamanho * 2);
+        }
+        colunasDiferencas[livro][tamanho] = outro;
+        valoresDiferencas[livro][tamanho] = 1;
+        tamanhosDiferencas[livro]++;
+        quantidadeDiferencas++;
+    }
+
+    private int indiceLivro(long idLivro) {
+        int indice = indicesLivros.get(idLivro, AUSENTE);
+        if (indice != AUSENTE) {
+            return indice;
+        }
+
+        if (quantidadeLivros == idsLivros.length) {
+            int capacidade = quantidadeLivros * 2;
+            idsLivros = Arrays.copyOf(idsLivros, capacidade);
+            removidos = Arrays.copyOf(removidos, capacidade);
+            colunasDiferencas = Arrays.copyOf(colunasDiferencas, capacidade);
+            valoresDiferencas = Arrays.copyOf(valoresDiferencas, capacidade);
+            tamanhosDiferencas = Arrays.copyOf(tamanhosDiferencas, capacidade);
+        }
+        idsLivros[quantidadeLivros] = idLivro;
+        indicesLivros.put(idLivro, quantidadeLivros);
+        return quantidadeLivros++;
+    }
+
+    private int indiceUsuario(long idUsuario) {
+        int indice = indicesUsuarios.get(idUsuario, AUSENTE);
+        if (indice != AUSENTE) {
+            return indice;
+        }
+
+        if (quantidadeUsuarios == historicos.length) {
+            historicos = Arrays.copyOf(historicos, quantidadeUsuarios * 2);
+            tamanhosHistoricos = Arrays.copyOf(tamanhosHistoricos, quantidadeUsuarios * 2);
+        }
+        historicos[quantidadeUsuarios] = null;
+        tamanhosHistoricos[quantidadeUsuarios] = 0;
+        indicesUsuarios.put(idUsuario, quantidadeUsuarios);
+        return quantidadeUsuarios++;
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.project.util.recomendacao;
+
+import br.com.project.repository.LivroRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Lote que pré-calcula as recomendações de todos os usuários em {@link RecomendacoesPrecalculadas}: os livros mais
+ * emprestados que o usuário ainda não emprestou. O ranking é lido uma vez; os usuários são divididos em blocos de ids
+ * consecutivos, processados por um pool limitado, e cada bloco lê os históricos dos seus usuários em uma única
+ * consulta e grava as recomendações em batch. A geração só é ativada se todos os blocos terminarem.
+ * <p>
+ * Todas as instâncias da aplicação agendam o lote. No PostgreSQL a execução fica sob um advisory lock de sessão, obtido
+ * com {@code pg_try_advisory_lock} em uma conexão reservada enquanto o lote roda: a instância que não o obtém desiste, e
+ * o banco o libera sozinho se a instância que o detém cair. Nos outros bancos vale só a guarda da própria instância.
+ */
+@Component
+public class LoteRecomendacoes {
+
+    private static final Logger log = LoggerFactory.getLogger(LoteRecomendacoes.class);
+
+    private static final long CHAVE_BLOQUEIO = LoteRecomendacoes.class.getName().hashCode();
+
+    private final LivroRepository livroRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecomendacoesPrecalculadas precalculadas;
+    private final int threads;
+    private final int tamanhoBloco;
+    private final AtomicBoolean executando = new AtomicBoolean();
+
+    public LoteRecomendacoes(LivroRepository livroRepository, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, RecomendacoesPrecalculadas precalculadas,
+                             @Value("${recomendacao.lote.threads:4}") int threads,
+                             @Value("${recomendacao.lote.tamanho-bloco:1000}") int tamanhoBloco) {
+        this.livroRepository = livroRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.precalculadas = precalculadas;
+        this.threads = threads;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    @Scheduled(cron = "${recomendacao.lote.cron:0 0 3 * * *}")
+    public void agendar() {
+        executar();
+    }
+
+    /**
+     * Executa o lote, a menos que já esteja em execução nesta ou em outra instância. Retorna se a nova geração foi
+     * ativada.
+     */
+    public boolean executar() {
+        if (!executando.compareAndSet(false, true)) {
+            log.warn("O lote de recomendações já está em execução");
+            return false;
+        }
+
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexao -> {
+                if (!bloquear(conexao)) {
+                    log.warn("O lote de recomendações já está em execução em outra instância");
+                    return false;
+                }
+
+                try {
+                    return gerar();
+                } finally {
+                    desbloquear(conexao);
+                }
+            }));
+        } finally {
+            executando.set(false);
+        }
+    }
+
+    private static boolean bloquear(Connection conexao) throws SQLException {
+        return !postgres(conexao) || consultarBloqueio(conexao, "SELECT pg_try_advisory_lock(?)");
+    }
+
+    private static void desbloquear(Connection conexao) throws SQLException {
+        if (postgres(conexao)) {
+            consultarBloqueio(conexao, "SELECT pg_advisory_unlock(?)");
+        }
+    }
+
+    private static boolean postgres(Connection conexao) throws SQLException {
+        return "PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName());
+    }
+
+    private static boolean consultarBloqueio(Connection conexao, String sql) throws SQLException {
+        try (PreparedStatement statement = conexao.prepareStatement(sql)) {
+            statement.setLong(1, CHAVE_BLOQUEIO);
+            try (ResultSet resultado = statement.executeQuery()) {
+                return resultado.next() && resultado.getBoolean(1);
+            }
+        }
+    }
+
+    private boolean gerar() {
+        long inicio = System.currentTimeMillis();
+        long geracao = precalculadas.iniciarGeracao();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("recomendacao-lote-"));
+        try {
+            long[] ranking = lerRanking();
+            long[] usuarios = jdbcTemplate.queryForList("SELECT id FROM usuarios ORDER BY id", Long.class).stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+
+            List<Future<?>> blocos = new ArrayList<>();
+            for (int i = 0; i < usuarios.length; i += tamanhoBloco) {
+                long[] bloco = Arrays.copyOfRange(usuarios, i, Math.min(i + tamanhoBloco, usuarios.length));
+                blocos.add(executor.submit(() -> precalculadas.gravar(geracao, calcular(bloco, ranking))));
+            }
+            for (Future<?> bloco : blocos) {
+                bloco.get();
+            }
+
+            precalculadas.ativar(geracao);
+            log.info("Recomendações de {} usuários calculadas em {} ms", usuarios.length, System.currentTimeMillis() - inicio);
+            return true;
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("O lote de recomendações falhou, a geração anterior continua ativa", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        precalculadas.descartar(geracao);
+        return false;
+    }
+
+    private long[] lerRanking() {
+        return transactionTemplate.execute(status -> {
+            try (Stream<LivroRepository.ContagemEmprestimos> contagens = livroRepository.streamContagemEmprestimos()) {
+                return contagens.mapToLong(LivroRepository.ContagemEmprestimos::getIdLivro).toArray();
+            }
+        });
+    }
+
+    /**
+     * Recomendações do bloco como linhas {@code {idUsuario, posicao, idLivro}}: para cada usuário, percorre o ranking
+     * pulando os livros do seu histórico até completar a quantidade.
+     */
+    private List<long[]> calcular(long[] usuarios, long[] ranking) {
+        MapaLongInt indices = new MapaLongInt(usuarios.length);
+        for (int i = 0; i < usuarios.length; i++) {
+            indices.put(usuarios[i], i);
+        }
+
+        MapaLongInt[] historicos = new MapaLongInt[usuarios.length];
+        jdbcTemplate.query("SELECT usuario_id, livro_id FROM emprestimos WHERE usuario_id BETWEEN ? AND ?", resultado -> {
+            int usuario = indices.get(resultado.getLong(1), -1);
+            if (usuario >= 0) {
+                if (historicos[usuario] == null) {
+                    historicos[usuario] = new MapaLongInt(8);
+                }
+                historicos[usuario].put(resultado.getLong(2), 1);
+            }
+        }, usuarios[0], usuarios[usuarios.length - 1]);
+
+        int quantidade = precalculadas.getQuantidade();
+        List<long[]> recomendacoes = new ArrayList<>(usuarios.length * Math.min(quantidade, ranking.length));
+        for (int i = 0; i < usuarios.length; i++) {
+            int posicao = 0;
+            for (int j = 0; j < ranking.length && posicao < quantidade; j++) {
+                if (historicos[i] == null || historicos[i].get(ranking[j], 0) == 0) {
+                    recomendacoes.add(new long[]{usuarios[i], posicao++, ranking[j]});
+                }
+            }
+        }
+        return recomendacoes;
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.project.util.recomendacao;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de chaves {@code long} positivas para valores {@code int}, com endereçamento aberto e sondagem linear, sem
+ * objetos por entrada. A chave {@code 0} marca as posições livres, o que basta para ids gerados pelo banco.
+ * Não é thread-safe.
+ */
+public final class MapaLongInt {
+
+    private static final long LIVRE = 0;
+    private static final float CARGA_MAXIMA = 0.5f;
+
+    private long[] chaves;
+    private int[] valores;
+    private int tamanho;
+
+    public MapaLongInt(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(4, (int) (capacidadeInicial / CARGA_MAXIMA)) - 1) << 1;
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    /**
+     * Valor da chave, ou {@code ausente} quando ela não está no mapa.
+     */
+    public int get(long chave, int ausente) {
+        int posicao = localizar(chave);
+        return chaves[posicao] == LIVRE ? ausente : valores[posicao];
+    }
+
+    public void put(long chave, int valor) {
+        if (chave <= LIVRE) {
+            throw new IllegalArgumentException("Chave inválida: " + chave);
+        }
+
+        int posicao = localizar(chave);
+        if (chaves[posicao] == LIVRE) {
+            if (tamanho + 1 > chaves.length * CARGA_MAXIMA) {
+                redimensionar();
+                posicao = localizar(chave);
+            }
+            chaves[posicao] = chave;
+            tamanho++;
+        }
+        valores[posicao] = valor;
+    }
+
+    /**
+     * Remove a chave deslocando para trás as entradas seguintes da mesma sequência de sondagem, em vez de deixar
+     * marcadores de remoção que degradariam as buscas.
+     */
+    public boolean remove(long chave) {
+        int posicao = localizar(chave);
+        if (chaves[posicao] == LIVRE) {
+            return false;
+        }
+
+        int mascara = chaves.length - 1;
+        int livre = posicao;
+        int atual = (posicao + 1) & mascara;
+        while (chaves[atual] != LIVRE) {
+            int ideal = espalhar(chaves[atual]) & mascara;
+            if (((atual - ideal) & mascara) >= ((atual - livre) & mascara)) {
+                chaves[livre] = chaves[atual];
+                valores[livre] = valores[atual];
+                livre = atual;
+            }
+            atual = (atual + 1) & mascara;
+        }
+
+        chaves[livre] = LIVRE;
+        tamanho--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, LIVRE);
+        tamanho = 0;
+    }
+
+    private int localizar(long chave) {
+        int mascara = chaves.length - 1;
+        int posicao = espalhar(chave) & mascara;
+        while (chaves[posicao] != LIVRE && chaves[posicao] != chave) {
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+
+    private void redimensionar() {
+        long[] chavesAnteriores = chaves;
+        int[] valoresAnteriores = valores;
+
+        chaves = new long[chavesAnteriores.length * 2];
+        valores = new int[valoresAnteriores.length * 2];
+        for (int i = 0; i < chavesAnteriores.length; i++) {
+            if (chavesAnteriores[i] != LIVRE) {
+                int posicao = localizar(chavesAnteriores[i]);
+                chaves[posicao] = chavesAnteriores[i];
+                valores[posicao] = valoresAnteriores[i];
+            }
+        }
+    }
+
+    private static int espalhar(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
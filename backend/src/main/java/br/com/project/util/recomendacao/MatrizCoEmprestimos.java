@@ -0,0 +1,116 @@
+package br.com.project.util.recomendacao;
+
+import java.util.Arrays;
+
+/**
+ * Matriz esparsa e simétrica de co-empréstimos no formato CSR: a célula {@code (a, b)} é o número de usuários que
+ * emprestaram os livros de índices {@code a} e {@code b}. A linha {@code a} ocupa as posições
+ * {@code [inicios[a], inicios[a + 1])} de {@code colunas} e {@code valores}, com as colunas em ordem crescente.
+ * É imutável; as alterações posteriores à construção ficam em {@link GrafoCoEmprestimos}.
+ */
+public final class MatrizCoEmprestimos {
+
+    static final MatrizCoEmprestimos VAZIA = new MatrizCoEmprestimos(new int[1], new int[0], new int[0]);
+
+    private final int[] inicios;
+    private final int[] colunas;
+    private final int[] valores;
+
+    private MatrizCoEmprestimos(int[] inicios, int[] colunas, int[] valores) {
+        this.inicios = inicios;
+        this.colunas = colunas;
+        this.valores = valores;
+    }
+
+    /**
+     * Constrói a matriz a partir dos históricos (índices de livros distintos) de cada usuário, linha por linha: a linha
+     * do livro {@code a} soma, em um acumulador denso, os históricos dos usuários que emprestaram {@code a}. O custo é
+     * proporcional à soma dos quadrados dos tamanhos dos históricos, não ao quadrado do número de livros.
+     */
+    static MatrizCoEmprestimos construir(int quantidadeLivros, int[][] historicos, int[] tamanhos, int quantidadeUsuarios) {
+        int[] iniciosUsuarios = new int[quantidadeLivros + 1];
+        for (int usuario = 0; usuario < quantidadeUsuarios; usuario++) {
+            for (int i = 0; i < tamanhos[usuario]; i++) {
+                iniciosUsuarios[historicos[usuario][i] + 1]++;
+            }
+        }
+        for (int livro = 0; livro < quantidadeLivros; livro++) {
+            iniciosUsuarios[livro + 1] += iniciosUsuarios[livro];
+        }
+
+        int[] usuarios = new int[iniciosUsuarios[quantidadeLivros]];
+        int[] proximos = Arrays.copyOf(iniciosUsuarios, quantidadeLivros);
+        for (int usuario = 0; usuario < quantidadeUsuarios; usuario++) {
+            for (int i = 0; i < tamanhos[usuario]; i++) {
+                usuarios[proximos[historicos[usuario][i]]++] = usuario;
+            }
+        }
+
+        int[] inicios = new int[quantidadeLivros + 1];
+        int[] colunas = new int[Math.max(16, usuarios.length)];
+        int[] valores = new int[colunas.length];
+        int[] acumulador = new int[quantidadeLivros];
+        int[] tocados = new int[quantidadeLivros];
+        int quantidade = 0;
+
+        for (int livro = 0; livro < quantidadeLivros; livro++) {
+            int quantidadeTocados = 0;
+            for (int i = iniciosUsuarios[livro]; i < iniciosUsuarios[livro + 1]; i++) {
+                int usuario = usuarios[i];
+                for (int j = 0; j < tamanhos[usuario]; j++) {
+                    int outro = historicos[usuario][j];
+                    if (outro != livro && acumulador[outro]++ == 0) {
+                        tocados[quantidadeTocados++] = outro;
+                    }
+                }
+            }
+
+            Arrays.sort(tocados, 0, quantidadeTocados);
+            if (quantidade + quantidadeTocados > colunas.length) {
+                int capacidade = Math.max(colunas.length * 2, quantidade + quantidadeTocados);
+                colunas = Arrays.copyOf(colunas, capacidade);
+                valores = Arrays.copyOf(valores, capacidade);
+            }
+            for (int i = 0; i < quantidadeTocados; i++) {
+                colunas[quantidade] = tocados[i];
+                valores[quantidade++] = acumulador[tocados[i]];
+                acumulador[tocados[i]] = 0;
+            }
+            inicios[livro + 1] = quantidade;
+        }
+
+        return new MatrizCoEmprestimos(inicios, Arrays.copyOf(colunas, quantidade), Arrays.copyOf(valores, quantidade));
+    }
+
+    int quantidadeLinhas() {
+        return inicios.length - 1;
+    }
+
+    int quantidadeValores() {
+        return colunas.length;
+    }
+
+    int inicio(int linha) {
+        return linha < quantidadeLinhas() ? inicios[linha] : 0;
+    }
+
+    int fim(int linha) {
+        return linha < quantidadeLinhas() ? inicios[linha + 1] : 0;
+    }
+
+    int coluna(int posicao) {
+        return colunas[posicao];
+    }
+
+    int valor(int posicao) {
+        return valores[posicao];
+    }
+
+    /**
+     * Posição da coluna na linha, ou {@code -1} quando a célula é zero.
+     */
+    int posicao(int linha, int coluna) {
+        int posicao = Arrays.binarySearch(colunas, inicio(linha), fim(linha), coluna);
+        return posicao < 0 ? -1 : posicao;
+    }
+}
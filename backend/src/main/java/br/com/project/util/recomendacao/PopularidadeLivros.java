@@ -0,0 +1,111 @@
+package br.com.project.util.recomendacao;
+
+import br.com.project.repository.LivroRepository;
+import br.com.project.util.TransacaoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Ranking dos livros mais emprestados mantido em memória, para que as recomendações gerais não refaçam a agregação
+ * sobre todos os empréstimos. É carregado uma vez na inicialização, antes de o servidor aceitar requisições, lendo as
+ * contagens do banco como stream; depois, os services informam os livros criados e excluídos e os empréstimos
+ * criados, aplicados somente após o commit da transação corrente, se houver.
+ * Enquanto o ranking não estiver carregado (falha na carga, por exemplo), {@link #listar(int, int)} não responde e
+ * as recomendações continuam sendo calculadas no banco.
+ */
+@Component
+public class PopularidadeLivros implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularidadeLivros.class);
+
+    private final LivroRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RankingPopularidade ranking = new RankingPopularidade(1024);
+    private boolean carregado;
+
+    public PopularidadeLivros(LivroRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        carregar();
+    }
+
+    public void carregar() {
+        lock.writeLock().lock();
+        try {
+            carregado = false;
+            ranking.limpar();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<LivroRepository.ContagemEmprestimos> contagens = repository.streamContagemEmprestimos()) {
+                    contagens.forEach(contagem -> ranking.adicionarAoFinal(contagem.getIdLivro(), contagem.getTotal()));
+                }
+            });
+            carregado = true;
+            log.info("Ranking de popularidade carregado com {} livros", ranking.size());
+        } catch (RuntimeException e) {
+            ranking.limpar();
+            log.error("Não foi possível carregar o ranking de popularidade, as recomendações serão calculadas no banco", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids dos livros da página do ranking, ou vazio se o ranking não estiver carregado.
+     */
+    public Optional<List<Long>> listar(int pagina, int quantidade) {
+        long inicio = (long) (pagina - 1) * quantidade;
+
+        lock.readLock().lock();
+        try {
+            if (!carregado) {
+                return Optional.empty();
+            }
+            if (inicio >= ranking.size()) {
+                return Optional.of(List.of());
+            }
+            return Optional.of(Arrays.stream(ranking.listar((int) inicio, quantidade)).boxed().toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void registrarEmprestimo(Long idLivro) {
+        TransacaoUtil.aposCommit(() -> atualizar(() -> ranking.incrementar(idLivro)));
+    }
+
+    public void adicionarLivro(Long idLivro) {
+        TransacaoUtil.aposCommit(() -> atualizar(() -> ranking.adicionar(idLivro)));
+    }
+
+    public void removerLivro(Long idLivro) {
+        TransacaoUtil.aposCommit(() -> atualizar(() -> ranking.remover(idLivro)));
+    }
+
+    private void atualizar(Runnable atualizacao) {
+        lock.writeLock().lock();
+        try {
+            if (carregado) {
+                atualizacao.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
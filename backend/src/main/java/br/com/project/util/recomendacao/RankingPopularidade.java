@@ -0,0 +1,148 @@
+package br.com.project.util.recomendacao;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Livros ordenados pela quantidade de empréstimos (decrescente) e pelo id (crescente), a mesma ordem da consulta
+ * {@code findIdsLivrosMaisEmprestados}. Os livros ficam em grupos, um por quantidade de empréstimos, percorridos da
+ * maior quantidade para a menor; dentro do grupo os ids ficam em ordem crescente. {@link MapaLongInt} guarda a
+ * contagem de cada livro, que identifica o seu grupo.
+ * <p>
+ * Um empréstimo tira o livro do grupo da contagem atual e o coloca no grupo seguinte, em O(log n), sem mexer nos
+ * demais livros. Listar uma página pula os grupos inteiros anteriores a ela e percorre só o trecho do grupo em que ela
+ * começa. Não é thread-safe.
+ */
+public final class RankingPopularidade {
+
+    private static final int AUSENTE = -1;
+
+    private final NavigableMap<Integer, NavigableSet<Long>> grupos = new TreeMap<>(Comparator.reverseOrder());
+    private final MapaLongInt contagens;
+    private int tamanho;
+
+    public RankingPopularidade(int capacidadeInicial) {
+        contagens = new MapaLongInt(Math.max(16, capacidadeInicial));
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public long getContagem(long id) {
+        return Math.max(0, contagens.get(id, AUSENTE));
+    }
+
+    /**
+     * Acrescenta um livro ao final do ranking. Usado na carga, que já recebe os livros na ordem do ranking.
+     */
+    public void adicionarAoFinal(long id, long contagem) {
+        if (!grupos.isEmpty()) {
+            Map.Entry<Integer, NavigableSet<Long>> ultimo = grupos.lastEntry();
+            if (!antes(ultimo.getValue().last(), ultimo.getKey(), id, contagem)) {
+                throw new IllegalStateException("Livro " + id + " fora da ordem do ranking");
+            }
+        }
+        if (contagens.get(id, AUSENTE) != AUSENTE) {
+            throw new IllegalStateException("Livro " + id + " repetido no ranking");
+        }
+
+        incluir(id, Math.toIntExact(contagem));
+    }
+
+    /**
+     * Inclui um livro sem empréstimos. Não faz nada quando ele já está no ranking.
+     */
+    public void adicionar(long id) {
+        if (contagens.get(id, AUSENTE) == AUSENTE) {
+            incluir(id, 0);
+        }
+    }
+
+    /**
+     * Soma um empréstimo ao livro, incluindo-o no ranking se ainda não estiver nele.
+     */
+    public void incrementar(long id) {
+        int contagem = contagens.get(id, AUSENTE);
+        if (contagem == AUSENTE) {
+            incluir(id, 1);
+            return;
+        }
+
+        retirarDoGrupo(id, contagem);
+        grupos.computeIfAbsent(contagem + 1, c -> new TreeSet<>()).add(id);
+        contagens.put(id, contagem + 1);
+    }
+
+    public void remover(long id) {
+        int contagem = contagens.get(id, AUSENTE);
+        if (contagem == AUSENTE) {
+            return;
+        }
+
+        retirarDoGrupo(id, contagem);
+        contagens.remove(id);
+        tamanho--;
+    }
+
+    /**
+     * Ids de {@code quantidade} livros a partir da posição {@code inicio} do ranking.
+     */
+    public long[] listar(int inicio, int quantidade) {
+        if (inicio >= tamanho) {
+            return new long[0];
+        }
+
+        long[] ids = new long[Math.min(quantidade, tamanho - inicio)];
+        int preenchidos = 0;
+        int pular = inicio;
+        for (NavigableSet<Long> grupo : grupos.values()) {
+            if (preenchidos == ids.length) {
+                break;
+            }
+            if (pular >= grupo.size()) {
+                pular -= grupo.size();
+                continue;
+            }
+
+            Iterator<Long> iterator = grupo.iterator();
+            for (; pular > 0; pular--) {
+                iterator.next();
+            }
+            while (preenchidos < ids.length && iterator.hasNext()) {
+                ids[preenchidos++] = iterator.next();
+            }
+        }
+        return preenchidos == ids.length ? ids : Arrays.copyOf(ids, preenchidos);
+    }
+
+    public void limpar() {
+        grupos.clear();
+        contagens.clear();
+        tamanho = 0;
+    }
+
+    private void incluir(long id, int contagem) {
+        grupos.computeIfAbsent(contagem, c -> new TreeSet<>()).add(id);
+        contagens.put(id, contagem);
+        tamanho++;
+    }
+
+    private void retirarDoGrupo(long id, int contagem) {
+        NavigableSet<Long> grupo = grupos.get(contagem);
+        grupo.remove(id);
+        if (grupo.isEmpty()) {
+            grupos.remove(contagem);
+        }
+    }
+
+    private static boolean antes(long id, long contagem, long outroId, long outraContagem) {
+        return contagem > outraContagem || (contagem == outraContagem && id < outroId);
+    }
+}
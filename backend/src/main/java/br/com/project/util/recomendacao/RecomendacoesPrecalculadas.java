@@ -0,0 +1,124 @@
+package br.com.project.util.recomendacao;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Tabela {@code recomendacoes}, preenchida por {@link LoteRecomendacoes}. Cada execução do lote grava uma geração nova
+ * em {@code recomendacoes_geracoes}, ainda inativa, e só a ativa ao terminar, em uma única atualização; as consultas
+ * leem somente a geração ativa, então nunca enxergam um lote pela metade. As gerações anteriores são excluídas depois
+ * da troca, com as suas recomendações ({@code ON DELETE CASCADE}).
+ */
+@Component
+public class RecomendacoesPrecalculadas {
+
+    private static final String INSERIR_RECOMENDACAO =
+            "INSERT INTO recomendacoes (geracao_id, usuario_id, posicao, livro_id) VALUES (?, ?, ?, ?)";
+
+    private static final String LISTAR_RECOMENDACOES = """
+            SELECT r.livro_id
+            FROM recomendacoes r
+            JOIN recomendacoes_geracoes g ON g.id = r.geracao_id
+            WHERE g.ativa = TRUE AND g.data_fim >= ? AND r.usuario_id = ? AND r.posicao >= ? AND r.posicao < ?
+            AND NOT EXISTS (SELECT 1 FROM emprestimos e WHERE e.usuario_id = r.usuario_id AND e.livro_id = r.livro_id)
+            ORDER BY r.posicao
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int quantidade;
+    private final Duration validade;
+    private final int tamanhoBatch;
+
+    public RecomendacoesPrecalculadas(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      @Value("${recomendacao.lote.quantidade:100}") int quantidade,
+                                      @Value("${recomendacao.lote.validade-horas:36}") long validadeHoras,
+                                      @Value("${recomendacao.lote.tamanho-batch:1000}") int tamanhoBatch) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.quantidade = quantidade;
+        this.validade = Duration.ofHours(validadeHoras);
+        this.tamanhoBatch = tamanhoBatch;
+    }
+
+    /**
+     * Quantidade de recomendações calculadas para cada usuário.
+     */
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Ids dos livros da página, lidos da geração ativa. Vazio quando a página passa da quantidade calculada, quando a
+     * geração ativa é mais antiga que a validade ou quando o usuário não está nela (cadastrado depois do lote, por
+     * exemplo); nesses casos as recomendações devem ser calculadas na hora.
+     * <p>
+     * Os livros que o usuário emprestou depois do lote são retirados da página pela anti-junção com
+     * {@code emprestimos}, lida somente do índice {@code idx_emprestimos_usuario_livro}; a página fica com menos livros
+     * até a próxima geração, sem deslocar as posições das páginas seguintes.
+     */
+    public Optional<List<Long>> listar(Long idUsuario, int pagina, int quantidadePagina) {
+        long inicio = (long) (pagina - 1) * quantidadePagina;
+        if (inicio + quantidadePagina > quantidade) {
+            return Optional.empty();
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(LISTAR_RECOMENDACOES, Long.class,
+                Timestamp.valueOf(LocalDateTime.now().minus(validade)), idUsuario, inicio, inicio + quantidadePagina);
+        return ids.isEmpty() ? Optional.empty() : Optional.of(ids);
+    }
+
+    long iniciarGeracao() {
+        KeyHolder chave = new GeneratedKeyHolder();
+        jdbcTemplate.update(conexao -> {
+            PreparedStatement statement = conexao.prepareStatement(
+                    "INSERT INTO recomendacoes_geracoes (data_inicio, ativa) VALUES (?, FALSE)", new String[]{"id"});
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            return statement;
+        }, chave);
+        return Objects.requireNonNull(chave.getKey()).longValue();
+    }
+
+    /**
+     * Grava as recomendações em batches JDBC de {@code recomendacao.lote.tamanho-batch} linhas. Cada linha de
+     * {@code recomendacoes} é {@code {idUsuario, posicao, idLivro}}.
+     */
+    void gravar(long geracao, List<long[]> recomendacoes) {
+        jdbcTemplate.batchUpdate(INSERIR_RECOMENDACAO, recomendacoes, tamanhoBatch, (statement, recomendacao) -> {
+            statement.setLong(1, geracao);
+            statement.setLong(2, recomendacao[0]);
+            statement.setInt(3, (int) recomendacao[1]);
+            statement.setLong(4, recomendacao[2]);
+        });
+    }
+
+    /**
+     * Ativa a geração e exclui somente as mais antigas que ela; uma geração mais nova ainda em andamento não é afetada.
+     */
+    void ativar(long geracao) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE recomendacoes_geracoes SET data_fim = ? WHERE id = ?",
+                    Timestamp.valueOf(LocalDateTime.now()), geracao);
+            jdbcTemplate.update("UPDATE recomendacoes_geracoes SET ativa = CASE WHEN id = ? THEN TRUE ELSE FALSE END", geracao);
+        });
+
+        jdbcTemplate.update("DELETE FROM recomendacoes_geracoes WHERE id < ?", geracao);
+    }
+
+    void descartar(long geracao) {
+        jdbcTemplate.update("DELETE FROM recomendacoes_geracoes WHERE id = ?", geracao);
+    }
+}
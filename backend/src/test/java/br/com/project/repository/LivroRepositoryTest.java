@@ -0,0 +1,128 @@
+package br.com.project.repository;
+
+import br.com.project.dto.LivroDTO;
+import br.com.project.entity.Categoria;
+import br.com.project.entity.Emprestimo;
+import br.com.project.entity.Livro;
+import br.com.project.entity.Usuario;
+import br.com.project.enumeration.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+public class LivroRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LivroRepository repository;
+
+    private Livro iracema;
+    private Livro senhora;
+    private Livro luciola;
+    private Usuario leitor;
+    private Usuario leitora;
+
+    @BeforeEach
+    public void setup() {
+        Categoria categoria = entityManager.persist(Categoria.builder().nome("Romance").build());
+        iracema = livro("Iracema", categoria);
+        senhora = livro("Senhora", categoria);
+        luciola = livro("Lucíola", categoria);
+        leitor = usuario("leitor@email.com");
+        leitora = usuario("leitora@email.com");
+
+        emprestar(leitor, iracema);
+        emprestar(leitora, iracema);
+        emprestar(leitora, iracema);
+        emprestar(leitora, senhora);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Livro livro(String titulo, Categoria categoria) {
+        return entityManager.persist(Livro.builder()
+                .titulo(titulo)
+                .autor("José de Alencar")
+                .isbn(titulo)
+                .dataPublicacao(LocalDate.of(1865, 1, 1))
+                .categoria(categoria)
+                .build());
+    }
+
+    private Usuario usuario(String email) {
+        return entityManager.persist(Usuario.builder()
+                .nome(email)
+                .email(email)
+                .telefone("48999998888")
+                .dataCadastro(LocalDate.now())
+                .build());
+    }
+
+    private void emprestar(Usuario usuario, Livro livro) {
+        entityManager.persist(Emprestimo.builder()
+                .usuario(usuario)
+                .livro(livro)
+                .status(Status.CONCLUIDO)
+                .dataEmprestimo(LocalDate.now())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Deve excluir os livros que o usuário já emprestou, mesmo os emprestados também por outros")
+    public void findIdsLivrosMaisEmprestadosByUsuarioShouldExcludeBorrowedBooks() {
+        assertEquals(List.of(senhora.getId(), luciola.getId()),
+                repository.findIdsLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(leitor.getId(), PageRequest.of(0, 10)));
+        assertEquals(List.of(luciola.getId()),
+                repository.findIdsLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(leitora.getId(), PageRequest.of(0, 10)));
+    }
+
+    @Test
+    @DisplayName("Deve ordenar pelo total de empréstimos de todos os usuários e limitar à página")
+    public void findIdsLivrosMaisEmprestadosByUsuarioShouldRankByAllLoans() {
+        Usuario novo = usuario("novo@email.com");
+        entityManager.flush();
+
+        assertEquals(List.of(iracema.getId(), senhora.getId()),
+                repository.findIdsLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(novo.getId(), PageRequest.of(0, 2)));
+        assertEquals(List.of(luciola.getId()),
+                repository.findIdsLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(novo.getId(), PageRequest.of(1, 2)));
+        assertEquals(repository.findIdsLivrosMaisEmprestados(PageRequest.of(0, 3)),
+                repository.findIdsLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(novo.getId(), PageRequest.of(0, 3)));
+    }
+
+    @Test
+    @DisplayName("Deve carregar a projeção dos livros informados com a categoria e o empréstimo ativo")
+    public void findByIdsShouldLoadProjection() {
+        Emprestimo ativo = entityManager.persist(Emprestimo.builder()
+                .usuario(leitor)
+                .livro(luciola)
+                .status(Status.ATIVO)
+                .dataEmprestimo(LocalDate.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<LivroDTO> livros = repository.findByIds(List.of(luciola.getId(), iracema.getId()), LivroDTO.projecao()).stream()
+                .sorted(Comparator.comparing(LivroDTO::getTitulo))
+                .toList();
+
+        assertEquals(List.of("Iracema", "Lucíola"), livros.stream().map(LivroDTO::getTitulo).toList());
+        assertEquals("Romance", livros.get(0).getNomeCategoria());
+        assertNull(livros.get(0).getEmprestimo());
+        assertEquals(ativo.getId(), livros.get(1).getEmprestimo().getId());
+        assertEquals(leitor.getId(), livros.get(1).getEmprestimo().getIdUsuario());
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.project.service;
+
+import br.com.project.dto.BuscaRequestDTO;
+import br.com.project.dto.BuscaResponseDTO;
+import br.com.project.dto.LivroDTO;
+import br.com.project.dto.UsuarioDTO;
+import br.com.project.entity.Categoria;
+import br.com.project.entity.Livro;
+import br.com.project.entity.Usuario;
+import br.com.project.util.pesquisa.Pesquisa;
+import br.com.project.util.pesquisa.PesquisaRequest;
+import br.com.project.util.pesquisa.PesquisaResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class BuscaServiceTest {
+
+    @Mock
+    private Pesquisa<Livro> pesquisaLivros;
+
+    @Mock
+    private Pesquisa<Usuario> pesquisaUsuarios;
+
+    @Mock
+    private Pesquisa<Categoria> pesquisaCategorias;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private BuscaService service;
+
+    @BeforeEach
+    public void setup() {
+        service = new BuscaService(pesquisaLivros, pesquisaUsuarios, pesquisaCategorias, transactionManager, meterRegistry,
+                500, 5, 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.destroy();
+    }
+
+    private static <T> PesquisaResult<T> resultado(List<T> registros) {
+        return PesquisaResult.<T>builder().pagina(1).totalRegistros((long) registros.size()).registros(registros).build();
+    }
+
+    @Test
+    @DisplayName("Deve pesquisar as entidades ao mesmo tempo e agrupar os resultados")
+    public void buscarShouldSearchEntitiesConcurrently() {
+        CountDownLatch simultaneas = new CountDownLatch(3);
+        Mockito.when(pesquisaLivros.pesquisar(any(), eq(Livro.class), any())).thenAnswer(invocation -> {
+            simultaneas.countDown();
+            simultaneas.await(1, TimeUnit.SECONDS);
+            return resultado(List.of(LivroDTO.builder().titulo("Iracema").build()));
+        });
+        Mockito.when(pesquisaUsuarios.pesquisar(any(), eq(Usuario.class), any())).thenAnswer(invocation -> {
+            simultaneas.countDown();
+            simultaneas.await(1, TimeUnit.SECONDS);
+            return resultado(List.of(UsuarioDTO.builder().nome("Iracema Leitora").build()));
+        });
+        Mockito.when(pesquisaCategorias.pesquisar(any(), eq(Categoria.class))).thenAnswer(invocation -> {
+            simultaneas.countDown();
+            simultaneas.await(1, TimeUnit.SECONDS);
+            return resultado(List.<Categoria>of());
+        });
+
+        BuscaResponseDTO result = service.buscar(new BuscaRequestDTO("iracema", 3, null, null));
+
+        assertEquals(0, simultaneas.getCount());
+        assertEquals("Iracema", result.getLivros().getRegistros().get(0).getTitulo());
+        assertEquals("Iracema Leitora", result.getUsuarios().getRegistros().get(0).getNome());
+        assertTrue(result.getCategorias().getRegistros().isEmpty());
+        assertTrue(result.getIndisponiveis().isEmpty());
+
+        ArgumentCaptor<PesquisaRequest> request = ArgumentCaptor.forClass(PesquisaRequest.class);
+        Mockito.verify(pesquisaLivros).pesquisar(request.capture(), eq(Livro.class), any());
+        assertEquals(3, request.getValue().getQuantidadeRegistros());
+        assertEquals(3, request.getValue().getGrupo().getFiltros().size());
+    }
+
+    @Test
+    @DisplayName("Deve retornar os resultados parciais quando uma pesquisa não terminar no tempo máximo")
+    public void buscarShouldReturnPartialResultsWhenBranchIsSlow() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch cancelada = new CountDownLatch(1);
+        Mockito.when(pesquisaLivros.pesquisar(any(), eq(Livro.class), any()))
+                .thenReturn(resultado(List.of(LivroDTO.builder().titulo("Senhora").build())));
+        Mockito.when(pesquisaUsuarios.pesquisar(any(), eq(Usuario.class), any())).thenAnswer(invocation -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                cancelada.countDown();
+            }
+            return resultado(List.of());
+        });
+
+        long inicio = System.nanoTime();
+        BuscaResponseDTO result = service.buscar(new BuscaRequestDTO("senhora", null, null, 0));
+        long duracao = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        liberar.countDown();
+
+        assertEquals("Senhora", result.getLivros().getRegistros().get(0).getTitulo());
+        assertNull(result.getUsuarios());
+        assertNull(result.getCategorias());
+        assertEquals(List.of(BuscaService.USUARIOS), result.getIndisponiveis());
+        assertTrue(duracao < 2000);
+        assertTrue(cancelada.await(1, TimeUnit.SECONDS));
+        Mockito.verifyNoInteractions(pesquisaCategorias);
+    }
+
+    @Test
+    @DisplayName("Deve informar como indisponível a pesquisa recusada pelo pool cheio, sem executá-la na requisição")
+    public void buscarShouldReportRejectedBranchAsUnavailable() {
+        service.destroy();
+        service = new BuscaService(pesquisaLivros, pesquisaUsuarios, pesquisaCategorias, transactionManager, meterRegistry,
+                500, 5, 1);
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(pesquisaLivros.pesquisar(any(), eq(Livro.class), any())).thenAnswer(invocation -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // ocupa a única thread até o fim da busca, como uma consulta que ignora o cancelamento
+                liberar.await(5, TimeUnit.SECONDS);
+            }
+            return resultado(List.of());
+        });
+
+        BuscaResponseDTO result;
+        try {
+            result = service.buscar(new BuscaRequestDTO("iracema", null, null, null));
+        } finally {
+            liberar.countDown();
+        }
+
+        assertEquals(List.of(BuscaService.LIVROS, BuscaService.USUARIOS, BuscaService.CATEGORIAS), result.getIndisponiveis());
+        Mockito.verifyNoInteractions(pesquisaUsuarios, pesquisaCategorias);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a busca sem termo")
+    public void buscarShouldRejectBlankTerm() {
+        assertThrows(IllegalArgumentException.class, () -> service.buscar(new BuscaRequestDTO(" ", null, null, null)));
+    }
+}
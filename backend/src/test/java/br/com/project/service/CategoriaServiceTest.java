@@ -6,6 +6,7 @@ import br.com.project.entity.Livro;
 import br.com.project.exception.ObjectNotFoundException;
 import br.com.project.repository.CategoriaRepository;
 import br.com.project.util.MessageUtil;
+import br.com.project.util.pesquisa.PesquisaVersoes;
 import org.apache.coyote.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -30,6 +31,9 @@ public class CategoriaServiceTest {
     @Mock
     private CategoriaRepository repository;
 
+    @Mock
+    private PesquisaVersoes pesquisaVersoes;
+
     @InjectMocks
     private CategoriaService service;
 
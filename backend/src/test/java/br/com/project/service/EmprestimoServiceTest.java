@@ -8,6 +8,9 @@ import br.com.project.entity.Usuario;
 import br.com.project.enumeration.Status;
 import br.com.project.exception.ObjectNotFoundException;
 import br.com.project.repository.EmprestimoRepository;
+import br.com.project.util.pesquisa.PesquisaVersoes;
+import br.com.project.util.recomendacao.CoEmprestimosLivros;
+import br.com.project.util.recomendacao.PopularidadeLivros;
 import org.apache.coyote.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -30,6 +33,18 @@ public class EmprestimoServiceTest {
     @Mock
     private EmprestimoRepository repository;
 
+    @Mock
+    private PesquisaVersoes pesquisaVersoes;
+
+    @Mock
+    private PopularidadeLivros popularidade;
+
+    @Mock
+    private CoEmprestimosLivros coEmprestimos;
+
+    @Mock
+    private RecomendacaoService recomendacaoService;
+
     @Mock
     private LivroService livroService;
 
@@ -107,6 +122,9 @@ public class EmprestimoServiceTest {
 
         assertNotNull(result);
         assertEquals(emprestimoDTO.getId(), result.getId());
+        Mockito.verify(popularidade).registrarEmprestimo(emprestimo.getLivro().getId());
+        Mockito.verify(coEmprestimos).registrarEmprestimo(emprestimo.getUsuario().getId(), emprestimo.getLivro().getId());
+        Mockito.verify(recomendacaoService).invalidar(emprestimo.getUsuario().getId());
     }
 
     @Test
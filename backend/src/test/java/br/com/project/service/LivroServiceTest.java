@@ -7,6 +7,10 @@ import br.com.project.entity.Categoria;
 import br.com.project.exception.ObjectNotFoundException;
 import br.com.project.repository.LivroRepository;
 import br.com.project.util.MessageUtil;
+import br.com.project.util.pesquisa.PesquisaProjecao;
+import br.com.project.util.pesquisa.PesquisaVersoes;
+import br.com.project.util.recomendacao.CoEmprestimosLivros;
+import br.com.project.util.recomendacao.PopularidadeLivros;
 import org.apache.coyote.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,15 +20,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(MockitoExtension.class)
 public class LivroServiceTest {
@@ -32,9 +39,18 @@ public class LivroServiceTest {
     @Mock
     private LivroRepository repository;
 
+    @Mock
+    private PesquisaVersoes pesquisaVersoes;
+
     @Mock
     private CategoriaService categoriaService;
 
+    @Mock
+    private PopularidadeLivros popularidade;
+
+    @Mock
+    private CoEmprestimosLivros coEmprestimos;
+
     @InjectMocks
     private LivroService service;
 
@@ -84,6 +100,34 @@ public class LivroServiceTest {
         assertEquals(livroDTO.getId(), result.getId());
     }
 
+    @Test
+    @DisplayName("Deve carregar somente as associações informadas em expand")
+    public void getLivroDTOByIdShouldFetchOnlyExpandedAssociations() {
+        String chave = LivroDTO.projecao(Set.of(LivroDTO.EXPANDIR_CATEGORIA)).getChave();
+        livroDTO.setNomeCategoria("Romance");
+        Mockito.when(repository.findByIds(eq(List.of(1L)), Mockito.<PesquisaProjecao<Livro, LivroDTO>>argThat(
+                projecao -> projecao.getChave().equals(chave)))).thenReturn(List.of(livroDTO));
+
+        LivroDTO result = service.getLivroDTOById(1L, List.of(LivroDTO.EXPANDIR_CATEGORIA));
+
+        assertEquals("Romance", result.getNomeCategoria());
+        Mockito.verify(repository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o livro expandido não for encontrado")
+    public void getLivroDTOByIdWithExpandShouldThrowExceptionWhenNotFound() {
+        Mockito.when(repository.findByIds(eq(List.of(1L)), Mockito.<PesquisaProjecao<Livro, LivroDTO>>any())).thenReturn(List.of());
+
+        assertThrows(ObjectNotFoundException.class, () -> service.getLivroDTOById(1L, List.of()));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando expand for inválido")
+    public void getLivroDTOByIdShouldThrowExceptionWhenExpandIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> service.getLivroDTOById(1L, List.of("usuario")));
+    }
+
     @Test
     @DisplayName("Deve criar um livro")
     public void createLivroShouldReturnCreatedLivroDTO() {
@@ -157,29 +201,32 @@ public class LivroServiceTest {
         String result = service.deleteLivro(1L);
 
         assertEquals(MessageUtil.get("livro.deleted"), result);
+        Mockito.verify(popularidade).removerLivro(1L);
+        Mockito.verify(coEmprestimos).removerLivro(1L);
     }
 
     @Test
-    @DisplayName("Deve retornar uma lista de livros")
-    public void findLivrosMaisEmprestadosShouldReturnList() {
-        List<Livro> livros = Collections.singletonList(livro);
-        Mockito.when(repository.findLivrosMaisEmprestados()).thenReturn(livros);
+    @DisplayName("Deve limitar a consulta à página pedida e manter a ordem do ranking")
+    public void findLivrosMaisEmprestadosShouldKeepRankingOrder() {
+        LivroDTO segundo = LivroDTO.builder().id(2L).build();
+        Mockito.when(repository.findIdsLivrosMaisEmprestados(PageRequest.of(1, 2))).thenReturn(List.of(2L, 1L));
+        Mockito.when(repository.findByIds(eq(List.of(2L, 1L)), Mockito.<PesquisaProjecao<Livro, LivroDTO>>any()))
+                .thenReturn(List.of(livroDTO, segundo));
 
-        List<Livro> result = service.findLivrosMaisEmprestados();
+        List<LivroDTO> result = service.findLivrosMaisEmprestados(2, 2);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(List.of(2L, 1L), result.stream().map(LivroDTO::getId).toList());
     }
 
     @Test
-    @DisplayName("Deve retornar uma lista de livros")
-    public void findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestadosShouldReturnList() {
-        List<Livro> livros = Collections.singletonList(livro);
-        Mockito.when(repository.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(anyLong())).thenReturn(livros);
+    @DisplayName("Não deve pesquisar os livros quando a página do ranking estiver vazia")
+    public void findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestadosShouldReturnEmptyPage() {
+        Mockito.when(repository.findIdsLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L, PageRequest.of(0, 5)))
+                .thenReturn(List.of());
 
-        List<Livro> result = service.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L);
+        List<LivroDTO> result = service.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L, 1, 5);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        assertTrue(result.isEmpty());
+        Mockito.verify(repository, Mockito.never()).findByIds(any(), any());
     }
-}
\ No newline at end of file
+}
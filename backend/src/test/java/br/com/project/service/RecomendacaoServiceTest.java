@@ -1,22 +1,31 @@
 package br.com.project.service;
 
 import br.com.project.dto.LivroDTO;
-import br.com.project.entity.Categoria;
-import br.com.project.entity.Livro;
 import br.com.project.entity.Usuario;
+import br.com.project.util.recomendacao.CoEmprestimosLivros;
+import br.com.project.util.recomendacao.RecomendacoesPrecalculadas;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,21 +37,32 @@ public class RecomendacaoServiceTest {
     @Mock
     private UsuarioService usuarioService;
 
-    @InjectMocks
+    @Mock
+    private CoEmprestimosLivros coEmprestimos;
+
+    @Mock
+    private RecomendacoesPrecalculadas precalculadas;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
     private RecomendacaoService recomendacaoService;
 
+    @BeforeEach
+    public void setup() {
+        recomendacaoService = new RecomendacaoService(livroService, usuarioService, coEmprestimos, precalculadas, meterRegistry,
+                100, 60);
+    }
 
     @Test
     @DisplayName("Deve retornar uma lista de livros mais emprestados")
     public void getRecomendacoesShouldReturnLivrosMaisEmprestadosExcluindoWhenIdUsuarioIsNull() {
-        Livro livro = new Livro();
-        livro.setId(1L);
-        livro.setCategoria(Categoria.builder().id(1L).build());
-        List<Livro> livros = Collections.singletonList(livro);
+        LivroDTO livro = LivroDTO.builder().id(1L).idCategoria(1L).build();
+        List<LivroDTO> livros = Collections.singletonList(livro);
 
-        when(livroService.findLivrosMaisEmprestados()).thenReturn(livros);
+        when(livroService.findLivrosMaisEmprestados(1, 20)).thenReturn(livros);
 
-        List<LivroDTO> result = recomendacaoService.getRecomendacoes(null);
+        List<LivroDTO> result = recomendacaoService.getRecomendacoes(null, 1, 20);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -52,20 +72,80 @@ public class RecomendacaoServiceTest {
     @Test
     @DisplayName("Deve retornar uma lista de livros mais emprestados por usuario excluindo os ja emprestados")
     public void getRecomendacoesShouldReturnLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestadosWhenIdUsuarioIsNotNull() {
-        Livro livro = new Livro();
-        livro.setId(1L);
-        livro.setCategoria(Categoria.builder().id(1L).build());
-        List<Livro> livros = Collections.singletonList(livro);
+        LivroDTO livro = LivroDTO.builder().id(1L).idCategoria(1L).build();
+        List<LivroDTO> livros = Collections.singletonList(livro);
         Usuario usuario = new Usuario();
         usuario.setId(1L);
 
         when(usuarioService.getUsuarioById(anyLong())).thenReturn(usuario);
-        when(livroService.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(anyLong())).thenReturn(livros);
+        when(livroService.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(anyLong(), anyInt(), anyInt()))
+                .thenReturn(livros);
 
-        List<LivroDTO> result = recomendacaoService.getRecomendacoes(1L);
+        List<LivroDTO> result = recomendacaoService.getRecomendacoes(1L, 2, 10);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(livro.getId(), result.get(0).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve rejeitar página ou quantidade fora dos limites")
+    public void getRecomendacoesShouldRejectInvalidPagination() {
+        assertThrows(IllegalArgumentException.class, () -> recomendacaoService.getRecomendacoes(null, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> recomendacaoService.getRecomendacoes(null, 1, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> recomendacaoService.getRecomendacoes(null, 1, RecomendacaoService.QUANTIDADE_MAXIMA + 1));
+        verifyNoInteractions(livroService);
+    }
+
+    @Test
+    @DisplayName("Deve retornar os livros também emprestados por quem emprestou o livro")
+    public void getTambemEmprestadosShouldReturnCoBorrowedBooks() {
+        LivroDTO livro = LivroDTO.builder().id(2L).idCategoria(1L).build();
+
+        when(coEmprestimos.tambemEmprestados(1L, 5)).thenReturn(List.of(2L));
+        when(livroService.getLivrosDTOByIds(List.of(2L))).thenReturn(List.of(livro));
+
+        List<LivroDTO> result = recomendacaoService.getTambemEmprestados(1L, 5);
+
+        assertEquals(List.of(livro), result);
+        verify(livroService).getLivroById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar as recomendações do usuário até que sejam invalidadas")
+    public void getRecomendacoesShouldCacheUserRecommendationsUntilInvalidated() {
+        List<LivroDTO> livros = List.of(LivroDTO.builder().id(1L).idCategoria(1L).build());
+        when(livroService.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L, 1, 10)).thenReturn(livros);
+        when(livroService.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L, 2, 10)).thenReturn(List.of());
+        when(livroService.findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(2L, 1, 10)).thenReturn(livros);
+
+        recomendacaoService.getRecomendacoes(1L, 1, 10);
+        recomendacaoService.getRecomendacoes(1L, 2, 10);
+        recomendacaoService.getRecomendacoes(2L, 1, 10);
+        assertEquals(livros, recomendacaoService.getRecomendacoes(1L, 1, 10));
+        assertEquals(List.of(), recomendacaoService.getRecomendacoes(1L, 2, 10));
+        verify(livroService, times(1)).findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L, 1, 10);
+        verify(livroService, times(1)).findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L, 2, 10);
+
+        recomendacaoService.invalidar(1L);
+        recomendacaoService.getRecomendacoes(1L, 1, 10);
+        recomendacaoService.getRecomendacoes(1L, 2, 10);
+        recomendacaoService.getRecomendacoes(2L, 1, 10);
+
+        verify(livroService, times(2)).findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L, 1, 10);
+        verify(livroService, times(2)).findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(1L, 2, 10);
+        verify(livroService, times(1)).findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(2L, 1, 10);
+    }
+
+    @Test
+    @DisplayName("Deve usar as recomendações pré-calculadas quando estiverem disponíveis")
+    public void getRecomendacoesShouldReadPrecomputedRecommendations() {
+        List<LivroDTO> livros = List.of(LivroDTO.builder().id(3L).idCategoria(1L).build());
+        when(precalculadas.listar(1L, 1, 10)).thenReturn(Optional.of(List.of(3L)));
+        when(livroService.getLivrosDTOByIds(List.of(3L))).thenReturn(livros);
+
+        assertEquals(livros, recomendacaoService.getRecomendacoes(1L, 1, 10));
+        verify(livroService, never()).findLivrosMaisEmprestadosByUsuarioExcluindoOsJaEmprestados(anyLong(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.entity.Categoria;
+import br.com.project.entity.Emprestimo;
+import br.com.project.entity.Livro;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+import static br.com.project.util.pesquisa.PesquisaFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import(PesquisaTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PesquisaCacheTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Pesquisa<Livro> pesquisa;
+
+    @Autowired
+    private Pesquisa<Categoria> pesquisaCategorias;
+
+    @Autowired
+    private PesquisaVersoes versoes;
+
+    private Long idCategoria;
+
+    @BeforeEach
+    public void setup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            idCategoria = persistirIracema(entityManager).getCategoria().getId();
+        });
+        versoes.incrementar(Livro.class);
+        statistics().clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            excluirLivros(entityManager);
+        });
+        versoes.incrementar(Livro.class);
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static PesquisaRequest porCategoria() {
+        return request(10, filtro("categoria.nome", Comparacao.IGUAL, CATEGORIA));
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o resultado de uma pesquisa idêntica")
+    public void pesquisarShouldReuseResultOfIdenticalRequest() {
+        PesquisaResult<Livro> primeiro = pesquisa.pesquisar(porCategoria(), Livro.class);
+        long consultas = statistics().getPrepareStatementCount();
+
+        PesquisaResult<Livro> segundo = pesquisa.pesquisar(porCategoria(), Livro.class);
+
+        assertSame(primeiro, segundo);
+        assertEquals(consultas, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Deve pesquisar novamente quando uma entidade dependente for alterada")
+    public void pesquisarShouldMissAfterDependencyVersionChanges() {
+        assertEquals(1L, pesquisa.pesquisar(porCategoria(), Livro.class).getTotalRegistros());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.find(Categoria.class, idCategoria).setNome("Drama"));
+        versoes.incrementar(Categoria.class);
+
+        assertEquals(0L, pesquisa.pesquisar(porCategoria(), Livro.class).getTotalRegistros());
+    }
+
+    @Test
+    @DisplayName("Deve manter o resultado quando for alterada uma entidade que a pesquisa não lê")
+    public void pesquisarShouldHitAfterUnrelatedEntityChanges() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(10);
+        PesquisaResult<Categoria> primeiro = pesquisaCategorias.pesquisar(request, Categoria.class);
+
+        versoes.incrementar(Livro.class);
+        versoes.incrementar(Emprestimo.class);
+
+        assertSame(primeiro, pesquisaCategorias.pesquisar(request, Categoria.class));
+    }
+}
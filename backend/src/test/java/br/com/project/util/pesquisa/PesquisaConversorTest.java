@@ -0,0 +1,41 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.enumeration.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PesquisaConversorTest {
+
+    @Test
+    @DisplayName("Deve converter datas nos formatos ISO e brasileiro")
+    public void converterShouldParseIsoAndBrazilianDates() {
+        assertEquals(LocalDate.of(2024, 3, 5), PesquisaConversor.converter("2024-03-05", LocalDate.class, "data"));
+        assertEquals(LocalDate.of(2024, 3, 5), PesquisaConversor.converter("05/03/2024", LocalDate.class, "data"));
+        assertEquals(LocalDate.of(2024, 3, 5), PesquisaConversor.converter("05/03/2024 10:30", LocalDate.class, "data"));
+        assertEquals(LocalDateTime.of(2024, 3, 5, 10, 30, 15), PesquisaConversor.converter("05/03/2024 10:30:15", LocalDateTime.class, "data"));
+        assertEquals(LocalDateTime.of(2024, 3, 5, 0, 0), PesquisaConversor.converter("2024-03-05", LocalDateTime.class, "data"));
+    }
+
+    @Test
+    @DisplayName("Deve converter enums, números e booleanos")
+    public void converterShouldParseEnumsNumbersAndBooleans() {
+        assertEquals(Status.ATIVO, PesquisaConversor.converter("ativo", Status.class, "status"));
+        assertEquals(10L, PesquisaConversor.converter(10, Long.class, "id"));
+        assertEquals(10L, PesquisaConversor.converter("10", Long.class, "id"));
+        assertEquals(Boolean.TRUE, PesquisaConversor.converter("TRUE", Boolean.class, "ativo"));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o valor não puder ser convertido")
+    public void converterShouldThrowExceptionWhenValueIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> PesquisaConversor.converter("31/02/2024x", LocalDate.class, "data"));
+        assertThrows(IllegalArgumentException.class, () -> PesquisaConversor.converter("INEXISTENTE", Status.class, "status"));
+        assertThrows(IllegalArgumentException.class, () -> PesquisaConversor.converter("1.5", Long.class, "id"));
+        assertThrows(IllegalArgumentException.class, () -> PesquisaConversor.converter("talvez", Boolean.class, "ativo"));
+    }
+}
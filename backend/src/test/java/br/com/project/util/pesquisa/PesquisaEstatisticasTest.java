@@ -0,0 +1,94 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.entity.Livro;
+import br.com.project.util.pesquisa.PesquisaEstatisticas.UsoPesquisa;
+import br.com.project.util.pesquisa.PesquisaIndices.SugestaoIndice;
+import br.com.project.util.pesquisa.PesquisaIndices.TipoIndice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static br.com.project.util.pesquisa.PesquisaFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+        "pesquisa.cache.tamanho-maximo=0", "pesquisa.estatisticas.minimo-execucoes=2"})
+@Import(PesquisaTestConfiguration.class)
+public class PesquisaEstatisticasTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private Pesquisa<Livro> pesquisa;
+
+    @Autowired
+    private PesquisaEstatisticas estatisticas;
+
+    @Autowired
+    private PesquisaIndices indices;
+
+    @BeforeEach
+    public void setup() {
+        persistirIracema(entityManager.getEntityManager());
+        entityManager.flush();
+        entityManager.clear();
+        estatisticas.limpar();
+    }
+
+    private static PesquisaRequest porTitulo(String titulo, PesquisaFiltro... outros) {
+        PesquisaRequest request = request(10, Stream.concat(Stream.of(filtro("titulo", Comparacao.CONTEM, titulo)),
+                Stream.of(outros)).toArray(PesquisaFiltro[]::new));
+        request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+        return request;
+    }
+
+    @Test
+    @DisplayName("Deve agrupar as execuções pela combinação de filtros e ordenação, sem os valores")
+    public void pesquisarShouldCountExecutionsPerCombination() {
+        pesquisa.pesquisar(porTitulo("Ira", filtro("categoria.nome", Comparacao.IGUAL, "Romance")), Livro.class);
+        pesquisa.pesquisar(porTitulo("Sen", filtro("categoria.nome", Comparacao.IGUAL, "Drama")), Livro.class);
+        pesquisa.pesquisar(porTitulo("Luc"), Livro.class);
+
+        List<UsoPesquisa> usos = estatisticas.listar();
+        assertEquals(2, usos.size());
+
+        UsoPesquisa uso = usos.stream().filter(item -> item.execucoes() == 2).findFirst().orElseThrow();
+        assertEquals("Livro", uso.combinacao().entidade());
+        assertEquals(List.of("categoria.nome:IGUAL", "titulo:CONTEM"), uso.combinacao().filtros());
+        assertEquals(List.of("titulo:ASC"), uso.combinacao().ordenacao());
+        assertEquals(2, uso.histograma().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Deve sugerir índices para as combinações executadas ao menos o mínimo de vezes")
+    public void sugerirShouldSuggestIndexesForHotCombinations() {
+        for (String titulo : List.of("Ira", "Sen")) {
+            pesquisa.pesquisar(porTitulo(titulo,
+                    filtro("categoria.id", Comparacao.IGUAL, 1),
+                    filtro("dataPublicacao", Comparacao.MAIOR, "1800-01-01")), Livro.class);
+        }
+        pesquisa.pesquisar(porTitulo("Luc", filtro("autor", Comparacao.TEXTO, "Alencar")), Livro.class);
+
+        List<SugestaoIndice> sugestoes = indices.sugerir(10);
+        assertEquals(2, sugestoes.size());
+
+        SugestaoIndice trigrama = sugestoes.stream().filter(sugestao -> sugestao.tipo() == TipoIndice.TRIGRAMA).findFirst().orElseThrow();
+        assertEquals("livros", trigrama.tabela());
+        assertEquals(List.of("titulo"), trigrama.colunas());
+        assertEquals(2, trigrama.execucoes());
+        assertTrue(trigrama.changeSet().contains("USING gin (titulo gin_trgm_ops)"));
+
+        SugestaoIndice btree = sugestoes.stream().filter(sugestao -> sugestao.tipo() == TipoIndice.BTREE).findFirst().orElseThrow();
+        assertEquals(List.of("categoria_id", "data_publicacao"), btree.colunas());
+        assertEquals("idx_livros_categoria_id_data_publicacao", btree.nome());
+        assertTrue(btree.changeSet().contains("DROP INDEX idx_livros_categoria_id_data_publicacao"));
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.dto.LivroDTO;
+import br.com.project.entity.Livro;
+import br.com.project.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PesquisaExportacaoTest {
+
+    @Mock
+    private Pesquisa<Livro> pesquisa;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Deve recusar a exportação quando todas as exportações simultâneas estão em andamento")
+    public void exportarShouldRejectWhenAllSlotsAreTaken() throws Exception {
+        PesquisaExportacao exportacao = new PesquisaExportacao(transactionManager, new ObjectMapper(), 1, 30);
+        PesquisaRequest request = new PesquisaRequest();
+
+        StreamingResponseBody primeira = exportacao.exportar(pesquisa, request, Livro.class, LivroDTO.projecao(), FormatoExportacao.NDJSON);
+        assertThrows(TooManyRequestsException.class,
+                () -> exportacao.exportar(pesquisa, request, Livro.class, LivroDTO.projecao(), FormatoExportacao.NDJSON));
+
+        primeira.writeTo(new ByteArrayOutputStream());
+        assertNotNull(exportacao.exportar(pesquisa, request, Livro.class, LivroDTO.projecao(), FormatoExportacao.NDJSON));
+    }
+
+    @Test
+    @DisplayName("Deve definir o tempo máximo da requisição somente para a exportação")
+    public void exportarShouldSetRequestTimeout() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        PesquisaExportacao exportacao = new PesquisaExportacao(transactionManager, new ObjectMapper(), 2, 30);
+
+        exportacao.exportar(pesquisa, new PesquisaRequest(), Livro.class, LivroDTO.projecao(), FormatoExportacao.CSV);
+
+        assertEquals(30 * 60 * 1000L, RequestContextHolder.currentRequestAttributes()
+                .getAttribute(PesquisaExportacao.ATRIBUTO_TEMPO_MAXIMO, RequestAttributes.SCOPE_REQUEST));
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.entity.Categoria;
+import br.com.project.entity.Livro;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dados e requisições compartilhados pelos testes da pesquisa.
+ */
+final class PesquisaFixture {
+
+    static final String CATEGORIA = "Romance";
+    static final List<String> TITULOS = List.of("Dom Casmurro", "Iracema", "O Cortiço", "Senhora", "Lucíola");
+
+    private PesquisaFixture() {
+    }
+
+    static Categoria persistirCategoria(EntityManager entityManager) {
+        Categoria categoria = Categoria.builder().nome(CATEGORIA).build();
+        entityManager.persist(categoria);
+        return categoria;
+    }
+
+    /**
+     * Categoria Romance com o livro Iracema, de José de Alencar.
+     */
+    static Livro persistirIracema(EntityManager entityManager) {
+        Livro livro = Livro.builder()
+                .titulo("Iracema")
+                .autor("José de Alencar")
+                .isbn("978-1")
+                .dataPublicacao(LocalDate.of(1865, 1, 1))
+                .categoria(persistirCategoria(entityManager))
+                .build();
+        entityManager.persist(livro);
+        return livro;
+    }
+
+    /**
+     * Categoria Romance com os livros de {@link #TITULOS}.
+     */
+    static void persistirLivros(EntityManager entityManager) {
+        Categoria categoria = persistirCategoria(entityManager);
+        for (String titulo : TITULOS) {
+            entityManager.persist(Livro.builder()
+                    .titulo(titulo)
+                    .autor("Autor " + titulo)
+                    .isbn("978-" + titulo.length())
+                    .dataPublicacao(LocalDate.of(1900, 1, 1))
+                    .categoria(categoria)
+                    .build());
+        }
+    }
+
+    static void excluirLivros(EntityManager entityManager) {
+        entityManager.createQuery("DELETE FROM Livro").executeUpdate();
+        entityManager.createQuery("DELETE FROM Categoria").executeUpdate();
+    }
+
+    static PesquisaRequest request(int quantidadeRegistros, PesquisaFiltro... filtros) {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(quantidadeRegistros);
+        request.setFiltros(List.of(filtros));
+        return request;
+    }
+
+    static PesquisaFiltro filtro(String campo, Comparacao comparacao, Object valor) {
+        PesquisaFiltro filtro = new PesquisaFiltro();
+        filtro.setCampo(campo);
+        filtro.setComparacao(comparacao);
+        filtro.setValor(valor);
+        return filtro;
+    }
+
+    static PesquisaOrdenacao ordenacao(String campo, Ordenacao direcao) {
+        PesquisaOrdenacao ordenacao = new PesquisaOrdenacao();
+        ordenacao.setCampo(campo);
+        ordenacao.setOrdenacao(direcao);
+        return ordenacao;
+    }
+
+    static PesquisaGrupo grupo(OperadorLogico operador, List<PesquisaFiltro> filtros, PesquisaGrupo... grupos) {
+        PesquisaGrupo grupo = new PesquisaGrupo();
+        grupo.setOperador(operador);
+        grupo.setFiltros(filtros);
+        grupo.setGrupos(List.of(grupos));
+        return grupo;
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.entity.Livro;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static br.com.project.util.pesquisa.PesquisaFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+        "pesquisa.lentas.limiar-ms=0", "pesquisa.lentas.capacidade=2", "pesquisa.lentas.explicar=true"})
+@Import({PesquisaTestConfiguration.class, PesquisaLentasTest.PlanoConfiguration.class})
+public class PesquisaLentasTest {
+
+    /**
+     * Registra os parâmetros das consultas explicadas. Os planos são obtidos em segundo plano e os de um teste ainda podem
+     * chegar durante o seguinte, então um mock do Mockito, que não aceita ser configurado enquanto é chamado por outra
+     * thread, perderia a configuração.
+     */
+    static class PlanoRegistrado extends PesquisaPlano {
+
+        private final BlockingQueue<Set<String>> parametros = new LinkedBlockingQueue<>();
+
+        @Override
+        public JsonNode explicar(TypedQuery<String> query, String opcoes) {
+            // os planos das pesquisas dos outros testes (10 registros) são descartados
+            if (query.getMaxResults() == 1) {
+                parametros.add(query.getParameters().stream().map(Parameter::getName).collect(Collectors.toSet()));
+            }
+            return MissingNode.getInstance();
+        }
+    }
+
+    @TestConfiguration
+    static class PlanoConfiguration {
+
+        @Bean
+        @Primary
+        PlanoRegistrado planoRegistrado() {
+            return new PlanoRegistrado();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private Pesquisa<Livro> pesquisa;
+
+    @Autowired
+    private PesquisaLentas lentas;
+
+    @Autowired
+    private PlanoRegistrado plano;
+
+    @BeforeEach
+    public void setup() {
+        persistirIracema(entityManager.getEntityManager());
+        entityManager.flush();
+        entityManager.clear();
+        lentas.limpar();
+    }
+
+    private static PesquisaRequest porTitulo(String titulo) {
+        return request(10, filtro("titulo", Comparacao.IGUAL, titulo));
+    }
+
+    @Test
+    @DisplayName("Deve registrar a pesquisa lenta sem os valores dos filtros")
+    public void pesquisarShouldRecordSlowSearchWithoutValues() {
+        pesquisa.pesquisar(porTitulo("Iracema"), Livro.class);
+
+        List<PesquisaLenta> registradas = lentas.listar();
+        assertEquals(1, registradas.size());
+
+        PesquisaLenta lenta = registradas.get(0);
+        assertEquals("Livro", lenta.getEntidade());
+        assertEquals("?", lenta.getRequisicao().getFiltros().get(0).getValor());
+        assertEquals(2, lenta.getSqls().size());
+        assertTrue(lenta.getSqls().stream().noneMatch(sql -> sql.contains("Iracema")));
+        assertTrue(lenta.getTempos().containsKey("total"));
+        assertTrue(lenta.getTempos().containsKey("registros"));
+        assertTrue(lenta.getTempos().containsKey("contagem"));
+    }
+
+    @Test
+    @DisplayName("Deve explicar somente uma pesquisa lenta de cada forma por intervalo")
+    public void pesquisarShouldExplainEachShapeOncePerInterval() throws InterruptedException {
+        pesquisa.pesquisar(request(1, filtro("titulo", Comparacao.IGUAL, "Iracema")), Livro.class);
+        assertNotNull(plano.parametros.poll(10, TimeUnit.SECONDS));
+
+        pesquisa.pesquisar(request(1, filtro("titulo", Comparacao.IGUAL, "Senhora")), Livro.class);
+
+        assertNull(plano.parametros.poll(500, TimeUnit.MILLISECONDS));
+        assertEquals(2, lentas.listar().size());
+    }
+
+    @Test
+    @DisplayName("Deve manter somente as pesquisas lentas mais recentes")
+    public void pesquisarShouldKeepOnlyMostRecentSlowSearches() {
+        for (String titulo : List.of("Iracema", "Senhora", "Lucíola")) {
+            pesquisa.pesquisar(porTitulo(titulo), Livro.class);
+        }
+
+        assertEquals(2, lentas.listar().size());
+    }
+
+    @Test
+    @DisplayName("Deve explicar a página lenta com o mesmo cursor da consulta executada")
+    public void pesquisarShouldExplainSlowPageWithCursor() throws InterruptedException {
+        PesquisaOrdenacao ordenacao = new PesquisaOrdenacao();
+        ordenacao.setCampo("titulo");
+        PesquisaRequest request = new PesquisaRequest();
+        request.setQuantidadeRegistros(1);
+        request.setPaginacao(Paginacao.CURSOR);
+        request.setOrdenacao(List.of(ordenacao));
+
+        pesquisa.pesquisar(request, Livro.class);
+        assertEquals(Set.of(), plano.parametros.poll(10, TimeUnit.SECONDS));
+
+        request.setCursor(PesquisaCursor.codificar(List.of("titulo:ASC", "id:ASC"), List.of("Iracema", 1L)));
+        pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(Set.of("c0", "c1"), plano.parametros.poll(10, TimeUnit.SECONDS));
+    }
+}
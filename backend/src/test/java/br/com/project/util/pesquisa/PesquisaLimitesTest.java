@@ -0,0 +1,106 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.entity.Livro;
+import br.com.project.entity.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+
+import static br.com.project.util.pesquisa.PesquisaFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+        "pesquisa.limites.entidades.Livro.quantidade-maxima-registros=3",
+        "pesquisa.limites.entidades.Livro.quantidade-maxima-filtros=1",
+        "pesquisa.limites.entidades.Livro.custo-maximo=100"})
+@Import(PesquisaTestConfiguration.class)
+public class PesquisaLimitesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private Pesquisa<Livro> pesquisa;
+
+    @Autowired
+    private PesquisaLimites limites;
+
+    @MockBean
+    private PesquisaPlano plano;
+
+    @BeforeEach
+    public void setup() {
+        persistirIracema(entityManager.getEntityManager());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Deve sobrescrever somente os limites configurados para a entidade")
+    public void getLimitesShouldMergeEntityLimitsWithDefaults() {
+        PesquisaLimites.Limites livro = limites.getLimites(Livro.class);
+        PesquisaLimites.Limites usuario = limites.getLimites(Usuario.class);
+
+        assertEquals(3, livro.getQuantidadeMaximaRegistros());
+        assertEquals(1, livro.getQuantidadeMaximaFiltros());
+        assertEquals(Duration.ofSeconds(30), livro.getTempoMaximo());
+        assertEquals(100, usuario.getQuantidadeMaximaRegistros());
+        assertNull(usuario.getCustoMaximo());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o tempo máximo das consultas ao prazo da thread, arredondado para segundos")
+    public void limitarShouldUseRemainingTimeUntilDeadline() {
+        Duration tempoMaximo = limites.getLimites(Livro.class).getTempoMaximo();
+        long agora = System.nanoTime();
+
+        assertEquals(tempoMaximo, PesquisaPrazo.limitar(tempoMaximo));
+        assertEquals(Duration.ofSeconds(1), PesquisaPrazo.executar(agora + Duration.ofMillis(200).toNanos(),
+                () -> PesquisaPrazo.limitar(tempoMaximo)));
+        assertEquals(Duration.ofSeconds(1), PesquisaPrazo.executar(agora - Duration.ofSeconds(1).toNanos(),
+                () -> PesquisaPrazo.limitar(null)));
+        assertEquals(Duration.ofSeconds(10), PesquisaPrazo.executar(agora + Duration.ofMillis(9500).toNanos(),
+                () -> PesquisaPrazo.limitar(tempoMaximo)));
+        assertEquals(tempoMaximo, PesquisaPrazo.executar(agora + Duration.ofMinutes(5).toNanos(),
+                () -> PesquisaPrazo.limitar(tempoMaximo)));
+        assertEquals(tempoMaximo, PesquisaPrazo.limitar(tempoMaximo));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quantidade de registros acima do limite da entidade")
+    public void pesquisarShouldRejectPageSizeAboveLimit() {
+        when(plano.estimarCusto(any())).thenReturn(10.0);
+
+        assertThrows(IllegalArgumentException.class, () -> pesquisa.pesquisar(request(1000), Livro.class));
+        assertThrows(IllegalArgumentException.class, () -> pesquisa.pesquisar(request(0), Livro.class));
+        assertEquals(1, pesquisa.pesquisar(request(3), Livro.class).getRegistros().size());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quantidade de filtros acima do limite da entidade")
+    public void pesquisarShouldRejectTooManyFilters() {
+        PesquisaRequest request = request(3,
+                filtro("titulo", Comparacao.CONTEM, "a"),
+                filtro("autor", Comparacao.CONTEM, "a"));
+
+        assertThrows(IllegalArgumentException.class, () -> pesquisa.pesquisar(request, Livro.class));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a pesquisa quando o custo estimado ultrapassar o máximo")
+    public void pesquisarShouldRejectQueryAboveMaximumCost() {
+        when(plano.estimarCusto(any())).thenReturn(5000.0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> pesquisa.pesquisar(request(3, filtro("titulo", Comparacao.CONTEM, "a")), Livro.class));
+    }
+}
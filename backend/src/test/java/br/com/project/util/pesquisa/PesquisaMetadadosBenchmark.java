@@ -0,0 +1,108 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.entity.Categoria;
+import br.com.project.entity.Emprestimo;
+import br.com.project.entity.Livro;
+import br.com.project.entity.Usuario;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da resolução dos campos de uma pesquisa de livros: {@link PesquisaMetadados} contra a reflexão que
+ * {@link Pesquisa} utilizava antes do registro (nome do {@link JsonProperty} e {@code getDeclaredField} por segmento).
+ * O metamodelo é criado por um {@link SessionFactory} sobre o H2 em memória, sem o contexto do Spring.
+ * Não faz parte dos testes; para executar, após {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<classpath de teste> br.com.project.util.pesquisa.PesquisaMetadadosBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PesquisaMetadadosBenchmark {
+
+    private static final String[] CAMPOS = {"titulo", "dataPublicacao", "categoria.nome", "emprestimos.usuario.email"};
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private PesquisaMetadados metadados;
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Livro.class)
+                .addAnnotatedClass(Categoria.class)
+                .addAnnotatedClass(Emprestimo.class)
+                .addAnnotatedClass(Usuario.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:benchmark")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "none")
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+        metadados = new PesquisaMetadados(session);
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void reflexao(Blackhole blackhole) {
+        for (String campo : CAMPOS) {
+            String nomeAtributo = alterarCampoParaNomeAtributo(Livro.class, campo);
+            validarCampoExistente(Livro.class, nomeAtributo);
+            blackhole.consume(nomeAtributo);
+        }
+    }
+
+    @Benchmark
+    public void metadados(Blackhole blackhole) {
+        for (String campo : CAMPOS) {
+            blackhole.consume(metadados.resolver(Livro.class, campo));
+        }
+    }
+
+    private static String alterarCampoParaNomeAtributo(Class<?> clazz, String nomeCampo) {
+        return Arrays.stream(clazz.getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(JsonProperty.class))
+                .filter(field -> field.getAnnotation(JsonProperty.class).value().equals(nomeCampo))
+                .map(Field::getName)
+                .findFirst()
+                .orElse(nomeCampo);
+    }
+
+    private static void validarCampoExistente(Class<?> entityClass, String campo) {
+        try {
+            Class<?> currentClass = entityClass;
+            for (String parte : campo.split("\\.")) {
+                Field field = currentClass.getDeclaredField(parte);
+                currentClass = field.getType();
+                if (Collection.class.isAssignableFrom(currentClass)) {
+                    currentClass = (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+                }
+            }
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException(campo, e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PesquisaMetadadosBenchmark.class.getSimpleName()).build()).run();
+    }
+}
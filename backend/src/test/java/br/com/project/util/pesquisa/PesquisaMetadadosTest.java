@@ -0,0 +1,85 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.entity.Categoria;
+import br.com.project.entity.Emprestimo;
+import br.com.project.entity.Livro;
+import br.com.project.entity.Usuario;
+import br.com.project.enumeration.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import(PesquisaMetadados.class)
+public class PesquisaMetadadosTest {
+
+    @Autowired
+    private PesquisaMetadados metadados;
+
+    @Test
+    @DisplayName("Deve resolver o tipo de um campo simples")
+    public void resolverShouldReturnTypeOfBasicField() {
+        CampoMetadados campo = metadados.resolver(Livro.class, "dataPublicacao");
+
+        assertEquals("dataPublicacao", campo.caminho());
+        assertEquals(LocalDate.class, campo.tipo());
+        assertFalse(campo.multivalorado());
+    }
+
+    @Test
+    @DisplayName("Deve resolver campos compostos atravessando associações")
+    public void resolverShouldWalkAssociations() {
+        CampoMetadados categoria = metadados.resolver(Livro.class, "categoria.nome");
+        CampoMetadados status = metadados.resolver(Livro.class, "emprestimos.status");
+
+        assertEquals(String.class, categoria.tipo());
+        assertFalse(categoria.multivalorado());
+        assertEquals(Status.class, status.tipo());
+        assertTrue(status.multivalorado());
+    }
+
+    @Test
+    @DisplayName("Deve resolver o tipo do elemento de uma coleção")
+    public void resolverShouldReturnElementTypeOfCollection() {
+        CampoMetadados campo = metadados.resolver(Livro.class, "emprestimos");
+
+        assertEquals(Emprestimo.class, campo.tipo());
+        assertTrue(campo.multivalorado());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o campo não existir")
+    public void resolverShouldThrowExceptionWhenFieldDoesNotExist() {
+        assertThrows(IllegalArgumentException.class, () -> metadados.resolver(Livro.class, "editora"));
+        assertThrows(IllegalArgumentException.class, () -> metadados.resolver(Livro.class, "categoria.editora"));
+        assertThrows(IllegalArgumentException.class, () -> metadados.resolver(Livro.class, "titulo.nome"));
+    }
+
+    @Test
+    @DisplayName("Deve resolver os campos calculados somente para ordenação")
+    public void resolverOrdenacaoShouldReturnAggregateFields() {
+        assertEquals(Long.class, metadados.resolverOrdenacao(Livro.class, "totalEmprestimos").tipo());
+        assertEquals(LocalDate.class, metadados.resolverOrdenacao(Livro.class, "ultimoEmprestimo").tipo());
+        assertEquals(Status.ATIVO, metadados.getAgregado(Usuario.class, "emprestimosAtivos").valor());
+        assertEquals(String.class, metadados.resolverOrdenacao(Livro.class, "titulo").tipo());
+        assertThrows(IllegalArgumentException.class, () -> metadados.resolver(Livro.class, "totalEmprestimos"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar somente as entidades alcançadas pelos caminhos da pesquisa")
+    public void getDependenciasShouldReturnEntitiesOnPaths() {
+        assertEquals(List.of(Livro.class), metadados.getDependencias(Livro.class, List.of("titulo", "isbn")));
+        assertEquals(List.of(Categoria.class, Livro.class), metadados.getDependencias(Livro.class, List.of("categoria.nome")));
+        assertEquals(List.of(Emprestimo.class, Livro.class, Usuario.class),
+                metadados.getDependencias(Livro.class, List.of("emprestimos.usuario.nome")));
+        assertEquals(List.of(Emprestimo.class, Livro.class), metadados.getDependencias(Livro.class, List.of("totalEmprestimos")));
+        assertEquals(List.of(Categoria.class), metadados.getDependencias(Categoria.class, List.of("nome")));
+    }
+}
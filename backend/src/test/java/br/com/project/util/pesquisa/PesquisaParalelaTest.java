@@ -0,0 +1,162 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.entity.Livro;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.project.util.pesquisa.PesquisaFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+        "pesquisa.paralela.habilitada=true", "pesquisa.lentas.limiar-ms=0"})
+@Import(PesquisaTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PesquisaParalelaTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Pesquisa<Livro> pesquisa;
+
+    @Autowired
+    private PesquisaParalela paralela;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private PesquisaLentas lentas;
+
+    @BeforeEach
+    public void setup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> persistirLivros(entityManager));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> excluirLivros(entityManager));
+    }
+
+    @Test
+    @DisplayName("Deve contar os registros e calcular as facetas em paralelo")
+    public void pesquisarShouldCountAndComputeFacetsInParallel() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(2);
+        request.setFacetas(List.of("categoria.nome"));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertTrue(paralela.isHabilitada());
+        assertEquals(5L, result.getTotalRegistros());
+        assertEquals(2, result.getRegistros().size());
+        assertTrue(result.getPossuiProximaPagina());
+        assertEquals(List.of(new PesquisaFaceta.Valor("Romance", 5L)), result.getFacetas().get(0).getValores());
+    }
+
+    @Test
+    @DisplayName("Deve registrar os SQLs e tempos da contagem e das facetas executadas no pool")
+    public void pesquisarShouldRecordParallelQueriesOfSlowSearch() {
+        PesquisaRequest request = request(2);
+        request.setFacetas(List.of("categoria.nome"));
+        lentas.limpar();
+
+        pesquisa.pesquisar(request, Livro.class);
+
+        PesquisaLenta lenta = lentas.listar().get(0);
+        assertEquals(3, lenta.getSqls().size());
+        assertTrue(lenta.getTempos().keySet().containsAll(Set.of("registros", "contagem", "faceta:categoria.nome", "total")));
+    }
+
+    @Test
+    @DisplayName("Deve calcular as facetas em paralelo com qualquer forma de contagem")
+    public void pesquisarShouldComputeFacetsInParallelWithAnyCount() {
+        for (Contagem contagem : List.of(Contagem.JANELA, Contagem.NENHUMA)) {
+            PesquisaRequest request = new PesquisaRequest();
+            request.setPagina(1);
+            request.setQuantidadeRegistros(2);
+            request.setContagem(contagem);
+            request.setFacetas(List.of("categoria.nome"));
+
+            PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+            assertEquals(Contagem.JANELA.equals(contagem) ? 5L : null, result.getTotalRegistros());
+            assertEquals(List.of(new PesquisaFaceta.Valor("Romance", 5L)), result.getFacetas().get(0).getValores());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve executar na thread chamadora dentro de uma transação")
+    public void isHabilitadaShouldBeFalseInsideTransaction() {
+        Boolean habilitada = new TransactionTemplate(transactionManager).execute(status -> paralela.isHabilitada());
+
+        assertEquals(Boolean.FALSE, habilitada);
+    }
+
+    @Test
+    @DisplayName("Deve executar as consultas em threads do pool")
+    public void executarShouldRunOnPoolThreads() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        paralela.aguardar(paralela.executar(() -> threads.add(Thread.currentThread().getName())));
+
+        assertTrue(threads.iterator().next().startsWith("pesquisa-"));
+    }
+
+    @Test
+    @DisplayName("Deve executar na thread chamadora quando as conexões reservadas ao pool estiverem em uso")
+    public void executarShouldRunInlineWithoutFreeConnection() {
+        PesquisaParalela umaConexao = new PesquisaParalela(transactionManager, meterRegistry, 8, 4, true);
+        CountDownLatch liberar = new CountDownLatch(1);
+        try {
+            CompletableFuture<Boolean> ocupada = umaConexao.executar(() -> {
+                try {
+                    return liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            String thread = umaConexao.aguardar(umaConexao.executar(() -> Thread.currentThread().getName()));
+
+            assertEquals(Thread.currentThread().getName(), thread);
+            liberar.countDown();
+            assertTrue(umaConexao.aguardar(ocupada));
+            assertTrue(umaConexao.aguardar(umaConexao.executar(() -> Thread.currentThread().getName())).startsWith("pesquisa-"));
+        } finally {
+            liberar.countDown();
+            umaConexao.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve propagar a exceção lançada pela consulta")
+    public void aguardarShouldRethrowQueryException() {
+        assertThrows(IllegalArgumentException.class, () -> paralela.aguardar(paralela.executar(() -> {
+            throw new IllegalArgumentException();
+        })));
+    }
+}
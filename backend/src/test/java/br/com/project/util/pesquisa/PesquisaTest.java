@@ -0,0 +1,633 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.dto.LivroDTO;
+import br.com.project.entity.Emprestimo;
+import br.com.project.entity.Livro;
+import br.com.project.entity.Usuario;
+import br.com.project.enumeration.Status;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static br.com.project.util.pesquisa.PesquisaFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import(PesquisaTestConfiguration.class)
+public class PesquisaTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private Pesquisa<Livro> pesquisa;
+
+    @BeforeEach
+    public void setup() {
+        PesquisaFixture.persistirLivros(entityManager.getEntityManager());
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void emprestar(String titulo, Status... status) {
+        Usuario usuario = entityManager.persist(Usuario.builder()
+                .nome("Leitor " + titulo)
+                .email(titulo.replace(' ', '.') + "@email.com")
+                .telefone("48999998888")
+                .dataCadastro(LocalDate.now())
+                .build());
+        Livro livro = entityManager.getEntityManager()
+                .createQuery("SELECT l FROM Livro l WHERE l.titulo = :titulo", Livro.class)
+                .setParameter("titulo", titulo)
+                .getSingleResult();
+        for (Status item : status) {
+            entityManager.persist(Emprestimo.builder()
+                    .usuario(usuario)
+                    .livro(livro)
+                    .status(item)
+                    .dataEmprestimo(LocalDate.now())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Deve paginar por número de página")
+    public void pesquisarShouldPageByOffset() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(2);
+        request.setQuantidadeRegistros(2);
+        request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(5L, result.getTotalRegistros());
+        assertEquals(List.of("Lucíola", "O Cortiço"), result.getRegistros().stream().map(Livro::getTitulo).toList());
+        assertNull(result.getProximoCursor());
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os registros utilizando o cursor")
+    public void pesquisarShouldWalkAllRecordsWithCursor() {
+        List<String> titulos = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            PesquisaRequest request = new PesquisaRequest();
+            request.setQuantidadeRegistros(2);
+            request.setPaginacao(Paginacao.CURSOR);
+            request.setCursor(cursor);
+            request.setOrdenacao(List.of(ordenacao("categoria.nome", Ordenacao.ASC), ordenacao("titulo", Ordenacao.DESC)));
+
+            PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+            result.getRegistros().forEach(livro -> titulos.add(livro.getTitulo()));
+            cursor = result.getProximoCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("Senhora", "O Cortiço", "Lucíola", "Iracema", "Dom Casmurro"), titulos);
+    }
+
+    @Test
+    @DisplayName("Deve comparar o cursor como linha quando as chaves não forem nulas e tiverem a mesma direção")
+    public void pesquisarShouldUseRowValueCursorForNonNullKeys() {
+        List<String> sqls = new ArrayList<>();
+        PesquisaRequest request = new PesquisaRequest();
+        request.setQuantidadeRegistros(2);
+        request.setPaginacao(Paginacao.CURSOR);
+        request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+        request.setCursor(pesquisa.pesquisar(request, Livro.class).getProximoCursor());
+
+        PesquisaResult<Livro> result = PesquisaSqlInspector.capturar(sqls, () -> pesquisa.pesquisar(request, Livro.class));
+
+        assertEquals(List.of("Lucíola", "O Cortiço"), result.getRegistros().stream().map(Livro::getTitulo).toList());
+        assertTrue(sqls.get(0).matches("(?s).*\\(\\w+\\.titulo,\\s*\\w+\\.id\\)\\s*>\\s*\\(.*"), sqls.get(0));
+        assertFalse(sqls.get(0).contains(" is null"), sqls.get(0));
+    }
+
+    @Test
+    @DisplayName("Deve percorrer com o cursor uma ordenação com nulos, deixando-os por último nas duas direções")
+    public void pesquisarShouldWalkNullableKeyWithCursor() {
+        emprestar("Senhora", Status.CONCLUIDO);
+        emprestar("Iracema", Status.CONCLUIDO);
+
+        for (Ordenacao direcao : Ordenacao.values()) {
+            List<String> titulos = new ArrayList<>();
+            String cursor = null;
+            do {
+                PesquisaRequest request = new PesquisaRequest();
+                request.setQuantidadeRegistros(2);
+                request.setPaginacao(Paginacao.CURSOR);
+                request.setCursor(cursor);
+                request.setOrdenacao(List.of(ordenacao("ultimoEmprestimo", direcao)));
+
+                PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+                result.getRegistros().forEach(livro -> titulos.add(livro.getTitulo()));
+                cursor = result.getProximoCursor();
+            } while (cursor != null);
+
+            assertEquals(List.of("Iracema", "Senhora", "Dom Casmurro", "O Cortiço", "Lucíola"), titulos, direcao.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o cursor não corresponder à ordenação")
+    public void pesquisarShouldThrowExceptionWhenCursorDoesNotMatchOrdering() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setQuantidadeRegistros(2);
+        request.setPaginacao(Paginacao.CURSOR);
+        request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+        String cursor = pesquisa.pesquisar(request, Livro.class).getProximoCursor();
+
+        request.setCursor(cursor);
+        request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.DESC)));
+
+        assertThrows(IllegalArgumentException.class, () -> pesquisa.pesquisar(request, Livro.class));
+    }
+
+    @Test
+    @DisplayName("Deve filtrar os registros")
+    public void pesquisarShouldFilterRecords() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(10);
+        request.setFiltros(List.of(filtro("titulo", Comparacao.CONTEM, "or")));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(2L, result.getTotalRegistros());
+    }
+
+    @Test
+    @DisplayName("Deve filtrar ignorando maiúsculas e minúsculas quando a comparação for COMECA_COM")
+    public void pesquisarShouldFilterCaseInsensitiveWhenComparacaoIsComecaCom() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(10);
+        request.setFiltros(List.of(filtro("titulo", Comparacao.COMECA_COM, "dom")));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(List.of("Dom Casmurro"), result.getRegistros().stream().map(Livro::getTitulo).toList());
+    }
+
+    @Test
+    @DisplayName("Deve filtrar por texto e ordenar pela relevância quando não houver ordenação")
+    public void pesquisarShouldFilterByTextAndOrderByRelevance() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(10);
+        request.setFiltros(List.of(filtro("autor", Comparacao.TEXTO, "senhora")));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(1L, result.getTotalRegistros());
+        assertEquals("Senhora", result.getRegistros().get(0).getTitulo());
+    }
+
+    @Test
+    @DisplayName("Deve filtrar por lista de valores convertidos para o tipo do campo")
+    public void pesquisarShouldFilterByListOfValues() {
+        List<Long> ids = entityManager.getEntityManager()
+                .createQuery("SELECT l.id FROM Livro l WHERE l.titulo IN ('Iracema', 'Senhora')", Long.class)
+                .getResultList();
+
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(10);
+        request.setFiltros(List.of(filtro("id", Comparacao.EM, ids.stream().map(String::valueOf).toList())));
+        request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(List.of("Iracema", "Senhora"), result.getRegistros().stream().map(Livro::getTitulo).toList());
+    }
+
+    @Test
+    @DisplayName("Deve filtrar por intervalo e comparações de ordem")
+    public void pesquisarShouldFilterByRangeAndOrderComparisons() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(10);
+        request.setFiltros(List.of(
+                filtro("dataPublicacao", Comparacao.ENTRE, List.of("1899-12-31", "1900-01-01")),
+                filtro("titulo", Comparacao.MAIOR, "Iracema"),
+                filtro("titulo", Comparacao.MENOR, "Senhora"),
+                filtro("titulo", Comparacao.NAO_IGUAL, "Lucíola")));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(List.of("O Cortiço"), result.getRegistros().stream().map(Livro::getTitulo).toList());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o valor não puder ser convertido para o tipo do campo")
+    public void pesquisarShouldThrowExceptionWhenValueCannotBeConverted() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(10);
+        request.setFiltros(List.of(filtro("id", Comparacao.EM, List.of("abc"))));
+
+        assertThrows(IllegalArgumentException.class, () -> pesquisa.pesquisar(request, Livro.class));
+    }
+
+    @Test
+    @DisplayName("Deve comparar datas pelo tipo do atributo")
+    public void pesquisarShouldCompareDatesByAttributeType() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(10);
+        request.setFiltros(List.of(filtro("dataPublicacao", Comparacao.IGUAL, "01/01/1900")));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(5L, result.getTotalRegistros());
+    }
+
+    @Test
+    @DisplayName("Deve contar os registros na mesma consulta quando a contagem for por janela")
+    public void pesquisarShouldCountInSameQueryWhenContagemIsJanela() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(2);
+        request.setContagem(Contagem.JANELA);
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(5L, result.getTotalRegistros());
+        assertEquals(2, result.getRegistros().size());
+        assertTrue(result.getPossuiProximaPagina());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Deve informar se existe próxima página quando não houver contagem")
+    public void pesquisarShouldReportNextPageWhenContagemIsNenhuma() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(3);
+        request.setQuantidadeRegistros(2);
+        request.setContagem(Contagem.NENHUMA);
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertNull(result.getTotalRegistros());
+        assertEquals(1, result.getRegistros().size());
+        assertFalse(result.getPossuiProximaPagina());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Deve projetar a página em DTOs com uma única consulta de registros")
+    public void pesquisarShouldProjectDTOsWithoutLoadingEntities() {
+        Usuario usuario = entityManager.persist(Usuario.builder()
+                .nome("Leitor")
+                .email("leitor@email.com")
+                .telefone("48999998888")
+                .dataCadastro(LocalDate.now())
+                .build());
+        Livro iracema = entityManager.getEntityManager()
+                .createQuery("SELECT l FROM Livro l WHERE l.titulo = 'Iracema'", Livro.class)
+                .getSingleResult();
+        entityManager.persist(Emprestimo.builder()
+                .usuario(usuario)
+                .livro(iracema)
+                .status(Status.CONCLUIDO)
+                .dataEmprestimo(LocalDate.now().minusDays(10))
+                .dataDevolucao(LocalDate.now().minusDays(5))
+                .build());
+        entityManager.persist(Emprestimo.builder()
+                .usuario(usuario)
+                .livro(iracema)
+                .status(Status.ATIVO)
+                .dataEmprestimo(LocalDate.now())
+                .dataDevolucao(LocalDate.now().plusDays(7))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(5);
+        request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+
+        PesquisaResult<LivroDTO> result = pesquisa.pesquisar(request, Livro.class, LivroDTO.projecao());
+
+        assertEquals(5, result.getRegistros().size());
+        assertEquals(5L, result.getTotalRegistros());
+        assertEquals(2, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+
+        LivroDTO livro = result.getRegistros().get(1);
+        assertEquals("Iracema", livro.getTitulo());
+        assertEquals("Romance", livro.getNomeCategoria());
+        assertNotNull(livro.getEmprestimo());
+        assertEquals(usuario.getId(), livro.getEmprestimo().getIdUsuario());
+        assertNull(result.getRegistros().get(0).getEmprestimo());
+    }
+
+    @Test
+    @DisplayName("Deve exportar todos os registros filtrados em ordem")
+    public void exportarShouldStreamAllFilteredRecords() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setQuantidadeRegistros(1);
+        request.setFiltros(List.of(filtro("titulo", Comparacao.CONTEM, "a")));
+        request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.DESC)));
+
+        List<String> titulos = new ArrayList<>();
+        pesquisa.exportar(request, Livro.class, LivroDTO.projecao(), livro -> titulos.add(livro.getTitulo()));
+
+        assertEquals(List.of("Senhora", "Lucíola", "Iracema", "Dom Casmurro"), titulos);
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Deve retornar as facetas considerando os filtros da pesquisa")
+    public void pesquisarShouldReturnFacetsUnderSameFilters() {
+        Usuario usuario = entityManager.persist(Usuario.builder()
+                .nome("Leitor")
+                .email("leitor@email.com")
+                .telefone("48999998888")
+                .dataCadastro(LocalDate.now())
+                .build());
+        List<Livro> livros = entityManager.getEntityManager()
+                .createQuery("SELECT l FROM Livro l WHERE l.titulo IN ('Iracema', 'Senhora')", Livro.class)
+                .getResultList();
+        for (Livro livro : livros) {
+            for (Status status : List.of(Status.CONCLUIDO, Status.CONCLUIDO, Status.ATIVO)) {
+                entityManager.persist(Emprestimo.builder()
+                        .usuario(usuario)
+                        .livro(livro)
+                        .status(status)
+                        .dataEmprestimo(LocalDate.now())
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(2);
+        request.setFiltros(List.of(filtro("titulo", Comparacao.NAO_IGUAL, "Iracema")));
+        request.setFacetas(List.of("categoria.nome", "emprestimos.status"));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(2, result.getFacetas().size());
+        assertEquals(List.of(new PesquisaFaceta.Valor("Romance", 4L)), result.getFacetas().get(0).getValores());
+
+        PesquisaFaceta status = result.getFacetas().get(1);
+        assertEquals("emprestimos.status", status.getCampo());
+        assertEquals(List.of(new PesquisaFaceta.Valor(null, 3L), new PesquisaFaceta.Valor(Status.ATIVO, 1L),
+                new PesquisaFaceta.Valor(Status.CONCLUIDO, 1L)), status.getValores());
+    }
+
+    @Test
+    @DisplayName("Deve projetar somente as associações expandidas")
+    public void pesquisarShouldProjectOnlyExpandedAssociations() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(5);
+        request.setContagem(Contagem.NENHUMA);
+
+        PesquisaResult<LivroDTO> result = pesquisa.pesquisar(request, Livro.class, LivroDTO.projecao(Set.of()));
+
+        LivroDTO livro = result.getRegistros().get(0);
+        assertNotNull(livro.getIdCategoria());
+        assertNull(livro.getNomeCategoria());
+        assertNull(livro.getEmprestimo());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o join de um caminho usado por vários filtros e pela ordenação")
+    public void pesquisarShouldReuseJoinsForSamePath() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(5);
+        request.setContagem(Contagem.NENHUMA);
+        request.setFiltros(List.of(
+                filtro("categoria.nome", Comparacao.CONTEM, "man"),
+                filtro("categoria.nome", Comparacao.COMECA_COM, "Ro")));
+        request.setOrdenacao(List.of(ordenacao("categoria.nome", Ordenacao.ASC), ordenacao("titulo", Ordenacao.ASC)));
+
+        List<String> sqls = new ArrayList<>();
+        PesquisaResult<Livro> result = PesquisaSqlInspector.capturar(sqls, () -> pesquisa.pesquisar(request, Livro.class));
+
+        assertEquals(5, result.getRegistros().size());
+        assertEquals(1, sqls.size());
+        assertEquals(1, sqls.get(0).split("join categorias").length - 1);
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar na projeção os joins criados pelos filtros")
+    public void pesquisarShouldReuseFilterJoinsInProjection() {
+        emprestar("Iracema", Status.ATIVO);
+
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(5);
+        request.setContagem(Contagem.NENHUMA);
+        request.setFiltros(List.of(
+                filtro("categoria.nome", Comparacao.IGUAL, "Romance"),
+                filtro("emprestimos.status", Comparacao.IGUAL, "ATIVO")));
+
+        List<String> sqls = new ArrayList<>();
+        PesquisaResult<LivroDTO> result = PesquisaSqlInspector.capturar(sqls,
+                () -> pesquisa.pesquisar(request, Livro.class, LivroDTO.projecao()));
+
+        assertEquals(1, result.getRegistros().size());
+        assertEquals("Romance", result.getRegistros().get(0).getNomeCategoria());
+        assertNotNull(result.getRegistros().get(0).getEmprestimo());
+        assertEquals(1, sqls.get(0).split("join categorias").length - 1);
+        assertEquals(2, sqls.get(0).split("join emprestimos").length - 1);
+    }
+
+    @Test
+    @DisplayName("Deve vincular os valores como parâmetros e reutilizar a consulta de mesma forma")
+    public void pesquisarShouldBindValuesAndReuseQueryShape() {
+        List<String> sqls = new ArrayList<>();
+        List<String> titulos = new ArrayList<>();
+
+        for (String titulo : List.of("Iracema", "Senhora")) {
+            PesquisaRequest request = new PesquisaRequest();
+            request.setPagina(1);
+            request.setQuantidadeRegistros(5);
+            request.setContagem(Contagem.NENHUMA);
+            request.setFiltros(List.of(filtro("titulo", Comparacao.IGUAL, titulo)));
+
+            PesquisaResult<Livro> result = PesquisaSqlInspector.capturar(sqls, () -> pesquisa.pesquisar(request, Livro.class));
+            titulos.addAll(result.getRegistros().stream().map(Livro::getTitulo).toList());
+        }
+
+        assertEquals(List.of("Iracema", "Senhora"), titulos);
+        assertEquals(2, sqls.size());
+        assertEquals(sqls.get(0), sqls.get(1));
+        assertFalse(sqls.get(0).contains("Iracema"));
+        assertTrue(sqls.get(0).contains("?"));
+        assertTrue(statistics().getQueryPlanCacheHitCount() >= 1);
+    }
+
+    @Test
+    @DisplayName("Deve filtrar por lista de valores enumerados em um único parâmetro")
+    public void pesquisarShouldFilterByListOfEnumValues() {
+        Usuario usuario = entityManager.persist(Usuario.builder()
+                .nome("Leitor")
+                .email("leitor@email.com")
+                .telefone("48999998888")
+                .dataCadastro(LocalDate.now())
+                .build());
+        Livro iracema = entityManager.getEntityManager()
+                .createQuery("SELECT l FROM Livro l WHERE l.titulo = 'Iracema'", Livro.class)
+                .getSingleResult();
+        entityManager.persist(Emprestimo.builder()
+                .usuario(usuario)
+                .livro(iracema)
+                .status(Status.ATIVO)
+                .dataEmprestimo(LocalDate.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(5);
+        request.setFiltros(List.of(filtro("emprestimos.status", Comparacao.EM, List.of("ATIVO", "CONCLUIDO"))));
+
+        PesquisaResult<Livro> result = pesquisa.pesquisar(request, Livro.class);
+
+        assertEquals(List.of("Iracema"), result.getRegistros().stream().map(Livro::getTitulo).toList());
+        assertEquals(1L, result.getTotalRegistros());
+    }
+
+    @Test
+    @DisplayName("Deve combinar grupos OU em uma única consulta, descartando filtros repetidos")
+    public void pesquisarShouldCombineOrGroupInSingleQuery() {
+        List<String> sqls = new ArrayList<>();
+        List<PesquisaResult<Livro>> resultados = new ArrayList<>();
+
+        for (int pagina = 1; pagina <= 2; pagina++) {
+            PesquisaRequest request = new PesquisaRequest();
+            request.setPagina(pagina);
+            request.setQuantidadeRegistros(1);
+            request.setContagem(Contagem.JANELA);
+            request.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+            request.setGrupo(grupo(OperadorLogico.OU, pagina == 1
+                    ? List.of(filtro("titulo", Comparacao.CONTEM, "Ira"), filtro("autor", Comparacao.CONTEM, "Senhora"))
+                    : List.of(filtro("titulo", Comparacao.CONTEM, "Ira"), filtro("titulo", Comparacao.CONTEM, "Ira"),
+                    filtro("autor", Comparacao.CONTEM, "Senhora"))));
+
+            resultados.add(PesquisaSqlInspector.capturar(sqls, () -> pesquisa.pesquisar(request, Livro.class)));
+        }
+
+        assertEquals(List.of("Iracema"), resultados.get(0).getRegistros().stream().map(Livro::getTitulo).toList());
+        assertEquals(List.of("Senhora"), resultados.get(1).getRegistros().stream().map(Livro::getTitulo).toList());
+        assertEquals(2L, resultados.get(0).getTotalRegistros());
+        assertEquals(2L, resultados.get(1).getTotalRegistros());
+        assertEquals(2, sqls.size());
+        assertEquals(sqls.get(0), sqls.get(1));
+    }
+
+    @Test
+    @DisplayName("Deve resolver campos multivalorados dentro de OU e NAO sem repetir registros")
+    public void pesquisarShouldNotDuplicateRecordsForCollectionsInsideGroups() {
+        emprestar("Iracema", Status.ATIVO, Status.ATIVO);
+        emprestar("Senhora", Status.CONCLUIDO);
+
+        PesquisaRequest ou = new PesquisaRequest();
+        ou.setPagina(1);
+        ou.setQuantidadeRegistros(5);
+        ou.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+        ou.setGrupo(grupo(OperadorLogico.OU, List.of(
+                filtro("emprestimos.status", Comparacao.IGUAL, "ATIVO"),
+                filtro("titulo", Comparacao.IGUAL, "Senhora"))));
+
+        PesquisaResult<Livro> resultadoOu = pesquisa.pesquisar(ou, Livro.class);
+        assertEquals(List.of("Iracema", "Senhora"), resultadoOu.getRegistros().stream().map(Livro::getTitulo).toList());
+        assertEquals(2L, resultadoOu.getTotalRegistros());
+
+        PesquisaRequest nao = new PesquisaRequest();
+        nao.setPagina(1);
+        nao.setQuantidadeRegistros(5);
+        nao.setOrdenacao(List.of(ordenacao("titulo", Ordenacao.ASC)));
+        nao.setFiltros(List.of(filtro("titulo", Comparacao.NAO_IGUAL, "Dom Casmurro")));
+        nao.setGrupo(grupo(OperadorLogico.NAO, List.of(filtro("emprestimos.status", Comparacao.IGUAL, "ATIVO"))));
+
+        PesquisaResult<Livro> resultadoNao = pesquisa.pesquisar(nao, Livro.class);
+        assertEquals(List.of("Lucíola", "O Cortiço", "Senhora"), resultadoNao.getRegistros().stream().map(Livro::getTitulo).toList());
+        assertEquals(3L, resultadoNao.getTotalRegistros());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar grupos de filtros vazios")
+    public void pesquisarShouldRejectEmptyGroup() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(5);
+        request.setGrupo(grupo(OperadorLogico.OU, List.of()));
+
+        assertThrows(IllegalArgumentException.class, () -> pesquisa.pesquisar(request, Livro.class));
+    }
+
+    @Test
+    @DisplayName("Deve ordenar e paginar pelos campos calculados no banco")
+    public void pesquisarShouldSortByAggregateFields() {
+        emprestar("Senhora", Status.CONCLUIDO, Status.CONCLUIDO, Status.ATIVO);
+        emprestar("Iracema", Status.CONCLUIDO);
+
+        List<String> titulos = new ArrayList<>();
+        List<String> sqls = new ArrayList<>();
+        String cursor = null;
+        do {
+            PesquisaRequest request = new PesquisaRequest();
+            request.setQuantidadeRegistros(2);
+            request.setPaginacao(Paginacao.CURSOR);
+            request.setCursor(cursor);
+            request.setOrdenacao(List.of(ordenacao("totalEmprestimos", Ordenacao.DESC), ordenacao("titulo", Ordenacao.ASC)));
+
+            PesquisaResult<Livro> result = PesquisaSqlInspector.capturar(sqls, () -> pesquisa.pesquisar(request, Livro.class));
+            result.getRegistros().forEach(livro -> titulos.add(livro.getTitulo()));
+            cursor = result.getProximoCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("Senhora", "Iracema", "Dom Casmurro", "Lucíola", "O Cortiço"), titulos);
+        assertTrue(sqls.get(0).contains("fetch first") || sqls.get(0).contains("limit"));
+
+        PesquisaRequest ultimo = new PesquisaRequest();
+        ultimo.setPagina(1);
+        ultimo.setQuantidadeRegistros(1);
+        ultimo.setOrdenacao(List.of(ordenacao("ultimoEmprestimo", Ordenacao.DESC), ordenacao("titulo", Ordenacao.DESC)));
+
+        assertEquals(List.of("Senhora"), pesquisa.pesquisar(ultimo, Livro.class).getRegistros().stream().map(Livro::getTitulo).toList());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar filtros por campos calculados")
+    public void pesquisarShouldRejectFilterByAggregateField() {
+        PesquisaRequest request = new PesquisaRequest();
+        request.setPagina(1);
+        request.setQuantidadeRegistros(5);
+        request.setFiltros(List.of(filtro("totalEmprestimos", Comparacao.MAIOR, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> pesquisa.pesquisar(request, Livro.class));
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.project.util.pesquisa;
+
+import br.com.project.config.HibernateConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Componentes da pesquisa para os testes com {@code @DataJpaTest}, que não carregam os {@code @Component} da aplicação.
+ */
+@TestConfiguration
+@Import({Pesquisa.class, PesquisaMetadados.class, PesquisaPlano.class, PesquisaParalela.class, PesquisaCache.class,
+        PesquisaConsultas.class, PesquisaLentas.class, PesquisaEstatisticas.class, PesquisaIndices.class,
+        PesquisaVersoes.class, HibernateConfiguration.class})
+public class PesquisaTestConfiguration {
+}
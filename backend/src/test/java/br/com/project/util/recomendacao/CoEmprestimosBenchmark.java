@@ -0,0 +1,82 @@
+package br.com.project.util.recomendacao;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de {@link GrafoCoEmprestimos} com 1 milhão de empréstimos: 100 mil usuários, 10 empréstimos cada, sobre
+ * 50 mil livros com popularidade concentrada (os primeiros livros são bem mais emprestados que os últimos).
+ * Não faz parte dos testes; para executar, após {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<classpath de teste> br.com.project.util.recomendacao.CoEmprestimosBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class CoEmprestimosBenchmark {
+
+    private static final int USUARIOS = 100_000;
+    private static final int LIVROS = 50_000;
+    private static final int EMPRESTIMOS_POR_USUARIO = 10;
+
+    private GrafoCoEmprestimos grafo;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        random = new SplittableRandom(42);
+        grafo = new GrafoCoEmprestimos(0.25);
+        for (long usuario = 1; usuario <= USUARIOS; usuario++) {
+            for (int i = 0; i < EMPRESTIMOS_POR_USUARIO; i++) {
+                grafo.adicionarHistorico(usuario, livro());
+            }
+        }
+        grafo.compactar();
+    }
+
+    private long livro() {
+        double u = random.nextDouble();
+        return 1 + (long) (LIVROS * u * u * u);
+    }
+
+    @Benchmark
+    public long[] tambemEmprestados() {
+        return grafo.tambemEmprestados(livro(), 10);
+    }
+
+    @Benchmark
+    public long[] recomendar() {
+        return grafo.recomendar(1 + random.nextInt(USUARIOS), 10);
+    }
+
+    /**
+     * A reconstrução é feita fora do lock em {@link CoEmprestimosLivros}; aqui ela só mantém as diferenças no mesmo
+     * tamanho da aplicação.
+     */
+    @Benchmark
+    public void registrarEmprestimo() {
+        grafo.registrarEmprestimo(1 + random.nextInt(USUARIOS), livro());
+        if (grafo.isCompactacaoNecessaria()) {
+            grafo.compactar();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GrafoCoEmprestimos compactar() {
+        grafo.compactar();
+        return grafo;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CoEmprestimosBenchmark.class.getSimpleName()).build()).run();
+    }
+}
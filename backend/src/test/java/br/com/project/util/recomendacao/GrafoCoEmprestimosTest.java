@@ -0,0 +1,149 @@
+package br.com.project.util.recomendacao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GrafoCoEmprestimosTest {
+
+    private static GrafoCoEmprestimos carregar(long[][] emprestimos) {
+        GrafoCoEmprestimos grafo = new GrafoCoEmprestimos(0.25);
+        for (long[] emprestimo : emprestimos) {
+            grafo.adicionarHistorico(emprestimo[0], emprestimo[1]);
+        }
+        grafo.compactar();
+        return grafo;
+    }
+
+    @Test
+    @DisplayName("Deve contar os usuários distintos que emprestaram os dois livros")
+    public void getCoEmprestimosShouldCountDistinctUsers() {
+        GrafoCoEmprestimos grafo = carregar(new long[][]{{1, 10}, {1, 20}, {1, 20}, {2, 10}, {2, 20}, {2, 30}, {3, 30}});
+
+        assertEquals(2, grafo.getCoEmprestimos(10, 20));
+        assertEquals(2, grafo.getCoEmprestimos(20, 10));
+        assertEquals(1, grafo.getCoEmprestimos(10, 30));
+        assertEquals(0, grafo.getCoEmprestimos(10, 10));
+        assertEquals(0, grafo.getCoEmprestimos(10, 99));
+    }
+
+    @Test
+    @DisplayName("Deve listar os livros também emprestados do mais frequente para o menos")
+    public void tambemEmprestadosShouldRankByCoLoans() {
+        GrafoCoEmprestimos grafo = carregar(new long[][]{{1, 10}, {1, 30}, {2, 10}, {2, 20}, {3, 10}, {3, 20}, {4, 10}, {4, 40}});
+
+        assertArrayEquals(new long[]{20, 30, 40}, grafo.tambemEmprestados(10, 5));
+        assertArrayEquals(new long[]{20, 30}, grafo.tambemEmprestados(10, 2));
+        assertEquals(0, grafo.tambemEmprestados(99, 5).length);
+    }
+
+    @Test
+    @DisplayName("Deve recomendar pelo histórico do usuário sem repetir os livros que ele já emprestou")
+    public void recomendarShouldSumHistoryAndSkipBorrowedBooks() {
+        GrafoCoEmprestimos grafo = carregar(new long[][]{{1, 10}, {1, 20}, {2, 10}, {2, 30}, {3, 20}, {3, 30}, {3, 40}, {4, 10}});
+
+        assertArrayEquals(new long[]{30, 40}, grafo.recomendar(1, 5));
+        assertArrayEquals(new long[]{20, 30}, grafo.recomendar(4, 5));
+        assertEquals(0, grafo.recomendar(99, 5).length);
+    }
+
+    @Test
+    @DisplayName("Deve responder igual à matriz reconstruída após empréstimos incrementais")
+    public void registrarEmprestimoShouldMatchRebuiltMatrix() {
+        Random random = new Random(7);
+        GrafoCoEmprestimos incremental = new GrafoCoEmprestimos(10);
+        GrafoCoEmprestimos reconstruido = new GrafoCoEmprestimos(10);
+
+        for (int i = 0; i < 2000; i++) {
+            long usuario = 1 + random.nextInt(100);
+            long livro = 1 + random.nextInt(60);
+            if (i < 1000) {
+                incremental.adicionarHistorico(usuario, livro);
+                if (i == 999) {
+                    incremental.compactar();
+                }
+            } else {
+                incremental.registrarEmprestimo(usuario, livro);
+            }
+            reconstruido.adicionarHistorico(usuario, livro);
+        }
+        reconstruido.compactar();
+
+        assertTrue(incremental.getQuantidadeDiferencas() > 0);
+        for (long livro = 1; livro <= 60; livro++) {
+            assertArrayEquals(reconstruido.tambemEmprestados(livro, 10), incremental.tambemEmprestados(livro, 10));
+        }
+        for (long usuario = 1; usuario <= 100; usuario++) {
+            assertArrayEquals(reconstruido.recomendar(usuario, 10), incremental.recomendar(usuario, 10));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter os empréstimos registrados durante a reconstrução feita fora do grafo")
+    public void concluirCompactacaoShouldKeepLoansRegisteredWhileBuilding() {
+        Random random = new Random(11);
+        GrafoCoEmprestimos incremental = new GrafoCoEmprestimos(10);
+        GrafoCoEmprestimos reconstruido = new GrafoCoEmprestimos(10);
+        GrafoCoEmprestimos.Compactacao compactacao = null;
+
+        for (int i = 0; i < 3000; i++) {
+            long usuario = 1 + random.nextInt(120);
+            long livro = 1 + random.nextInt(60);
+            if (i < 1000) {
+                incremental.adicionarHistorico(usuario, livro);
+                if (i == 999) {
+                    incremental.compactar();
+                }
+            } else {
+                incremental.registrarEmprestimo(usuario, livro);
+                if (i == 2000) {
+                    compactacao = incremental.iniciarCompactacao();
+                }
+            }
+            reconstruido.adicionarHistorico(usuario, livro);
+        }
+        reconstruido.compactar();
+
+        assertFalse(incremental.isCompactacaoNecessaria());
+        assertTrue(incremental.concluirCompactacao(compactacao, compactacao.construir()));
+        assertFalse(incremental.concluirCompactacao(compactacao, compactacao.construir()));
+        assertTrue(incremental.getQuantidadeDiferencas() > 0);
+        for (long livro = 1; livro <= 60; livro++) {
+            assertArrayEquals(reconstruido.tambemEmprestados(livro, 10), incremental.tambemEmprestados(livro, 10));
+        }
+        for (long usuario = 1; usuario <= 120; usuario++) {
+            assertArrayEquals(reconstruido.recomendar(usuario, 10), incremental.recomendar(usuario, 10));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve descartar a reconstrução iniciada antes de limpar o grafo")
+    public void concluirCompactacaoShouldIgnoreDiscardedCompaction() {
+        GrafoCoEmprestimos grafo = carregar(new long[][]{{1, 10}, {1, 20}});
+        GrafoCoEmprestimos.Compactacao compactacao = grafo.iniciarCompactacao();
+
+        grafo.limpar();
+        grafo.adicionarHistorico(2, 30);
+        grafo.adicionarHistorico(2, 40);
+        grafo.compactar();
+
+        assertFalse(grafo.concluirCompactacao(compactacao, compactacao.construir()));
+        assertArrayEquals(new long[]{40}, grafo.tambemEmprestados(30, 5));
+    }
+
+    @Test
+    @DisplayName("Não deve listar nem recomendar os livros removidos")
+    public void removerLivroShouldHideBookFromResults() {
+        GrafoCoEmprestimos grafo = carregar(new long[][]{{1, 10}, {1, 20}, {1, 30}, {2, 10}, {2, 20}, {3, 10}});
+
+        grafo.removerLivro(20);
+
+        assertArrayEquals(new long[]{30}, grafo.tambemEmprestados(10, 5));
+        assertEquals(0, grafo.tambemEmprestados(20, 5).length);
+        assertEquals(0, grafo.getCoEmprestimos(10, 20));
+        assertArrayEquals(new long[]{30}, grafo.recomendar(3, 5));
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.project.util.recomendacao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Usa o schema do Liquibase e não roda em transação: o lote grava por outras conexões, nas threads do seu pool.
+ */
+@DataJpaTest(properties = {"spring.liquibase.change-log=classpath:config/liquibase/master.xml",
+        "spring.jpa.hibernate.ddl-auto=none", "recomendacao.lote.quantidade=2", "recomendacao.lote.tamanho-bloco=1"})
+@Import({LoteRecomendacoes.class, RecomendacoesPrecalculadas.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class LoteRecomendacoesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoteRecomendacoes lote;
+
+    @Autowired
+    private RecomendacoesPrecalculadas precalculadas;
+
+    private long iracema;
+    private long senhora;
+    private long luciola;
+    private long leitor;
+    private long leitora;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("DELETE FROM recomendacoes_geracoes");
+        jdbcTemplate.update("DELETE FROM emprestimos");
+        jdbcTemplate.update("DELETE FROM livros");
+        jdbcTemplate.update("DELETE FROM usuarios");
+
+        long categoria = jdbcTemplate.queryForObject("SELECT MIN(id) FROM categorias", Long.class);
+        iracema = livro("Iracema", categoria);
+        senhora = livro("Senhora", categoria);
+        luciola = livro("Lucíola", categoria);
+        leitor = usuario("leitor@email.com");
+        leitora = usuario("leitora@email.com");
+
+        emprestar(leitor, iracema);
+        emprestar(leitora, iracema);
+        emprestar(leitora, senhora);
+    }
+
+    private long livro(String titulo, long categoria) {
+        jdbcTemplate.update("INSERT INTO livros (titulo, autor, isbn, data_publicacao, categoria_id) VALUES (?, ?, ?, ?, ?)",
+                titulo, "José de Alencar", titulo, Date.valueOf("1865-01-01"), categoria);
+        return jdbcTemplate.queryForObject("SELECT id FROM livros WHERE titulo = ?", Long.class, titulo);
+    }
+
+    private long usuario(String email) {
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, data_cadastro, telefone) VALUES (?, ?, CURRENT_DATE, ?)",
+                email, email, "48999998888");
+        return jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE email = ?", Long.class, email);
+    }
+
+    private void emprestar(long usuario, long livro) {
+        jdbcTemplate.update("INSERT INTO emprestimos (usuario_id, livro_id, data_emprestimo, status) VALUES (?, ?, CURRENT_DATE, 'CONCLUIDO')",
+                usuario, livro);
+    }
+
+    @Test
+    @DisplayName("Deve gravar os livros mais emprestados que cada usuário ainda não emprestou")
+    public void executarShouldPrecomputeRecommendationsForEveryUser() {
+        assertTrue(lote.executar());
+
+        assertEquals(Optional.of(List.of(senhora, luciola)), precalculadas.listar(leitor, 1, 2));
+        assertEquals(Optional.of(List.of(luciola)), precalculadas.listar(leitora, 1, 2));
+        assertEquals(Optional.of(List.of(luciola)), precalculadas.listar(leitor, 2, 1));
+        assertEquals(Optional.empty(), precalculadas.listar(leitor, 2, 2));
+        assertEquals(Optional.empty(), precalculadas.listar(-1L, 1, 2));
+    }
+
+    @Test
+    @DisplayName("Deve substituir a geração anterior somente ao terminar o lote")
+    public void executarShouldSwapGenerations() {
+        assertTrue(lote.executar());
+        emprestar(leitor, senhora);
+        assertTrue(lote.executar());
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM recomendacoes_geracoes", Integer.class));
+        assertEquals(Optional.of(List.of(luciola)), precalculadas.listar(leitor, 1, 2));
+    }
+
+    @Test
+    @DisplayName("Deve excluir ao ativar somente as gerações anteriores")
+    public void ativarShouldKeepNewerGenerationInProgress() {
+        precalculadas.iniciarGeracao();
+        long ativada = precalculadas.iniciarGeracao();
+        long emAndamento = precalculadas.iniciarGeracao();
+        precalculadas.gravar(emAndamento, List.<long[]>of(new long[]{leitor, 0, luciola}));
+
+        precalculadas.ativar(ativada);
+
+        assertEquals(List.of(ativada, emAndamento),
+                jdbcTemplate.queryForList("SELECT id FROM recomendacoes_geracoes ORDER BY id", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM recomendacoes WHERE geracao_id = ?", Integer.class, emAndamento));
+    }
+
+    @Test
+    @DisplayName("Deve retirar da geração ativa os livros emprestados depois do lote")
+    public void listarShouldSkipBooksBorrowedAfterGeneration() {
+        assertTrue(lote.executar());
+        emprestar(leitor, senhora);
+
+        assertEquals(Optional.of(List.of(luciola)), precalculadas.listar(leitor, 1, 2));
+        assertEquals(Optional.empty(), precalculadas.listar(leitor, 1, 1));
+        assertEquals(Optional.of(List.of(luciola)), precalculadas.listar(leitora, 1, 2));
+    }
+
+    @Test
+    @DisplayName("Não deve usar uma geração mais antiga que a validade")
+    public void listarShouldIgnoreStaleGeneration() {
+        assertTrue(lote.executar());
+        jdbcTemplate.update("UPDATE recomendacoes_geracoes SET data_fim = DATEADD('DAY', -2, data_fim)");
+
+        assertEquals(Optional.empty(), precalculadas.listar(leitor, 1, 2));
+    }
+}
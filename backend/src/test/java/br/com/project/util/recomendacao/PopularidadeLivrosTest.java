@@ -0,0 +1,98 @@
+package br.com.project.util.recomendacao;
+
+import br.com.project.entity.Categoria;
+import br.com.project.entity.Emprestimo;
+import br.com.project.entity.Livro;
+import br.com.project.entity.Usuario;
+import br.com.project.enumeration.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import(PopularidadeLivros.class)
+public class PopularidadeLivrosTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PopularidadeLivros popularidade;
+
+    private final List<Livro> livros = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        Categoria categoria = entityManager.persist(Categoria.builder().nome("Romance").build());
+        Usuario usuario = entityManager.persist(Usuario.builder()
+                .nome("Leitor")
+                .email("leitor@email.com")
+                .telefone("48999998888")
+                .dataCadastro(LocalDate.now())
+                .build());
+
+        for (String titulo : List.of("Iracema", "Senhora", "Lucíola")) {
+            livros.add(entityManager.persist(Livro.builder()
+                    .titulo(titulo)
+                    .autor("José de Alencar")
+                    .isbn("978-" + livros.size())
+                    .dataPublicacao(LocalDate.of(1865, 1, 1))
+                    .categoria(categoria)
+                    .build()));
+        }
+
+        for (int i = 0; i < 2; i++) {
+            entityManager.persist(Emprestimo.builder()
+                    .usuario(usuario)
+                    .livro(livros.get(1))
+                    .status(Status.CONCLUIDO)
+                    .dataEmprestimo(LocalDate.now())
+                    .build());
+        }
+        entityManager.persist(Emprestimo.builder()
+                .usuario(usuario)
+                .livro(livros.get(2))
+                .status(Status.ATIVO)
+                .dataEmprestimo(LocalDate.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private List<Long> ids(int... indices) {
+        return Arrays.stream(indices).mapToObj(indice -> livros.get(indice).getId()).toList();
+    }
+
+    @Test
+    @DisplayName("Deve carregar o ranking na ordem da consulta de livros mais emprestados")
+    public void carregarShouldLoadRankingFromDatabase() {
+        popularidade.carregar();
+
+        assertEquals(Optional.of(ids(1, 2, 0)), popularidade.listar(1, 10));
+        assertEquals(Optional.of(ids(2)), popularidade.listar(2, 1));
+        assertEquals(Optional.of(List.of()), popularidade.listar(4, 1));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar os empréstimos somente após o commit da transação")
+    public void registrarEmprestimoShouldWaitForCommit() {
+        popularidade.carregar();
+
+        popularidade.registrarEmprestimo(livros.get(0).getId());
+        popularidade.registrarEmprestimo(livros.get(0).getId());
+
+        assertEquals(Optional.of(ids(1, 2, 0)), popularidade.listar(1, 10));
+    }
+}
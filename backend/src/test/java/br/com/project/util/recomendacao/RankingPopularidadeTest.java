@@ -0,0 +1,90 @@
+package br.com.project.util.recomendacao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RankingPopularidadeTest {
+
+    private static RankingPopularidade carregar(long... idsEContagens) {
+        RankingPopularidade ranking = new RankingPopularidade(2);
+        for (int i = 0; i < idsEContagens.length; i += 2) {
+            ranking.adicionarAoFinal(idsEContagens[i], idsEContagens[i + 1]);
+        }
+        return ranking;
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar carga fora da ordem do ranking")
+    public void adicionarAoFinalShouldRejectUnorderedLoad() {
+        assertThrows(IllegalStateException.class, () -> carregar(1, 2, 2, 3));
+        assertThrows(IllegalStateException.class, () -> carregar(2, 3, 1, 3));
+    }
+
+    @Test
+    @DisplayName("Deve mover o livro emprestado para antes dos que ficaram com menos empréstimos")
+    public void incrementarShouldMoveBookAheadOfLessBorrowed() {
+        RankingPopularidade ranking = carregar(1, 3, 4, 2, 2, 1, 3, 1, 5, 0);
+
+        ranking.incrementar(3);
+        assertArrayEquals(new long[]{1, 3, 4, 2, 5}, ranking.listar(0, 10));
+
+        ranking.incrementar(5);
+        ranking.incrementar(5);
+        assertArrayEquals(new long[]{1, 3, 4, 5, 2}, ranking.listar(0, 10));
+        assertEquals(2, ranking.getContagem(5));
+
+        ranking.incrementar(6);
+        assertArrayEquals(new long[]{4, 5, 2, 6}, ranking.listar(2, 10));
+    }
+
+    @Test
+    @DisplayName("Deve incluir livros novos no fim e remover livros excluídos")
+    public void adicionarAndRemoverShouldKeepOrder() {
+        RankingPopularidade ranking = carregar(2, 1, 7, 0);
+
+        ranking.adicionar(3);
+        ranking.adicionar(7);
+        ranking.remover(2);
+        ranking.remover(9);
+
+        assertArrayEquals(new long[]{3, 7}, ranking.listar(0, 10));
+        assertEquals(0, ranking.listar(5, 10).length);
+    }
+
+    @Test
+    @DisplayName("Deve manter a mesma ordem da ordenação completa após muitas alterações")
+    public void incrementarShouldMatchFullSort() {
+        Random random = new Random(42);
+        RankingPopularidade ranking = new RankingPopularidade(2);
+        Map<Long, Long> contagens = new HashMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            long id = 1 + random.nextInt(300);
+            if (random.nextInt(20) == 0) {
+                ranking.remover(id);
+                contagens.remove(id);
+            } else {
+                ranking.incrementar(id);
+                contagens.merge(id, 1L, Long::sum);
+            }
+        }
+
+        long[] esperado = contagens.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+        assertArrayEquals(esperado, ranking.listar(0, esperado.length + 1));
+        for (int inicio = 0; inicio < esperado.length; inicio += 7) {
+            long[] pagina = Arrays.copyOfRange(esperado, inicio, Math.min(inicio + 7, esperado.length));
+            assertArrayEquals(pagina, ranking.listar(inicio, 7));
+        }
+    }
+}